@@ -0,0 +1,62 @@
+package cn.javgo.utils.cache;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Desc: {@link SingleFlightCache} 写入 Redis 的缓存条目，除了值本身还记录逻辑过期时间与加载耗时：
+ * <p>
+ * 1. Redis 中的过期时间为 逻辑过期时间 + 陈旧保留时间，逻辑过期之后条目仍保留一段时间，重建期间可以返回陈旧值；
+ * 2. 加载耗时用于概率提前刷新，加载越慢的键越早开始刷新。
+ *
+ * @author javgo
+ * @create 2026-10-17 02:20
+ */
+public class CachedValue implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存的值，允许为 null（空结果同样缓存，避免穿透）
+     */
+    private final Object value;
+
+    /**
+     * 逻辑过期时间（System.currentTimeMillis）
+     */
+    private final long expireAtMillis;
+
+    /**
+     * 加载耗时（毫秒）
+     */
+    private final long loadMillis;
+
+    public CachedValue(Object value, long expireAtMillis, long loadMillis) {
+        this.value = value;
+        this.expireAtMillis = expireAtMillis;
+        this.loadMillis = loadMillis;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getExpireAtMillis() {
+        return expireAtMillis;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * 是否已逻辑过期
+     *
+     * @param nowMillis 当前时间
+     * @return 是否过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expireAtMillis;
+    }
+}
@@ -0,0 +1,176 @@
+package cn.javgo.utils.cache;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Desc: 近端缓存中一个命名空间（键前缀）的本地缓存，按容量与写入后的存活时间淘汰。
+ * <p>
+ * 1. 读取时发现条目已过期则删除并视为未命中，不需要后台清理线程；
+ * 2. 条目按写入顺序记录在队列中，容量已满时从队首淘汰最早写入（存活时间相同，即最早过期）的条目，严格 FIFO，写入开销均摊 O(1)。
+ * 被覆盖、删除或过期的条目在队列中留下的记录在出队时跳过，队列长度超过容量的两倍时从队首清理这些记录；
+ * 3. 每次失效（删除单个键或清空）都递增版本号。从 Redis 读取前记录版本号，写入本地时版本号已变化说明读取期间收到了失效通知，
+ * 读到的值可能已过期，不保留在本地。
+ *
+ * @author javgo
+ * @create 2026-10-17 01:30
+ */
+final class LocalCache {
+
+    private final String prefix;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 按写入顺序排列的条目，可能包含已被覆盖、删除或过期的条目，出队与清理在队列上同步
+     */
+    private final Queue<Entry> writeOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 队列长度，ConcurrentLinkedQueue#size 需要遍历整个队列
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * 失效版本号
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    LocalCache(String prefix, int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Near cache " + prefix + " requires positive maxSize and ttlMillis: " + maxSize + ", " + ttlMillis);
+        }
+        this.prefix = prefix;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * 读取本地缓存
+     *
+     * @param key 完整键
+     * @return 缓存的值，未命中或已过期时返回 null
+     */
+    Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.expireAtNanos() < 0) {
+                hits.increment();
+                return entry.value();
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 当前失效版本号，在从 Redis 读取之前获取
+     *
+     * @return 版本号
+     */
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * 写入本地缓存，读取期间发生过失效时不保留
+     *
+     * @param key 完整键
+     * @param value 从 Redis 读到的值，不能为 null
+     * @param readVersion 读取之前获取的版本号
+     */
+    void put(String key, Object value, long readVersion) {
+        if (version.get() != readVersion) {
+            return;
+        }
+        if (!entries.containsKey(key)) {
+            evictIfFull();
+        }
+        Entry entry = new Entry(key, value, System.nanoTime() + ttlNanos);
+        entries.put(key, entry);
+        writeOrder.add(entry);
+        if (queued.incrementAndGet() > maxSize * 2) {
+            purge();
+        }
+        // 写入与失效之间没有加锁，写入后再检查一次，失效通知不会被覆盖
+        if (version.get() != readVersion) {
+            entries.remove(key);
+        }
+    }
+
+    void evict(String key) {
+        version.incrementAndGet();
+        entries.remove(key);
+    }
+
+    void clear() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 容量已满时按写入顺序淘汰，跳过队列中已失效的记录
+     */
+    private void evictIfFull() {
+        synchronized (writeOrder) {
+            while (entries.size() >= maxSize) {
+                Entry eldest = writeOrder.poll();
+                if (eldest == null) {
+                    return;
+                }
+                queued.decrementAndGet();
+                entries.remove(eldest.key(), eldest);
+            }
+        }
+    }
+
+    /**
+     * 从队首清理已被覆盖、删除或过期的记录，过期的条目同时从表中删除
+     */
+    private void purge() {
+        synchronized (writeOrder) {
+            long now = System.nanoTime();
+            Entry eldest;
+            while ((eldest = writeOrder.peek()) != null
+                    && (entries.get(eldest.key()) != eldest || now - eldest.expireAtNanos() >= 0)) {
+                writeOrder.poll();
+                queued.decrementAndGet();
+                entries.remove(eldest.key(), eldest);
+            }
+        }
+    }
+
+    private record Entry(String key, Object value, long expireAtNanos) {
+    }
+}
@@ -0,0 +1,338 @@
+package cn.javgo.utils.cache;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Desc: 两级缓存（近端缓存），在 RedisTemplate 之前为读多写少的命名空间（如权限数据）加一层有容量与存活时间上限的本地缓存，
+ * 命中时不再访问 Redis。
+ * <p>
+ * 1. 命名空间按键前缀配置，键匹配最长的已注册前缀；不属于任何命名空间的键直接读写 Redis；
+ * 2. 通过本类写入或删除键时，先写 Redis，再删除本地条目，并向 {@link RedisKeyPrefix#NEAR_CACHE_INVALIDATE_CHANNEL} 发布失效通知，
+ * 其他节点收到后删除各自的本地条目，下次读取时从 Redis 重新加载；
+ * 3. 失效通知可能丢失（订阅断线、绕过本类直接写 Redis），此时本地条目最多在存活时间结束后失效，存活时间即为可容忍的最大不一致时间；
+ * 4. 本地缓存中的对象被所有读取者共享，调用方不应修改读到的对象。
+ * <p>
+ * 配置示例（前缀默认为各权限命名空间，可在代码中通过 {@link #register(String, int, long)} 为单个前缀指定容量与存活时间）：
+ * <pre>
+ * cache.near.prefixes=javgo_cn:allPermissionId2DTOMap:,javgo_cn:backendPermissionUrlRoleMap:
+ * cache.near.maxSize=10000
+ * cache.near.ttlMillis=60000
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-17 01:40
+ */
+@Slf4j
+@Component
+public class NearCache implements MessageListener {
+
+    /**
+     * 失效通知中表示清空整个命名空间的后缀
+     */
+    private static final String ALL = "*";
+
+    private static final byte[] CHANNEL = RedisKeyPrefix.NEAR_CACHE_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 本节点标识，收到自己发布的失效通知时忽略
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 各命名空间的本地缓存，按前缀长度降序排列，读取时匹配最长的前缀
+     */
+    private final List<LocalCache> caches = new CopyOnWriteArrayList<>();
+
+    private RedisMessageListenerContainer container;
+
+    @Autowired
+    public NearCache(RedisTemplate<String, Object> redisTemplate,
+                     @Value("${cache.near.prefixes:" + RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP + "," + RedisKeyPrefix.BACKEND_PERMISSION_URL_ROLE_MAP
+                             + "," + RedisKeyPrefix.ALL_FIELD_PERMISSION + "," + RedisKeyPrefix.ALL_FRONTEND_PERMISSION
+                             + "," + RedisKeyPrefix.DATA_ROLE_KEY + "}") String[] prefixes,
+                     @Value("${cache.near.maxSize:10000}") int maxSize,
+                     @Value("${cache.near.ttlMillis:60000}") long ttlMillis) {
+        this.redisTemplate = redisTemplate;
+        for (String prefix : prefixes) {
+            if (!prefix.isBlank()) {
+                register(prefix.trim(), maxSize, ttlMillis);
+            }
+        }
+    }
+
+    /**
+     * 订阅失效通知频道
+     */
+    @PostConstruct
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTemplate.getConnectionFactory());
+        container.addMessageListener(this, new ChannelTopic(RedisKeyPrefix.NEAR_CACHE_INVALIDATE_CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    /**
+     * 取消订阅
+     */
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * 注册命名空间，已注册的前缀被替换（原有的本地条目一并丢弃）
+     *
+     * @param prefix 键前缀
+     * @param maxSize 本地条目数上限
+     * @param ttlMillis 本地条目写入后的存活时间（毫秒）
+     */
+    public synchronized void register(String prefix, int maxSize, long ttlMillis) {
+        LocalCache cache = new LocalCache(prefix, maxSize, ttlMillis);
+        caches.removeIf(existing -> existing.getPrefix().equals(prefix));
+        caches.add(cache);
+        caches.sort(Comparator.comparingInt((LocalCache c) -> c.getPrefix().length()).reversed());
+    }
+
+    /**
+     * 读取值，属于命名空间的键优先从本地读取
+     *
+     * @param key 完整键
+     * @return 值，不存在时返回 null
+     */
+    public Object get(String key) {
+        LocalCache cache = cacheFor(key);
+        if (cache == null) {
+            return redisTemplate.opsForValue().get(key);
+        }
+        Object value = cache.get(key);
+        if (value == null) {
+            long version = cache.version();
+            value = redisTemplate.opsForValue().get(key);
+            if (value != null) {
+                cache.put(key, value, version);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 读取哈希表的全部字段，属于命名空间的键优先从本地读取
+     *
+     * @param key 完整键
+     * @return 字段 -> 值（属于命名空间时不可修改），不存在时为空
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Object, Object> entries(String key) {
+        LocalCache cache = cacheFor(key);
+        if (cache == null) {
+            return redisTemplate.opsForHash().entries(key);
+        }
+        Object value = cache.get(key);
+        if (value == null) {
+            long version = cache.version();
+            Map<Object, Object> entries = Collections.unmodifiableMap(redisTemplate.opsForHash().entries(key));
+            if (!entries.isEmpty()) {
+                cache.put(key, entries, version);
+            }
+            return entries;
+        }
+        return (Map<Object, Object>) value;
+    }
+
+    /**
+     * 读取哈希表的一个字段，属于命名空间的键从本地缓存的整个哈希表中读取
+     *
+     * @param key 完整键
+     * @param field 字段
+     * @return 值，不存在时返回 null
+     */
+    public Object hashGet(String key, Object field) {
+        if (cacheFor(key) == null) {
+            return redisTemplate.opsForHash().get(key, field);
+        }
+        return entries(key).get(field);
+    }
+
+    /**
+     * 写入值并通知所有节点失效
+     *
+     * @param key 完整键
+     * @param value 值
+     */
+    public void set(String key, Object value) {
+        redisTemplate.opsForValue().set(key, value);
+        invalidate(key);
+    }
+
+    /**
+     * 写入值并通知所有节点失效
+     *
+     * @param key 完整键
+     * @param value 值
+     * @param ttl Redis 中的过期时间
+     */
+    public void set(String key, Object value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+        invalidate(key);
+    }
+
+    /**
+     * 写入哈希表的全部字段并通知所有节点失效
+     *
+     * @param key 完整键
+     * @param entries 字段 -> 值
+     */
+    public void putAll(String key, Map<?, ?> entries) {
+        redisTemplate.opsForHash().putAll(key, entries);
+        invalidate(key);
+    }
+
+    /**
+     * 删除键并通知所有节点失效
+     *
+     * @param key 完整键
+     * @return 是否删除
+     */
+    public boolean delete(String key) {
+        Boolean deleted = redisTemplate.delete(key);
+        invalidate(key);
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    /**
+     * 删除本地条目并通知所有节点失效，用于绕过本类修改 Redis 之后
+     *
+     * @param key 完整键
+     */
+    public void invalidate(String key) {
+        LocalCache cache = cacheFor(key);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(key);
+        publish(key);
+    }
+
+    /**
+     * 清空命名空间的本地条目并通知所有节点
+     *
+     * @param prefix 已注册的键前缀
+     */
+    public void invalidateAll(String prefix) {
+        LocalCache cache = cacheOf(prefix);
+        if (cache == null) {
+            return;
+        }
+        cache.clear();
+        publish(prefix + ALL);
+    }
+
+    /**
+     * 命名空间的本地条目数
+     *
+     * @param prefix 已注册的键前缀
+     * @return 本地条目数，未注册时返回 0
+     */
+    public int localSize(String prefix) {
+        LocalCache cache = cacheOf(prefix);
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * 命名空间的本地命中率
+     *
+     * @param prefix 已注册的键前缀
+     * @return 命中率，没有读取过时返回 0
+     */
+    public double hitRate(String prefix) {
+        LocalCache cache = cacheOf(prefix);
+        if (cache == null) {
+            return 0;
+        }
+        long hits = cache.getHits();
+        long total = hits + cache.getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 收到失效通知，消息体为 "节点标识\n键"，键以 "*" 结尾时清空该前缀的命名空间
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('\n');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        String key = body.substring(separator + 1);
+        log.debug("Received near cache invalidation for {}", key);
+        if (key.endsWith(ALL)) {
+            LocalCache cache = cacheOf(key.substring(0, key.length() - ALL.length()));
+            if (cache != null) {
+                cache.clear();
+            }
+            return;
+        }
+        LocalCache cache = cacheFor(key);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void publish(String key) {
+        byte[] body = (nodeId + "\n" + key).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(CHANNEL, body));
+        } catch (RuntimeException e) {
+            // 其他节点的本地条目在存活时间结束后失效
+            log.warn("Failed to publish near cache invalidation for {}", key, e);
+        }
+    }
+
+    /**
+     * 键所属的命名空间，匹配最长的前缀
+     */
+    private LocalCache cacheFor(String key) {
+        for (LocalCache cache : caches) {
+            if (key.startsWith(cache.getPrefix())) {
+                return cache;
+            }
+        }
+        return null;
+    }
+
+    private LocalCache cacheOf(String prefix) {
+        for (LocalCache cache : caches) {
+            if (cache.getPrefix().equals(prefix)) {
+                return cache;
+            }
+        }
+        return null;
+    }
+}
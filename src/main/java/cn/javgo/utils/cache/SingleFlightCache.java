@@ -0,0 +1,272 @@
+package cn.javgo.utils.cache;
+
+import cn.javgo.utils.distributed.DistributedLock;
+import cn.javgo.utils.distributed.LockHandle;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Desc: 带击穿保护的读穿缓存，热点键过期时集群内只有一个节点、节点内只有一个线程重建：
+ * <p>
+ * 1. 同一 JVM 内同一个键的并发未命中合并为一次加载（single flight），其余线程等待同一个 CompletableFuture；
+ * 2. 加载前获取该键的分布式锁（不等待），只有拿到锁的节点调用 loader 并写回 Redis；
+ * 3. 没有拿到锁的节点：Redis 中还有陈旧值时直接返回陈旧值；没有陈旧值时等待锁释放（由锁的释放通知唤醒），随后读取重建好的值；
+ * 4. 值在逻辑过期之前按概率提前刷新（XFetch：now - 加载耗时 * beta * ln(rand) >= 过期时间），越接近过期、加载越慢越可能刷新，
+ * 刷新在后台线程中进行，调用方直接拿到当前值，热点键通常不会真正过期；
+ * 5. loader 抛出异常时，有陈旧值则返回陈旧值，否则异常抛给所有等待者。
+ * <p>
+ * Redis 中保存的是 {@link CachedValue}，过期时间为 ttl + cache.loader.staleMillis。各节点按本地时钟判断逻辑过期，时钟偏差应远小于 ttl。
+ * 配置示例：
+ * <pre>
+ * cache.loader.staleMillis=60000
+ * cache.loader.waitMillis=3000
+ * cache.loader.leaseMillis=30000
+ * cache.loader.beta=1.0
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-17 02:30
+ */
+@Slf4j
+@Component
+public class SingleFlightCache {
+
+    /**
+     * 重建锁的键前缀，拼接在锁服务自身的前缀之后
+     */
+    private static final String LOAD_LOCK_PREFIX = "cache_load:";
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private DistributedLock redisDistributedLockService;
+
+    /**
+     * 逻辑过期后陈旧值在 Redis 中的保留时间（毫秒）
+     */
+    @Value("${cache.loader.staleMillis:60000}")
+    private long staleMillis = 60000;
+
+    /**
+     * 没有陈旧值时等待其他节点重建的最长时间（毫秒），超时后在本节点加载
+     */
+    @Value("${cache.loader.waitMillis:3000}")
+    private long waitMillis = 3000;
+
+    /**
+     * 重建锁的租期（毫秒），持有期间由看门狗续期
+     */
+    @Value("${cache.loader.leaseMillis:30000}")
+    private long leaseMillis = 30000;
+
+    /**
+     * 提前刷新的激进程度，大于 1 时更早刷新，0 表示不提前刷新
+     */
+    @Value("${cache.loader.beta:1.0}")
+    private double beta = 1.0;
+
+    /**
+     * 后台提前刷新的线程数
+     */
+    @Value("${cache.loader.threads:2}")
+    private int refreshThreads = 2;
+
+    /**
+     * 正在进行的加载：键 -> 加载结果
+     */
+    private final Map<String, CompletableFuture<CachedValue>> flights = new ConcurrentHashMap<>();
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newFixedThreadPool(Math.max(refreshThreads, 1), r -> {
+            Thread thread = new Thread(r, "cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取缓存，未命中或已过期时通过 loader 加载并写回
+     *
+     * @param key 完整键
+     * @param loader 加载函数，如查询数据库，可以返回 null
+     * @param ttl 逻辑过期时间
+     * @param <T> 值的类型
+     * @return 缓存的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, Supplier<T> loader, Duration ttl) {
+        CachedValue cached = read(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && !cached.isExpired(now)) {
+            if (shouldRefreshEarly(cached, now)) {
+                refreshAsync(key, loader, ttl, cached);
+            }
+            return (T) cached.getValue();
+        }
+        return (T) join(key, loader, ttl, cached).getValue();
+    }
+
+    /**
+     * 删除缓存，下次读取时重新加载
+     *
+     * @param key 完整键
+     */
+    public void evict(String key) {
+        redisTemplate.delete(key);
+    }
+
+    /**
+     * 加入该键正在进行的加载，没有时发起一次
+     */
+    private CachedValue join(String key, Supplier<?> loader, Duration ttl, CachedValue stale) {
+        CompletableFuture<CachedValue> flight = new CompletableFuture<>();
+        CompletableFuture<CachedValue> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            CachedValue result;
+            try {
+                result = existing.join();
+            } catch (CompletionException e) {
+                if (stale != null) {
+                    return stale;
+                }
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+            // 正在进行的是后台刷新且已放弃，由当前线程加载
+            return result != null ? result : load(key, loader, ttl, stale, true);
+        }
+        try {
+            CachedValue loaded = load(key, loader, ttl, stale, true);
+            flights.remove(key, flight);
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 后台刷新，同一键已有加载在进行时跳过
+     */
+    private void refreshAsync(String key, Supplier<?> loader, Duration ttl, CachedValue current) {
+        CompletableFuture<CachedValue> flight = new CompletableFuture<>();
+        if (flights.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    flight.complete(load(key, loader, ttl, current, false));
+                } catch (Throwable t) {
+                    log.warn("Failed to refresh cache {} ahead of expiry", key, t);
+                    flight.completeExceptionally(t);
+                } finally {
+                    flights.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flights.remove(key, flight);
+            flight.cancel(false);
+        }
+    }
+
+    /**
+     * 在分布式锁的保护下加载并写回
+     *
+     * @param seen 加载前读到的值：同步读取时为已过期的值或 null，后台刷新时为即将过期的值
+     * @param mustReturn 同步读取时为 true：拿不到锁时等待其他节点的结果；后台刷新时为 false：拿不到锁直接放弃
+     * @return 加载到的值；后台刷新放弃时返回 null
+     */
+    private CachedValue load(String key, Supplier<?> loader, Duration ttl, CachedValue seen, boolean mustReturn) {
+        String lockKey = LOAD_LOCK_PREFIX + key;
+        LockHandle handle = redisDistributedLockService.tryLock(lockKey, Duration.ZERO, Duration.ofMillis(leaseMillis));
+        if (handle == null) {
+            if (!mustReturn) {
+                return null;
+            }
+            if (seen != null) {
+                log.debug("Cache {} is being rebuilt by another node, serving stale value", key);
+                return seen;
+            }
+            // 等待其他节点重建完成并释放锁
+            handle = redisDistributedLockService.tryLock(lockKey, Duration.ofMillis(waitMillis), Duration.ofMillis(leaseMillis));
+            if (handle == null) {
+                log.warn("Timed out waiting {} ms for cache {} to be rebuilt, loading locally", waitMillis, key);
+                return new CachedValue(loader.get(), System.currentTimeMillis() + ttl.toMillis(), 0);
+            }
+        }
+        try {
+            // 拿到锁之前其他节点可能刚刚完成重建（后台刷新时以过期时间是否变化判断）
+            CachedValue current = read(key);
+            if (current != null && !current.isExpired(System.currentTimeMillis())
+                    && (mustReturn || seen == null || current.getExpireAtMillis() != seen.getExpireAtMillis())) {
+                return current;
+            }
+            long start = System.nanoTime();
+            Object value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException e) {
+                CachedValue fallback = current != null ? current : seen;
+                if (fallback == null || !mustReturn) {
+                    throw e;
+                }
+                log.warn("Failed to load cache {}, serving stale value", key, e);
+                return fallback;
+            }
+            long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            CachedValue loaded = new CachedValue(value, System.currentTimeMillis() + ttl.toMillis(), loadMillis);
+            redisTemplate.opsForValue().set(key, loaded, ttl.toMillis() + staleMillis, TimeUnit.MILLISECONDS);
+            log.debug("Rebuilt cache {} in {} ms", key, loadMillis);
+            return loaded;
+        } finally {
+            handle.release();
+        }
+    }
+
+    /**
+     * XFetch 概率提前刷新：剩余时间越短、加载越慢，越可能提前刷新
+     */
+    private boolean shouldRefreshEarly(CachedValue cached, long nowMillis) {
+        if (beta <= 0) {
+            return false;
+        }
+        // 1 - nextDouble() 的取值范围为 (0, 1]，ln 的结果不大于 0
+        double gap = -cached.getLoadMillis() * beta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return nowMillis + gap >= cached.getExpireAtMillis();
+    }
+
+    private CachedValue read(String key) {
+        Object value = redisTemplate.opsForValue().get(key);
+        return value instanceof CachedValue cachedValue ? cachedValue : null;
+    }
+}
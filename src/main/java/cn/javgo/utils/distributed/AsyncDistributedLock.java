@@ -0,0 +1,68 @@
+package cn.javgo.utils.distributed;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Desc: 分布式锁的非阻塞接口，与 {@link DistributedLock} 配套使用。
+ * <p>
+ * 所有方法立即返回 CompletableFuture，等待与重试由定时器驱动，不会挂起调用线程，适用于事件循环线程（WebFlux）和有界线程池（消息消费者）。
+ * 由于没有线程归属，锁的所有权由 {@link LockHandle} 携带。
+ *
+ * @author javgo
+ * @create 2026-10-16 13:05
+ */
+public interface AsyncDistributedLock {
+
+    /**
+     * 异步获取锁
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 加锁成功时完成为锁句柄，等待超时时完成为 null
+     */
+    CompletableFuture<LockHandle> lockAsync(String key, long expire, long waitMillis);
+
+    /**
+     * 异步释放锁
+     *
+     * @param handle 加锁时得到的锁句柄
+     * @return 是否成功释放锁
+     */
+    CompletableFuture<Boolean> releaseAsync(LockHandle handle);
+
+    /**
+     * 在锁的保护下执行异步操作，操作完成（无论成功或失败）后释放锁
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒）
+     * @param action 需要在锁保护下执行的异步操作
+     * @param <T> 操作结果类型
+     * @return 操作结果，获取锁失败时以 RuntimeException 异常完成
+     */
+    default <T> CompletableFuture<T> withLockAsync(String key, long expire, long waitMillis, Supplier<CompletableFuture<T>> action) {
+        return lockAsync(key, expire, waitMillis).thenCompose(handle -> {
+            if (handle == null) {
+                return CompletableFuture.failedFuture(new RuntimeException("Failed to acquire lock: " + key));
+            }
+            CompletableFuture<T> actionFuture;
+            try {
+                actionFuture = action.get();
+            } catch (Throwable t) {
+                actionFuture = CompletableFuture.failedFuture(t);
+            }
+            // 先释放锁，再把操作的结果或异常原样传递出去
+            return actionFuture
+                    .handle((value, error) -> releaseAsync(handle).handle((released, releaseError) -> {
+                        if (error != null) {
+                            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                        }
+                        return value;
+                    }))
+                    .thenCompose(future -> future);
+        });
+    }
+}
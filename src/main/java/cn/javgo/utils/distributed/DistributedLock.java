@@ -1,5 +1,8 @@
 package cn.javgo.utils.distributed;
 
+import java.time.Duration;
+import java.util.Collection;
+
 /**
  * Desc: 分布式锁顶层接口，定义分布式锁的基本操作
  *
@@ -67,6 +70,70 @@ public interface DistributedLock {
      */
     boolean lock(String key, long expire, int retryTimes, long sleepMillis);
 
+    /**
+     * 获取锁，返回携带持有者标识的锁句柄。与 lock 系列方法不同，所有权由句柄携带，不使用 ThreadLocal，
+     * 适用于虚拟线程以及加锁、释放不在同一线程的场景。
+     *
+     * @param key 锁的键
+     * @return 锁句柄，在默认等待时间内未获取到锁时返回 null
+     */
+    LockHandle acquire(String key);
+
+    /**
+     * 获取锁，返回携带持有者标识与围栏令牌的锁句柄
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    LockHandle acquire(String key, long expire, long waitMillis);
+
+    /**
+     * 获取锁，等待期间按指定的间隔兜底重试，而不是锁服务的默认间隔。
+     * 不支持指定间隔的实现退化为 {@link #acquire(String, long, long)}。
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @param sleepMillis 兜底重试间隔（毫秒），不大于 0 时使用锁服务的默认间隔
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    default LockHandle acquire(String key, long expire, long waitMillis, long sleepMillis) {
+        return acquire(key, expire, waitMillis);
+    }
+
+    /**
+     * 在截止时间内获取锁，等待期间按该键最近的持锁时间自适应退避并加入随机抖动，而不是按固定间隔重试。
+     * 不支持自适应退避的实现退化为 {@link #acquire(String, long, long)}。
+     *
+     * @param key 锁的键
+     * @param waitTimeout 最长等待时间，从调用时开始计算，ZERO 表示只尝试一次
+     * @param lease 锁的租期
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    default LockHandle tryLock(String key, Duration waitTimeout, Duration lease) {
+        return acquire(key, lease.toMillis(), waitTimeout.toMillis());
+    }
+
+    /**
+     * 一次性获取多把锁，要么全部获取，要么一把都不获取。键按统一顺序加锁，不同调用方之间不会因加锁顺序不一致而死锁。
+     *
+     * @param keys 锁的键集合
+     * @return 代表全部锁的句柄，释放句柄即释放全部锁；在默认等待时间内未获取到全部锁时返回 null
+     */
+    LockHandle lockAll(Collection<String> keys);
+
+    /**
+     * 一次性获取多把锁，要么全部获取，要么一把都不获取
+     *
+     * @param keys 锁的键集合
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 代表全部锁的句柄，释放句柄即释放全部锁；在等待时间内未获取到全部锁时返回 null
+     */
+    LockHandle lockAll(Collection<String> keys, long expire, long waitMillis);
+
     /**
      * 释放锁
      *
@@ -0,0 +1,37 @@
+package cn.javgo.utils.distributed;
+
+/**
+ * Desc: 分布式读写锁接口，与 {@link DistributedLock} 配套使用。
+ * <p>
+ * 1. 读锁共享：多个持有者可以同时持有同一个键的读锁，适用于读多写少的场景（如缓存重建前的检查）；
+ * 2. 写锁独占：写锁与任何读锁、其他写锁互斥；
+ * 3. 可重入：同一持有者可重复获取读锁或写锁，持有写锁时还可以获取读锁，但持有读锁时不能升级为写锁；
+ * 4. 写优先（可配置）：写锁等待期间新的读者不再进入，避免持续的读请求使写者饥饿。
+ * <p>
+ * 锁的所有权由 {@link LockHandle} 携带，释放时调用 {@link LockHandle#release()}，配合 try-with-resources 使用。
+ *
+ * @author javgo
+ * @create 2026-10-16 15:40
+ */
+public interface DistributedReadWriteLock {
+
+    /**
+     * 获取读锁
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    LockHandle readLock(String key, long expire, long waitMillis);
+
+    /**
+     * 获取写锁
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    LockHandle writeLock(String key, long expire, long waitMillis);
+}
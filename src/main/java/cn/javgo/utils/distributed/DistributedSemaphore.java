@@ -0,0 +1,33 @@
+package cn.javgo.utils.distributed;
+
+/**
+ * Desc: 分布式信号量接口，限制集群内同时访问某个资源的数量（如对慢下游的并发调用数）。
+ * <p>
+ * 1. 许可带租期：持有期间由看门狗续期，持有者崩溃时许可在租期结束后自动回收；
+ * 2. 许可总数由调用方在每次获取时指定，同一个信号量的所有调用方应当使用相同的许可总数；
+ * 3. 每个许可由一个 {@link LockHandle} 代表，释放句柄即归还许可。信号量不可重入，同一线程每次获取都会占用一个新的许可。
+ *
+ * @author javgo
+ * @create 2026-10-16 16:40
+ */
+public interface DistributedSemaphore {
+
+    /**
+     * 获取一个许可
+     *
+     * @param key 信号量的键
+     * @param permits 许可总数
+     * @param expire 许可的租期（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 许可句柄，在等待时间内未获取到许可时返回 null
+     */
+    LockHandle acquire(String key, int permits, long expire, long waitMillis);
+
+    /**
+     * 当前已被持有（未过期）的许可数量
+     *
+     * @param key 信号量的键
+     * @return 已被持有的许可数量
+     */
+    int holdCount(String key);
+}
@@ -0,0 +1,121 @@
+package cn.javgo.utils.distributed;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Desc: 锁句柄，代表一次成功的加锁，携带锁的键和持有者标识（token）。释放锁时凭句柄校验所有权，不依赖加锁线程，也不需要 ThreadLocal。
+ * <p>
+ * 互斥锁的句柄还携带围栏令牌（fencing token）：同一个键每次被重新获取时令牌单调递增，下游存储可以拒绝携带旧令牌的写入，
+ * 避免持有者因长时间 GC 停顿等原因丢失锁后仍继续写入。
+ * <p>
+ * 句柄实现了 AutoCloseable，推荐配合 try-with-resources 使用（加锁失败时句柄为 null，try-with-resources 会跳过关闭）：
+ * <pre>
+ * try (LockHandle handle = distributedLock.acquire("order:1", 30000, 3000)) {
+ *     if (handle == null) {
+ *         return;
+ *     }
+ *     // 临界区
+ * }
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-16 13:02
+ */
+public class LockHandle implements AutoCloseable {
+
+    /**
+     * 锁的键（不含前缀）
+     */
+    private final String key;
+
+    /**
+     * 持有者标识
+     */
+    private final String token;
+
+    /**
+     * 围栏令牌，0 表示该锁不提供围栏令牌
+     */
+    private final long fencingToken;
+
+    /**
+     * 释放锁的动作，由创建句柄的锁实现提供
+     */
+    private final Predicate<LockHandle> releaser;
+
+    /**
+     * 是否已释放，保证只释放一次
+     */
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * 获取到锁的时刻（System.nanoTime），用于统计持有时长
+     */
+    private final long acquiredAtNanos = System.nanoTime();
+
+    public LockHandle(String key, String token, Predicate<LockHandle> releaser) {
+        this(key, token, 0, releaser);
+    }
+
+    public LockHandle(String key, String token, long fencingToken, Predicate<LockHandle> releaser) {
+        this.key = key;
+        this.token = token;
+        this.fencingToken = fencingToken;
+        this.releaser = releaser;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 围栏令牌，同一个键每次被重新获取时单调递增（重入时不变）
+     *
+     * @return 围栏令牌，0 表示该锁不提供围栏令牌
+     */
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * 从获取到锁至今的时长，释放锁时调用即为持有时长
+     *
+     * @return 持有时长（纳秒）
+     */
+    public long getHeldNanos() {
+        return System.nanoTime() - acquiredAtNanos;
+    }
+
+    /**
+     * 释放锁，重复调用只有第一次生效
+     *
+     * @return 是否成功释放锁
+     */
+    public boolean release() {
+        return released.compareAndSet(false, true) && releaser.test(this);
+    }
+
+    /**
+     * 是否已经调用过释放
+     *
+     * @return 是否已释放
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    @Override
+    public String toString() {
+        return "LockHandle{key='" + key + "', token='" + token + "', fencingToken=" + fencingToken + "}";
+    }
+}
@@ -0,0 +1,65 @@
+package cn.javgo.utils.distributed;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Desc: RedisLock 注解方法的锁上下文。切面在执行被拦截的方法前把锁句柄放入当前线程的上下文，方法返回后移除，
+ * 方法内部可以读取当前持有的锁及其围栏令牌，并随写入请求一起传给下游存储：
+ * <pre>
+ * &#64;RedisLock(lockKey = "order:1")
+ * public void updateOrder(Order order) {
+ *     orderStore.update(order, RedisLockContext.currentFencingToken());
+ * }
+ * </pre>
+ * 嵌套的 RedisLock 方法按栈管理，读取到的总是最内层方法的锁。
+ *
+ * @author javgo
+ * @create 2026-10-16 17:40
+ */
+public final class RedisLockContext {
+
+    private static final ThreadLocal<Deque<LockHandle>> HANDLES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private RedisLockContext() {
+    }
+
+    /**
+     * 当前 RedisLock 方法持有的锁句柄
+     *
+     * @return 锁句柄，不在 RedisLock 方法内时返回 null
+     */
+    public static LockHandle currentHandle() {
+        return HANDLES.get().peek();
+    }
+
+    /**
+     * 当前 RedisLock 方法持有的锁的围栏令牌
+     *
+     * @return 围栏令牌，不在 RedisLock 方法内或该锁不提供围栏令牌时返回 0
+     */
+    public static long currentFencingToken() {
+        LockHandle handle = currentHandle();
+        return handle == null ? 0 : handle.getFencingToken();
+    }
+
+    /**
+     * 进入 RedisLock 方法，由切面调用
+     *
+     * @param handle 锁句柄
+     */
+    public static void push(LockHandle handle) {
+        HANDLES.get().push(handle);
+    }
+
+    /**
+     * 离开 RedisLock 方法，由切面调用
+     */
+    public static void pop() {
+        Deque<LockHandle> handles = HANDLES.get();
+        handles.poll();
+        if (handles.isEmpty()) {
+            HANDLES.remove();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cn.javgo.utils.distributed;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Desc: SingletonJob 注解方法的任务上下文。切面在执行任务前把本节点持有的分片放入当前线程的上下文，方法返回后移除，
+ * 方法内部可以读取本次需要处理的分片与领导者的围栏令牌。
+ * <p>
+ * 未分片的任务组只有分片 0，分片数为 1。嵌套的 SingletonJob 方法按栈管理，读取到的总是最内层方法的分片。
+ *
+ * @author javgo
+ * @create 2026-10-17 00:55
+ */
+public final class SingletonJobContext {
+
+    private static final ThreadLocal<Deque<Assignment>> ASSIGNMENTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SingletonJobContext() {
+    }
+
+    /**
+     * 本节点在本次执行中持有的分片
+     *
+     * @return 分片，升序；不在 SingletonJob 方法内时为空
+     */
+    public static List<Integer> currentPartitions() {
+        Assignment assignment = ASSIGNMENTS.get().peek();
+        return assignment == null ? List.of() : assignment.partitions();
+    }
+
+    /**
+     * 任务组的分片数
+     *
+     * @return 分片数，不在 SingletonJob 方法内时返回 0
+     */
+    public static int partitionCount() {
+        Assignment assignment = ASSIGNMENTS.get().peek();
+        return assignment == null ? 0 : assignment.partitionCount();
+    }
+
+    /**
+     * 数据是否归本节点处理：按 floorMod(shardKey, 分片数) 计算数据所在的分片
+     *
+     * @param shardKey 数据的分片键，如订单 ID
+     * @return 所在分片由本节点持有时返回 true
+     */
+    public static boolean owns(long shardKey) {
+        Assignment assignment = ASSIGNMENTS.get().peek();
+        return assignment != null && assignment.partitions().contains((int) Math.floorMod(shardKey, (long) assignment.partitionCount()));
+    }
+
+    /**
+     * 分片的围栏令牌，任期内不变
+     *
+     * @param partition 分片
+     * @return 围栏令牌，本节点不持有该分片时返回 0
+     */
+    public static long fencingToken(int partition) {
+        Assignment assignment = ASSIGNMENTS.get().peek();
+        if (assignment == null) {
+            return 0;
+        }
+        int index = assignment.partitions().indexOf(partition);
+        return index < 0 ? 0 : assignment.fencingTokens()[index];
+    }
+
+    /**
+     * 进入 SingletonJob 方法，由切面调用
+     *
+     * @param partitions 持有的分片，升序
+     * @param partitionCount 分片数
+     * @param fencingTokens 与 partitions 一一对应的围栏令牌
+     */
+    public static void push(List<Integer> partitions, int partitionCount, long[] fencingTokens) {
+        ASSIGNMENTS.get().push(new Assignment(partitions, partitionCount, fencingTokens));
+    }
+
+    /**
+     * 离开 SingletonJob 方法，由切面调用
+     */
+    public static void pop() {
+        Deque<Assignment> assignments = ASSIGNMENTS.get();
+        assignments.poll();
+        if (assignments.isEmpty()) {
+            ASSIGNMENTS.remove();
+        }
+    }
+
+    private record Assignment(List<Integer> partitions, int partitionCount, long[] fencingTokens) {
+    }
+}
@@ -15,10 +15,19 @@ public @interface RedisLock {
 
     /**
      * 锁的资源，redis的key。
+     * 含 "#" 时按 SpEL 表达式对方法参数求值，不同实体使用不同的锁，如 "'order:' + #order.id"、"#p0"；
+     * 不含 "#" 时为常量，所有调用共用同一把锁。
      * @return 锁的资源key
      */
     String lockKey() default "";
 
+    /**
+     * 多个锁的资源，与 lockKey 合并后一次性全部获取（要么全部获取，要么一把都不获取）。
+     * 仅支持互斥锁模式。每个键与 lockKey 一样可以是 SpEL 表达式。
+     * @return 锁的资源key数组
+     */
+    String[] lockKeys() default {};
+
     /**
      * 持锁时间,单位毫秒。(默认30秒)
      * @return 持锁时间
@@ -27,7 +36,8 @@ public @interface RedisLock {
 
     /**
      * 重试的间隔时间,单位毫秒。(默认500毫秒)
-     * 设置为 GIVEUP 时忽略此项。
+     * 未配置 waitMills 时与重试次数一起决定等待时间；单键互斥锁按固定间隔等待时也作为兜底重试间隔（锁释放通知仍会立即唤醒等待者），
+     * 读锁、写锁与 lockKeys 多键模式按锁服务的默认间隔（lock.sleepMillis）重试。设置为 GIVEUP 时忽略此项。
      * @return 重试间隔时间
      */
     long sleepMills() default 500;
@@ -38,9 +48,23 @@ public @interface RedisLock {
      */
     int retryTimes() default 3;
 
+    /**
+     * 获取锁的最长等待时间,单位毫秒。(默认-1,使用"重试次数 * 重试间隔")
+     * 大于等于 0 时代替重试次数与重试间隔作为等待截止时间，设置为 GIVEUP 时忽略此项。
+     * @return 最长等待时间
+     */
+    long waitMills() default -1;
+
+    /**
+     * 等待锁时的重试策略。(默认固定间隔)
+     * @return 重试策略
+     */
+    WaitStrategy waitStrategy() default WaitStrategy.FIXED;
+
     /**
      * 获取锁失败返回的消息。
-     * 返回值为ResultDTO时填充
+     * 返回值为 ApiResponse 或有 (String) 构造器的类型时填充，void 方法抛出以该消息为内容的 IllegalStateException。
+     * 其余返回类型在启动时校验失败。
      * @return 失败消息
      */
     String failMsg() default "获取分布式锁失败";
@@ -51,10 +75,33 @@ public @interface RedisLock {
      */
     LockFailAction action() default LockFailAction.CONTINUE;
 
+    /**
+     * 锁的模式。(默认互斥锁)
+     * 读多写少的场景可以使用 READ / WRITE 模式，读锁之间共享，写锁独占。
+     * @return 锁的模式
+     */
+    LockMode mode() default LockMode.EXCLUSIVE;
+
     /**
      * 获取锁失败时的动作枚举。
      */
     enum LockFailAction {
         GIVEUP, CONTINUE;
     }
+
+    /**
+     * 等待锁时的重试策略枚举。
+     * FIXED：按固定间隔兜底重试，单键互斥锁为 sleepMills，其余模式为锁服务的默认间隔（lock.sleepMillis）；
+     * ADAPTIVE：按该键最近的持锁时间自适应退避并加入随机抖动（DistributedLock#tryLock），仅支持单键的互斥锁模式。
+     */
+    enum WaitStrategy {
+        FIXED, ADAPTIVE;
+    }
+
+    /**
+     * 锁的模式枚举。
+     */
+    enum LockMode {
+        EXCLUSIVE, READ, WRITE;
+    }
 }
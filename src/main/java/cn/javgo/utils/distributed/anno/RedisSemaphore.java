@@ -0,0 +1,48 @@
+package cn.javgo.utils.distributed.anno;
+
+import java.lang.annotation.*;
+
+/**
+ * Desc: RedisSemaphore 注解，用于标记需要限制集群内并发数的方法（舱壁隔离）。与 RedisLock 类似，可以通过注解参数配置信号量的资源、许可总数、租期、等待时间、失败消息等。
+ *
+ * @author javgo
+ * @create 2026-10-16 17:05
+ */
+@Target({ElementType.METHOD}) // 注解作用在方法上
+@Retention(RetentionPolicy.RUNTIME) // 注解保留在运行时
+@Inherited // 子类可以继承父类的注解
+public @interface RedisSemaphore {
+
+    /**
+     * 信号量的资源，redis的key。含 "#" 时按 SpEL 表达式对方法参数求值（同 RedisLock#lockKey）。
+     * @return 信号量的资源key
+     */
+    String key();
+
+    /**
+     * 许可总数，即集群内允许同时执行的最大数量。
+     * @return 许可总数
+     */
+    int permits();
+
+    /**
+     * 许可的租期,单位毫秒。(默认30秒)
+     * 持有期间由看门狗自动续期。
+     * @return 许可的租期
+     */
+    long keepMills() default 30000;
+
+    /**
+     * 获取许可的最长等待时间,单位毫秒。(默认0,只尝试一次)
+     * @return 最长等待时间
+     */
+    long waitMills() default 0;
+
+    /**
+     * 获取许可失败返回的消息。
+     * 返回值为 ApiResponse 或有 (String) 构造器的类型时填充，void 方法抛出以该消息为内容的 IllegalStateException。
+     * 其余返回类型在启动时校验失败。
+     * @return 失败消息
+     */
+    String failMsg() default "获取分布式信号量许可失败";
+}
@@ -0,0 +1,45 @@
+package cn.javgo.utils.distributed.anno;
+
+import java.lang.annotation.*;
+
+/**
+ * Desc: SingletonJob 注解，用于标记集群内只应由一个节点执行的定时任务，通常与 {@code @Scheduled} 一起使用。
+ * <p>
+ * 与在定时任务上使用 RedisLock 不同，任务组通过 {@link cn.javgo.utils.distributed.impl.LeaderElector} 选出领导者，
+ * 只有领导者执行任务，跟随者直接跳过（返回 null），定时任务触发时不访问 Redis、不抛出获取锁失败的异常。
+ * 领导者宕机后由跟随者在租约过期后接任。
+ * <p>
+ * partitions 大于 1 时任务组拆分为多个分片，分片分散到各个节点，每个节点只处理自己持有的分片，方法内通过
+ * {@link cn.javgo.utils.distributed.SingletonJobContext} 读取：
+ * <pre>
+ * &#64;Scheduled(fixedDelay = 10000)
+ * &#64;SingletonJob(group = "order-timeout", partitions = 8)
+ * public void closeTimeoutOrders() {
+ *     for (int partition : SingletonJobContext.currentPartitions()) {
+ *         orderService.closeTimeoutOrders(partition, SingletonJobContext.partitionCount());
+ *     }
+ * }
+ * </pre>
+ * 被标记的方法必须返回 void，否则启动时校验失败。
+ *
+ * @author javgo
+ * @create 2026-10-17 00:50
+ */
+@Target({ElementType.METHOD}) // 注解作用在方法上
+@Retention(RetentionPolicy.RUNTIME) // 注解保留在运行时
+@Inherited // 子类可以继承父类的注解
+public @interface SingletonJob {
+
+    /**
+     * 任务组，同一任务组在集群内只有一个领导者（分片任务组为每个分片一个领导者）。(默认为 类名.方法名)
+     * @return 任务组
+     */
+    String group() default "";
+
+    /**
+     * 分片数。(默认1，不分片)
+     * 同一任务组在所有节点上的分片数必须一致。
+     * @return 分片数
+     */
+    int partitions() default 1;
+}
@@ -0,0 +1,77 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.ApiResponse;
+import cn.javgo.utils.common.enums.StatusCode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Desc: 获取锁（许可）失败时的返回值工厂，按方法的返回类型在首次使用（或启动校验）时确定一次，之后每次失败直接创建返回值，不再反射查找构造器。
+ * <p>
+ * 1. 返回类型为 ApiResponse 时，返回 ApiResponse.fail(statusCode, failMsg)；
+ * 2. 返回类型为 void / Void 时，没有可以携带失败消息的返回值，抛出 IllegalStateException(failMsg)；
+ * 3. 其余返回类型需要有 public 的 (String) 构造器，通过已绑定失败消息的 MethodHandle 创建；
+ * 4. 以上都不满足的返回类型（如基本类型、接口）在创建工厂时抛出 IllegalStateException，由 LockMethodValidator 在启动时发现。
+ *
+ * @author javgo
+ * @create 2026-10-16 22:40
+ */
+public abstract class LockFailureFactory {
+
+    /**
+     * 创建方法获取锁失败时的返回值工厂
+     *
+     * @param method 被拦截的方法
+     * @param statusCode 失败状态码
+     * @param failMsg 失败消息
+     * @return 返回值工厂
+     * @throws IllegalStateException 返回类型无法表示失败
+     */
+    public static LockFailureFactory forMethod(Method method, StatusCode statusCode, String failMsg) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == ApiResponse.class) {
+            return new LockFailureFactory() {
+                @Override
+                public Object create() {
+                    // ApiResponse 可变，每次失败都创建新的实例
+                    return ApiResponse.fail(statusCode, failMsg);
+                }
+            };
+        }
+        if (returnType == void.class || returnType == Void.class) {
+            return new LockFailureFactory() {
+                @Override
+                public Object create() {
+                    throw new IllegalStateException(failMsg);
+                }
+            };
+        }
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup()
+                    .findConstructor(returnType, MethodType.methodType(void.class, String.class))
+                    .bindTo(failMsg)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalStateException("Return type " + returnType.getName() + " of " + method
+                    + " cannot represent a lock failure, use ApiResponse or a type with a public (String) constructor", e);
+        }
+        return new LockFailureFactory() {
+            @Override
+            public Object create() throws Throwable {
+                return constructor.invokeExact();
+            }
+        };
+    }
+
+    /**
+     * 创建失败时的返回值
+     *
+     * @return 失败时的返回值
+     * @throws Throwable 构造器抛出的异常，或 void 方法的 IllegalStateException
+     */
+    public abstract Object create() throws Throwable;
+}
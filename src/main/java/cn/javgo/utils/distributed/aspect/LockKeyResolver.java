@@ -0,0 +1,206 @@
+package cn.javgo.utils.distributed.aspect;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Desc: 锁键解析器，支持在 lockKey / key 中使用 SpEL 引用方法参数，使不同实体的调用使用不同的锁，不再全局串行。
+ * <p>
+ * 1. 不含 "#" 的键为常量，原样返回（兼容原有写法，如 "order:lock"）；
+ * 2. 含 "#" 的键按 SpEL 表达式求值，参数可通过参数名（#order.id）或下标（#p0、#a0）引用，
+ * 如 "'order:' + #order.id"、"#userId"；
+ * 3. 表达式按方法解析并缓存，以 MIXED 模式编译为字节码（编译失败时退回解释执行），参数名同样按方法缓存；
+ * 求值上下文的访问器、类型转换器等只创建一次，每次调用只创建一个持有参数数组的轻量上下文，按缓存的参数名查找变量；
+ * 4. 求值上下文只允许读取属性与调用实例方法，不允许类型引用、构造对象、访问 Bean 与赋值，表达式无法执行任意代码；
+ * 5. 表达式的结果为 null 时抛出 IllegalArgumentException，避免不同实体退化为同一把锁。
+ *
+ * @author javgo
+ * @create 2026-10-16 22:05
+ */
+public class LockKeyResolver {
+
+    /**
+     * 键中出现该字符时视为 SpEL 表达式
+     */
+    private static final String EXPRESSION_MARKER = "#";
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, LockKeyResolver.class.getClassLoader()));
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 共享的基础求值上下文，不持有变量，所有调用共用
+     */
+    private final EvaluationContext baseContext = SimpleEvaluationContext.forReadOnlyDataBinding().withInstanceMethods().build();
+
+    /**
+     * 方法 -> 该方法的参数名与已解析的表达式
+     */
+    private final Map<Method, MethodExpressions> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 解析锁键
+     *
+     * @param method 被拦截的方法
+     * @param key 注解中配置的键，常量或 SpEL 表达式
+     * @param args 方法参数
+     * @return 锁键
+     */
+    public String resolve(Method method, String key, Object[] args) {
+        if (!isExpression(key)) {
+            return key;
+        }
+        MethodExpressions expressions = cache.get(method);
+        if (expressions == null) {
+            expressions = cache.computeIfAbsent(method, MethodExpressions::new);
+        }
+        Expression expression = expressions.get(key);
+        Object value = expression.getValue(new ArgumentsContext(baseContext, expressions.variables, args));
+        if (value == null) {
+            throw new IllegalArgumentException("Lock key expression '" + key + "' evaluated to null on " + method);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 是否为 SpEL 表达式
+     *
+     * @param key 注解中配置的键
+     * @return 是否为表达式
+     */
+    public static boolean isExpression(String key) {
+        return key.contains(EXPRESSION_MARKER);
+    }
+
+    /**
+     * 单个方法的参数名与表达式缓存
+     */
+    private class MethodExpressions {
+
+        /**
+         * 变量名 -> 参数下标：参数名（编译时保留了参数名时）以及下标形式的 p0、a0 ...
+         */
+        private final Map<String, Integer> variables = new HashMap<>();
+
+        /**
+         * 表达式文本 -> 已解析的表达式，一个方法上通常只有一到数个表达式
+         */
+        private final Map<String, Expression> expressions = new ConcurrentHashMap<>(4);
+
+        private MethodExpressions(Method method) {
+            String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+            for (int i = 0; i < method.getParameterCount(); i++) {
+                variables.put("p" + i, i);
+                variables.put("a" + i, i);
+                if (parameterNames != null) {
+                    variables.put(parameterNames[i], i);
+                }
+            }
+        }
+
+        private Expression get(String key) {
+            Expression expression = expressions.get(key);
+            if (expression == null) {
+                expression = expressions.computeIfAbsent(key, parser::parseExpression);
+            }
+            return expression;
+        }
+    }
+
+    /**
+     * 单次求值的上下文：变量从参数数组中按缓存的下标读取，其余能力委托给共享的基础上下文。
+     * 不支持定义新变量
+     */
+    private static final class ArgumentsContext implements EvaluationContext {
+
+        private final EvaluationContext delegate;
+
+        private final Map<String, Integer> variables;
+
+        private final Object[] args;
+
+        private ArgumentsContext(EvaluationContext delegate, Map<String, Integer> variables, Object[] args) {
+            this.delegate = delegate;
+            this.variables = variables;
+            this.args = args;
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            Integer index = variables.get(name);
+            return index == null || index >= args.length ? null : args[index];
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            throw new UnsupportedOperationException("Lock key expressions cannot define variables");
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return delegate.getRootObject();
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return delegate.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return delegate.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return delegate.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return delegate.getBeanResolver();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return delegate.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return delegate.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return delegate.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return delegate.getOperatorOverloader();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.enums.StatusCode;
+import cn.javgo.utils.distributed.DistributedLock;
+import cn.javgo.utils.distributed.DistributedReadWriteLock;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.anno.RedisLock;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Desc: 标记了 RedisLock 注解的方法的加锁描述，首次调用时根据方法与注解构建并缓存，之后每次调用不再读取注解属性。
+ * <p>
+ * 包含锁的模式、键（常量键预先计算，SpEL 键按参数求值）、持锁与等待时间、重试策略、失败返回值工厂以及观测使用的方法名。
+ *
+ * @author javgo
+ * @create 2026-10-16 22:45
+ */
+final class LockMethodDescriptor {
+
+    private final Method method;
+
+    private final RedisLock.LockMode mode;
+
+    private final long keepMills;
+
+    /**
+     * 等待时间，配置了 waitMills 时为 waitMills，否则为"重试次数 * 重试间隔"，GIVEUP 时为 0
+     */
+    private final long waitMillis;
+
+    /**
+     * 固定间隔时互斥锁的兜底重试间隔，即注解的 sleepMills
+     */
+    private final long sleepMillis;
+
+    /**
+     * 自适应退避时使用的租期与等待时间，固定间隔时为 null
+     */
+    private final Duration lease;
+
+    private final Duration waitTimeout;
+
+    /**
+     * 单键模式的键
+     */
+    private final String lockKey;
+
+    /**
+     * 多键模式的全部键（lockKey 与 lockKeys 合并，忽略空值），单键模式为 null
+     */
+    private final List<String> lockKeys;
+
+    /**
+     * 键中是否含有 SpEL 表达式，不含时直接使用预先计算的键
+     */
+    private final boolean dynamic;
+
+    private final LockKeyResolver keyResolver;
+
+    private final LockFailureFactory failureFactory;
+
+    /**
+     * 声明类简单名 + 方法名，用于日志与观测
+     */
+    private final String methodName;
+
+    private LockMethodDescriptor(Method method, RedisLock redisLock, LockKeyResolver keyResolver) {
+        this.method = method;
+        this.mode = redisLock.mode();
+        this.keepMills = redisLock.keepMills();
+        if (redisLock.action() == RedisLock.LockFailAction.GIVEUP) {
+            this.waitMillis = 0;
+        } else {
+            this.waitMillis = redisLock.waitMills() >= 0 ? redisLock.waitMills() : redisLock.retryTimes() * redisLock.sleepMills();
+        }
+        this.sleepMillis = redisLock.sleepMills();
+        boolean adaptive = redisLock.waitStrategy() == RedisLock.WaitStrategy.ADAPTIVE;
+        this.lease = adaptive ? Duration.ofMillis(keepMills) : null;
+        this.waitTimeout = adaptive ? Duration.ofMillis(waitMillis) : null;
+        this.keyResolver = keyResolver;
+        this.failureFactory = LockFailureFactory.forMethod(method, StatusCode.LOCK_FAIL, redisLock.failMsg());
+        this.methodName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+        boolean dynamic = LockKeyResolver.isExpression(redisLock.lockKey());
+        if (redisLock.lockKeys().length > 0) {
+            List<String> keys = new ArrayList<>(redisLock.lockKeys().length + 1);
+            if (!redisLock.lockKey().isEmpty()) {
+                keys.add(redisLock.lockKey());
+            }
+            for (String key : redisLock.lockKeys()) {
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                    dynamic |= LockKeyResolver.isExpression(key);
+                }
+            }
+            this.lockKeys = Collections.unmodifiableList(keys);
+        } else {
+            this.lockKeys = null;
+        }
+        this.lockKey = redisLock.lockKey();
+        this.dynamic = dynamic;
+    }
+
+    /**
+     * 根据方法与注解构建加锁描述，并校验注解配置
+     *
+     * @param method 被拦截的方法
+     * @param redisLock RedisLock 注解
+     * @param keyResolver 锁键解析器
+     * @return 加锁描述
+     * @throws IllegalStateException 注解配置不合法或返回类型无法表示失败
+     */
+    static LockMethodDescriptor of(Method method, RedisLock redisLock, LockKeyResolver keyResolver) {
+        if (redisLock.lockKeys().length > 0 && redisLock.mode() != RedisLock.LockMode.EXCLUSIVE) {
+            throw new IllegalStateException("lockKeys only supports EXCLUSIVE mode: " + method);
+        }
+        if (redisLock.waitStrategy() == RedisLock.WaitStrategy.ADAPTIVE
+                && (redisLock.lockKeys().length > 0 || redisLock.mode() != RedisLock.LockMode.EXCLUSIVE)) {
+            throw new IllegalStateException("ADAPTIVE wait strategy only supports a single EXCLUSIVE lock key: " + method);
+        }
+        return new LockMethodDescriptor(method, redisLock, keyResolver);
+    }
+
+    /**
+     * 是否为多键模式
+     *
+     * @return 配置了 lockKeys 时返回 true
+     */
+    boolean isMultiKey() {
+        return lockKeys != null;
+    }
+
+    /**
+     * 解析单键模式下本次调用的锁键
+     *
+     * @param args 方法参数
+     * @return 锁键
+     */
+    String resolveKey(Object[] args) {
+        return dynamic ? keyResolver.resolve(method, lockKey, args) : lockKey;
+    }
+
+    /**
+     * 解析多键模式下本次调用的全部锁键
+     *
+     * @param args 方法参数
+     * @return 锁键列表
+     */
+    List<String> resolveKeys(Object[] args) {
+        if (!dynamic) {
+            return lockKeys;
+        }
+        List<String> keys = new ArrayList<>(lockKeys.size());
+        for (String key : lockKeys) {
+            keys.add(keyResolver.resolve(method, key, args));
+        }
+        return keys;
+    }
+
+    /**
+     * 单键模式下按锁的模式加锁
+     *
+     * @param lockService 互斥锁服务
+     * @param readWriteLockService 读写锁服务，没有时为 null
+     * @param key 锁键
+     * @return 锁句柄，未获取到锁时返回 null
+     * @throws IllegalStateException 读锁或写锁模式下没有读写锁服务
+     */
+    LockHandle acquire(DistributedLock lockService, DistributedReadWriteLock readWriteLockService, String key) {
+        if (mode != RedisLock.LockMode.EXCLUSIVE && readWriteLockService == null) {
+            throw new IllegalStateException("Lock mode " + mode + " of " + method + " requires lock.backend=redis");
+        }
+        switch (mode) {
+            case READ:
+                return readWriteLockService.readLock(key, keepMills, waitMillis);
+            case WRITE:
+                return readWriteLockService.writeLock(key, keepMills, waitMillis);
+            default:
+                return lease != null ? lockService.tryLock(key, waitTimeout, lease) : lockService.acquire(key, keepMills, waitMillis, sleepMillis);
+        }
+    }
+
+    /**
+     * 多键模式下一次性获取全部锁
+     *
+     * @param lockService 互斥锁服务
+     * @param keys 锁键列表
+     * @return 锁句柄，未获取到全部锁时返回 null
+     */
+    LockHandle acquireAll(DistributedLock lockService, List<String> keys) {
+        return lockService.lockAll(keys, keepMills, waitMillis);
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    RedisLock.LockMode getMode() {
+        return mode;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    LockFailureFactory getFailureFactory() {
+        return failureFactory;
+    }
+}
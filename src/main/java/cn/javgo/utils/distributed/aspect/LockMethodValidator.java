@@ -0,0 +1,65 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.enums.StatusCode;
+import cn.javgo.utils.distributed.anno.RedisLock;
+import cn.javgo.utils.distributed.anno.RedisSemaphore;
+import cn.javgo.utils.distributed.anno.SingletonJob;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Desc: 启动时校验标记了 RedisLock / RedisSemaphore 注解的方法，返回类型无法表示获取失败（如基本类型、没有 (String) 构造器的类型）
+ * 或 lockKeys 与读写锁模式同时使用时，在 Bean 初始化阶段抛出 BeanInitializationException，而不是等到第一次获取锁失败时才发现。
+ * 标记了 SingletonJob 注解的方法在跳过执行时没有返回值，必须返回 void，分片数必须为正数。
+ *
+ * @author javgo
+ * @create 2026-10-16 22:50
+ */
+@Component
+public class LockMethodValidator implements BeanPostProcessor {
+
+    /**
+     * 仅用于校验时构建加锁描述，不解析表达式
+     */
+    private final LockKeyResolver keyResolver = new LockKeyResolver();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = ClassUtils.getUserClass(bean);
+        ReflectionUtils.doWithMethods(targetClass, method -> {
+            try {
+                RedisLock redisLock = method.getAnnotation(RedisLock.class);
+                if (redisLock != null) {
+                    LockMethodDescriptor.of(method, redisLock, keyResolver);
+                }
+                RedisSemaphore redisSemaphore = method.getAnnotation(RedisSemaphore.class);
+                if (redisSemaphore != null) {
+                    LockFailureFactory.forMethod(method, StatusCode.SEMAPHORE_FAIL, redisSemaphore.failMsg());
+                }
+                SingletonJob singletonJob = method.getAnnotation(SingletonJob.class);
+                if (singletonJob != null) {
+                    validate(method, singletonJob);
+                }
+            } catch (IllegalStateException e) {
+                throw new BeanInitializationException("Invalid lock method on bean '" + beanName + "': " + e.getMessage(), e);
+            }
+        }, method -> method.isAnnotationPresent(RedisLock.class) || method.isAnnotationPresent(RedisSemaphore.class)
+                || method.isAnnotationPresent(SingletonJob.class));
+        return bean;
+    }
+
+    private static void validate(Method method, SingletonJob singletonJob) {
+        if (method.getReturnType() != void.class) {
+            throw new IllegalStateException("@SingletonJob method " + method.getName() + " must return void, followers skip it without a result");
+        }
+        if (singletonJob.partitions() <= 0) {
+            throw new IllegalStateException("@SingletonJob partitions of method " + method.getName() + " must be positive: " + singletonJob.partitions());
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package cn.javgo.utils.distributed.aspect;
 
-import cn.javgo.utils.common.ApiResponse;
-import cn.javgo.utils.common.enums.StatusCode;
 import cn.javgo.utils.distributed.DistributedLock;
+import cn.javgo.utils.distributed.DistributedReadWriteLock;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.RedisLockContext;
 import cn.javgo.utils.distributed.anno.RedisLock;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Desc: 切面类，用于拦截标记了 RedisLock 注解的方法。在方法执行前后进行锁的获取和释放操作，通过 AOP 切面技术透明地为方法添加分布式锁功能。
@@ -28,6 +35,34 @@ public class RedisLockSupport {
     @Autowired
     private DistributedLock redisDistributedLockService;
 
+    /**
+     * 读写锁服务，只有 Redis 后端提供，lock.backend=memory 时为 null，此时读锁与写锁模式的方法调用时抛出异常
+     */
+    @Autowired(required = false)
+    private DistributedReadWriteLock redisReadWriteLockService;
+
+    /**
+     * 观测注册表，引入 micrometer-tracing 等桥接后每次加锁执行会产生一个 span，没有配置时不记录
+     */
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    /**
+     * 锁键解析器，lockKey / lockKeys 支持引用方法参数的 SpEL 表达式
+     */
+    private final LockKeyResolver keyResolver = new LockKeyResolver();
+
+    /**
+     * 方法 -> 加锁描述，首次调用时构建，之后不再读取注解属性、反射查找失败返回值的构造器
+     */
+    private final Map<Method, LockMethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * 是否对加锁执行过程进行观测
+     */
+    @Value("${lock.observation.enabled:true}")
+    private boolean observationEnabled = true;
+
     /**
      * 拦截标记了 RedisLock 注解的方法，在方法执行前后进行锁的获取和释放操作。
      * @param pjp 切点
@@ -37,50 +72,95 @@ public class RedisLockSupport {
      */
     @Around("@annotation(redisLock)")
     public Object around(ProceedingJoinPoint pjp, RedisLock redisLock) throws Throwable {
-        // 获取方法签名
-        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        // 获锁的 key
-        String key = getKey(method, redisLock);
+        LockMethodDescriptor descriptor = getDescriptor(((MethodSignature) pjp.getSignature()).getMethod(), redisLock);
+        if (observationEnabled && !observationRegistry.isNoop()) {
+            return observe(pjp, descriptor);
+        }
+        return aroundHandle(pjp, descriptor, null);
+    }
 
-        // 获取重试次数
-        int retryTimes = redisLock.action().equals(RedisLock.LockFailAction.CONTINUE) ? redisLock.retryTimes() : 0;
-        // 尝试获取锁
-        boolean lock = redisDistributedLockService.lock(key, redisLock.keepMills(), retryTimes, redisLock.sleepMills());
-        log.info("线程{}获取分布式锁{},获取结果:{}", Thread.currentThread().getId(), key, (lock ? " success" : " failed"));
+    /**
+     * 获取方法的加锁描述，首次调用时构建并缓存
+     * @param method 方法
+     * @param redisLock RedisLock 注解
+     * @return 加锁描述
+     */
+    private LockMethodDescriptor getDescriptor(Method method, RedisLock redisLock) {
+        LockMethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(method, m -> LockMethodDescriptor.of(m, redisLock, keyResolver));
+        }
+        return descriptor;
+    }
 
-        // 如果获取锁失败
-        if (!lock) {
-            // 获取方法返回类型
-            Class<?> returnType = method.getReturnType();
-            // 根据方法的返回类型，返回相应的失败消息
-            if (returnType == ApiResponse.class) {
-                return ApiResponse.fail(StatusCode.LOCK_FAIL, redisLock.failMsg());
-            } else {
-                // 如果方法返回类型不是 ApiResponse，则通过反射修改返回类型为 ApiResponse，并返回失败消息
-                return returnType.getDeclaredConstructor(String.class).newInstance(redisLock.failMsg());
-            }
+    /**
+     * 在观测范围内执行加锁、方法与释放；锁的键基数不可控，只作为高基数属性记录在 span 上
+     * @param pjp 切点
+     * @param descriptor 加锁描述
+     * @return 方法执行结果
+     * @throws Throwable 抛出的异常
+     */
+    private Object observe(ProceedingJoinPoint pjp, LockMethodDescriptor descriptor) throws Throwable {
+        Observation observation = Observation.createNotStarted("lock.execution", observationRegistry)
+                .contextualName("lock " + descriptor.getMethodName())
+                .lowCardinalityKeyValue("lock.mode", descriptor.getMode().name())
+                .lowCardinalityKeyValue("lock.method", descriptor.getMethodName())
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            return aroundHandle(pjp, descriptor, observation);
+        } catch (Throwable t) {
+            observation.error(t);
+            throw t;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * 以锁句柄方式执行方法，等待时间为"重试次数 * 重试间隔"。方法执行期间锁句柄放入 RedisLockContext，方法内可以读取围栏令牌
+     * @param pjp 切点
+     * @param descriptor 加锁描述
+     * @param observation 当前的观测，不观测时为 null
+     * @return 方法执行结果
+     * @throws Throwable 抛出的异常
+     */
+    private Object aroundHandle(ProceedingJoinPoint pjp, LockMethodDescriptor descriptor, Observation observation) throws Throwable {
+        Object[] args = pjp.getArgs();
+        String lockName;
+        LockHandle handle;
+        if (descriptor.isMultiKey()) {
+            // 多键模式：一次性获取全部锁
+            List<String> keys = descriptor.resolveKeys(args);
+            lockName = String.join(",", keys);
+            handle = descriptor.acquireAll(redisDistributedLockService, keys);
+        } else {
+            lockName = descriptor.resolveKey(args);
+            handle = descriptor.acquire(redisDistributedLockService, redisReadWriteLockService, lockName);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("线程{}获取分布式{}锁{},获取结果:{}", Thread.currentThread().getId(), descriptor.getMode(), lockName, (handle != null ? " success, fencing token " + handle.getFencingToken() : " failed"));
+        }
+        if (observation != null) {
+            observation.lowCardinalityKeyValue("lock.acquired", String.valueOf(handle != null));
+            observation.highCardinalityKeyValue("lock.key", lockName);
         }
 
-        // 得到锁后执行方法，在方法执行完成后释放锁
+        if (handle == null) {
+            return descriptor.getFailureFactory().create();
+        }
+
+        RedisLockContext.push(handle);
         try {
             return pjp.proceed();
         } catch (Exception e) {
-            log.error("线程{}执行分布式方法{}发生异常:{}", Thread.currentThread().getId(), method.getName(), e.getMessage());
+            log.error("线程{}执行分布式方法{}发生异常:{}", Thread.currentThread().getId(), descriptor.getMethod().getName(), e.getMessage());
             throw e;
         } finally {
-            boolean releaseResult = redisDistributedLockService.releaseLock(key);
-            log.info("线程{}释放分布式锁{}，释放结果:{}", Thread.currentThread().getId(), key, (releaseResult ? " success" : " failed"));
+            RedisLockContext.pop();
+            boolean releaseResult = handle.release();
+            if (log.isDebugEnabled()) {
+                log.debug("线程{}释放分布式{}锁{}，释放结果:{}", Thread.currentThread().getId(), descriptor.getMode(), lockName, (releaseResult ? " success" : " failed"));
+            }
         }
     }
-
-    /**
-     * 根据方法和注解配置生成锁的key。
-     * @param method 方法
-     * @param redisLock RedisLock 注解
-     * @return 生成的锁key
-     */
-    private String getKey(Method method, RedisLock redisLock) {
-        // 根据注解配置生成锁key(这里可以根据实际业务情况灵活增加 RedisLock 注解中的属性，然后在这里灵活定制 key)
-        return redisLock.lockKey();
-    }
 }
@@ -0,0 +1,98 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.distributed.DistributedSemaphore;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.anno.RedisSemaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Desc: 切面类，用于拦截标记了 RedisSemaphore 注解的方法。在方法执行前获取许可、执行后归还许可，通过 AOP 切面技术声明式地限制方法在集群内的并发数。
+ *
+ * @author javgo
+ * @create 2026-10-16 17:10
+ */
+@Slf4j
+@Aspect // 标识为切面类
+@Component // 标识为组件类
+public class RedisSemaphoreSupport {
+
+    /**
+     * 信号量服务，只有 Redis 后端提供，lock.backend=memory 时为 null，此时标记了 RedisSemaphore 注解的方法调用时抛出异常
+     */
+    @Autowired(required = false)
+    private DistributedSemaphore redisDistributedSemaphore;
+
+    /**
+     * 信号量键解析器，key 支持引用方法参数的 SpEL 表达式
+     */
+    private final LockKeyResolver keyResolver = new LockKeyResolver();
+
+    /**
+     * 方法 -> 限流描述，首次调用时构建，之后不再读取注解属性、反射查找失败返回值的构造器
+     */
+    private final Map<Method, SemaphoreMethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * 拦截标记了 RedisSemaphore 注解的方法，在方法执行前后进行许可的获取和归还操作。
+     * @param pjp 切点
+     * @param redisSemaphore RedisSemaphore 注解
+     * @return 方法执行结果
+     * @throws Throwable 抛出的异常
+     */
+    @Around("@annotation(redisSemaphore)")
+    public Object around(ProceedingJoinPoint pjp, RedisSemaphore redisSemaphore) throws Throwable {
+        SemaphoreMethodDescriptor descriptor = getDescriptor(((MethodSignature) pjp.getSignature()).getMethod(), redisSemaphore);
+        if (redisDistributedSemaphore == null) {
+            throw new IllegalStateException("RedisSemaphore on " + descriptor.getMethod() + " requires lock.backend=redis");
+        }
+        String key = descriptor.resolveKey(pjp.getArgs());
+
+        // 尝试获取许可
+        LockHandle permit = descriptor.acquire(redisDistributedSemaphore, key);
+        if (log.isDebugEnabled()) {
+            log.debug("线程{}获取分布式信号量{}许可,获取结果:{}", Thread.currentThread().getId(), key, (permit != null ? " success" : " failed"));
+        }
+
+        // 如果获取许可失败
+        if (permit == null) {
+            return descriptor.getFailureFactory().create();
+        }
+
+        // 得到许可后执行方法，在方法执行完成后归还许可
+        try {
+            return pjp.proceed();
+        } catch (Exception e) {
+            log.error("线程{}执行限流方法{}发生异常:{}", Thread.currentThread().getId(), descriptor.getMethod().getName(), e.getMessage());
+            throw e;
+        } finally {
+            boolean releaseResult = permit.release();
+            if (log.isDebugEnabled()) {
+                log.debug("线程{}归还分布式信号量{}许可，归还结果:{}", Thread.currentThread().getId(), key, (releaseResult ? " success" : " failed"));
+            }
+        }
+    }
+
+    /**
+     * 获取方法的限流描述，首次调用时构建并缓存
+     * @param method 方法
+     * @param redisSemaphore RedisSemaphore 注解
+     * @return 限流描述
+     */
+    private SemaphoreMethodDescriptor getDescriptor(Method method, RedisSemaphore redisSemaphore) {
+        SemaphoreMethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(method, m -> SemaphoreMethodDescriptor.of(m, redisSemaphore, keyResolver));
+        }
+        return descriptor;
+    }
+}
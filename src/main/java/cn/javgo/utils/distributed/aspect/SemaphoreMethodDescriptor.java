@@ -0,0 +1,94 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.enums.StatusCode;
+import cn.javgo.utils.distributed.DistributedSemaphore;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.anno.RedisSemaphore;
+
+import java.lang.reflect.Method;
+
+/**
+ * Desc: 标记了 RedisSemaphore 注解的方法的限流描述，首次调用时根据方法与注解构建并缓存，之后每次调用不再读取注解属性。
+ * <p>
+ * 包含信号量的键（常量键预先计算，SpEL 键按参数求值）、许可总数、租期与等待时间以及失败返回值工厂。
+ *
+ * @author javgo
+ * @create 2026-10-17 05:10
+ */
+final class SemaphoreMethodDescriptor {
+
+    private final Method method;
+
+    /**
+     * 信号量的键，含 SpEL 表达式时为表达式
+     */
+    private final String key;
+
+    /**
+     * 键中是否含有 SpEL 表达式，不含时直接使用 key
+     */
+    private final boolean dynamic;
+
+    private final int permits;
+
+    private final long keepMills;
+
+    private final long waitMillis;
+
+    private final LockKeyResolver keyResolver;
+
+    private final LockFailureFactory failureFactory;
+
+    private SemaphoreMethodDescriptor(Method method, RedisSemaphore redisSemaphore, LockKeyResolver keyResolver) {
+        this.method = method;
+        this.key = redisSemaphore.key();
+        this.dynamic = LockKeyResolver.isExpression(key);
+        this.permits = redisSemaphore.permits();
+        this.keepMills = redisSemaphore.keepMills();
+        this.waitMillis = redisSemaphore.waitMills();
+        this.keyResolver = keyResolver;
+        this.failureFactory = LockFailureFactory.forMethod(method, StatusCode.SEMAPHORE_FAIL, redisSemaphore.failMsg());
+    }
+
+    /**
+     * 根据方法与注解构建限流描述
+     *
+     * @param method 被拦截的方法
+     * @param redisSemaphore RedisSemaphore 注解
+     * @param keyResolver 信号量键解析器
+     * @return 限流描述
+     * @throws IllegalStateException 返回类型无法表示失败
+     */
+    static SemaphoreMethodDescriptor of(Method method, RedisSemaphore redisSemaphore, LockKeyResolver keyResolver) {
+        return new SemaphoreMethodDescriptor(method, redisSemaphore, keyResolver);
+    }
+
+    /**
+     * 解析本次调用的信号量键
+     *
+     * @param args 方法参数
+     * @return 信号量键
+     */
+    String resolveKey(Object[] args) {
+        return dynamic ? keyResolver.resolve(method, key, args) : key;
+    }
+
+    /**
+     * 获取一个许可
+     *
+     * @param semaphore 信号量服务
+     * @param key 信号量键
+     * @return 许可句柄，未获取到许可时返回 null
+     */
+    LockHandle acquire(DistributedSemaphore semaphore, String key) {
+        return semaphore.acquire(key, permits, keepMills, waitMillis);
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    LockFailureFactory getFailureFactory() {
+        return failureFactory;
+    }
+}
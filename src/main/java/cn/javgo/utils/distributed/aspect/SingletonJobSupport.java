@@ -0,0 +1,96 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.distributed.SingletonJobContext;
+import cn.javgo.utils.distributed.anno.SingletonJob;
+import cn.javgo.utils.distributed.impl.LeaderElector;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Desc: 切面类，用于拦截标记了 SingletonJob 注解的方法。只有任务组的领导者（分片任务组中持有分片的节点）执行方法，
+ * 其余节点直接跳过。首次执行时参加选举，之后每次执行只查询本地的领导权状态。
+ *
+ * @author javgo
+ * @create 2026-10-17 01:00
+ */
+@Slf4j
+@Aspect // 标识为切面类
+@Component // 标识为组件类
+public class SingletonJobSupport {
+
+    /**
+     * 未分片的任务组只有分片 0
+     */
+    private static final List<Integer> SINGLE_PARTITION = List.of(0);
+
+    @Autowired
+    private LeaderElector leaderElector;
+
+    /**
+     * 方法 -> 任务组，首次调用时解析
+     */
+    private final Map<Method, String> groups = new ConcurrentHashMap<>();
+
+    /**
+     * 拦截标记了 SingletonJob 注解的方法，本节点是领导者时执行，否则跳过
+     * @param pjp 切点
+     * @param singletonJob SingletonJob 注解
+     * @return 方法执行结果，跳过时返回 null
+     * @throws Throwable 抛出的异常
+     */
+    @Around("@annotation(singletonJob)")
+    public Object around(ProceedingJoinPoint pjp, SingletonJob singletonJob) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        String group = groups.computeIfAbsent(method, m -> groupOf(m, singletonJob));
+        int partitions = singletonJob.partitions();
+
+        List<Integer> owned;
+        long[] fencingTokens;
+        if (partitions <= 1) {
+            if (!leaderElector.join(group)) {
+                log.debug("线程{}不是任务组{}的领导者,跳过执行", Thread.currentThread().getId(), group);
+                return null;
+            }
+            owned = SINGLE_PARTITION;
+            fencingTokens = new long[]{leaderElector.getFencingToken(group)};
+        } else {
+            owned = leaderElector.joinPartitioned(group, partitions);
+            if (owned.isEmpty()) {
+                log.debug("线程{}没有持有任务组{}的分片,跳过执行", Thread.currentThread().getId(), group);
+                return null;
+            }
+            fencingTokens = new long[owned.size()];
+            for (int i = 0; i < owned.size(); i++) {
+                fencingTokens[i] = leaderElector.getFencingToken(LeaderElector.partitionGroup(group, owned.get(i)));
+            }
+        }
+
+        log.debug("线程{}执行任务组{}的分片{}", Thread.currentThread().getId(), group, owned);
+        SingletonJobContext.push(owned, Math.max(partitions, 1), fencingTokens);
+        try {
+            return pjp.proceed();
+        } finally {
+            SingletonJobContext.pop();
+        }
+    }
+
+    /**
+     * 任务组，没有指定时为 类名.方法名
+     */
+    private static String groupOf(Method method, SingletonJob singletonJob) {
+        if (!singletonJob.group().isEmpty()) {
+            return singletonJob.group();
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -33,6 +33,41 @@ public interface RedisKeyPrefix {
      */
     String LOCK_KEY = BASE_PREFIX + "lock:";
 
+    /**
+     * 锁释放通知频道（发布订阅频道，不是 key）
+     */
+    String LOCK_RELEASE_CHANNEL = LOCK_KEY + "release_channel";
+
+    /**
+     * 锁的围栏令牌计数器 前缀（不在 LOCK_KEY 之下，避免与锁的 key 冲突；发放令牌时刷新过期时间，长期不用的计数器自动过期）
+     */
+    String LOCK_FENCE_KEY = BASE_PREFIX + "lock_fence:";
+
+    /**
+     * 读写锁 前缀（不在 LOCK_KEY 之下，避免与同名互斥锁的 key 冲突）
+     */
+    String RW_LOCK_KEY = BASE_PREFIX + "rw_lock:";
+
+    /**
+     * 多节点仲裁锁（Redlock） 前缀（不在 LOCK_KEY 之下，避免与同名互斥锁的 key 冲突）
+     */
+    String REDLOCK_KEY = BASE_PREFIX + "redlock:";
+
+    /**
+     * 信号量 前缀（不在 LOCK_KEY 之下，信号量为有序集合，避免与互斥锁的 Hash 类型冲突）
+     */
+    String SEMAPHORE_KEY = BASE_PREFIX + "semaphore:";
+
+    /**
+     * 领导者选举 前缀，每个任务组（分片）一把锁（不在 LOCK_KEY 之下，名为 leader:xxx 的互斥锁不会阻塞选举）
+     */
+    String LEADER_KEY = BASE_PREFIX + "leader:";
+
+    /**
+     * 领导者选举 成员心跳 前缀（有序集合，不在 LOCK_KEY 之下，避免与锁的 key 冲突）
+     */
+    String LEADER_MEMBER_KEY = BASE_PREFIX + "leader_member:";
+
     /**
      * 后台权限 前缀
      */
@@ -58,5 +93,10 @@ public interface RedisKeyPrefix {
      */
     String ALL_FIELD_PERMISSION = BASE_PREFIX + "allFieldPermission:";
 
+    /**
+     * 近端缓存失效通知频道（发布订阅频道，不是 key）
+     */
+    String NEAR_CACHE_INVALIDATE_CHANNEL = BASE_PREFIX + "near_cache:invalidate_channel";
+
     // ......
 }
@@ -1,8 +1,11 @@
 package cn.javgo.utils.distributed.impl;
 
 import cn.javgo.utils.distributed.DistributedLock;
+import cn.javgo.utils.distributed.LockHandle;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.Collection;
+
 /**
  * Desc: 抽象分布式锁实现，提供了分布式锁的基本功能
  * <p>
@@ -94,6 +97,47 @@ public abstract class AbstractDistributedLock implements DistributedLock {
         return lock(key, expire, retryTimes, sleepMillis);
     }
 
+    /**
+     * 获取锁句柄，等待时间为默认的"重试次数 * 重试间隔"
+     *
+     * @param key 锁的键
+     * @return 锁句柄，未获取到锁时返回 null
+     */
+    @Override
+    public LockHandle acquire(String key) {
+        return acquire(key, timeoutMillis, retryTimes * sleepMillis);
+    }
+
+    /**
+     * 一次性获取多把锁，等待时间为默认的"重试次数 * 重试间隔"
+     *
+     * @param keys 锁的键集合
+     * @return 代表全部锁的句柄，未获取到全部锁时返回 null
+     */
+    @Override
+    public LockHandle lockAll(Collection<String> keys) {
+        return lockAll(keys, timeoutMillis, retryTimes * sleepMillis);
+    }
+
+    /**
+     * lock 系列方法加锁失败时的处理，各实现保持同一契约：未被中断时抛出异常
+     *
+     * @param key 锁的键
+     */
+    protected void handleLockFailure(String key) {
+        // 这里可以添加回退逻辑，例如返回默认值或抛出自定义异常
+        throw new RuntimeException("Failed to acquire lock: " + key);
+    }
+
+    /**
+     * 默认每次重试的间隔时间（毫秒）
+     *
+     * @return 重试间隔
+     */
+    protected long getDefaultSleepMillis() {
+        return sleepMillis;
+    }
+
     @Override
     public String getKeyPrefix() {
         return "";
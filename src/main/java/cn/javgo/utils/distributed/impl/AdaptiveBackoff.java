@@ -0,0 +1,182 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Desc: 自适应退避，为等待锁的重试计算带抖动的兜底等待时间，替代固定的重试间隔。
+ * <p>
+ * 1. 采用去相关抖动（decorrelated jitter）：下一次等待时间在 [base, 上一次等待时间 * 3] 之间随机，并且不超过上限，
+ * 等待者之间不会按相同节奏同时重试；
+ * 2. base 与上限随该键最近的持锁时间调整：按持锁时间的指数加权移动平均（EWMA）估计，
+ * base 取估计值的 1/4，上限取估计值本身（都限制在 [baseMillis, maxMillis] 内），持锁时间短的键重试更积极，持锁时间长的键少访问 Redis；
+ * 3. 没有持锁记录的键使用配置的 baseMillis 与 maxMillis；
+ * 4. 按键记录的估计值数量有上限，超出时按"二次机会"近似 LRU 淘汰：键按首次记录的顺序排队，队首的键自上次经过队首以来又被记录过时
+ * 移到队尾，否则淘汰，持续有人加锁的键不会被新键挤出；
+ * 5. 估计值以 double 的位模式保存在 AtomicLong 中，按 CAS 更新，记录持锁时间时不创建装箱对象。
+ * <p>
+ * 退避只决定兜底等待时间，锁释放通知仍会立即唤醒等待者。
+ *
+ * @author javgo
+ * @create 2026-10-16 23:05
+ */
+public class AdaptiveBackoff {
+
+    /**
+     * EWMA 的平滑系数，新样本的权重
+     */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * 最小等待时间（毫秒）
+     */
+    private final long baseMillis;
+
+    /**
+     * 最大等待时间（毫秒）
+     */
+    private final long maxMillis;
+
+    /**
+     * 最多记录持锁时间估计值的键数量
+     */
+    private final int maxKeys;
+
+    /**
+     * 完整键 -> 持锁时间 EWMA（纳秒）
+     */
+    private final Map<String, Estimate> holdNanos = new ConcurrentHashMap<>();
+
+    /**
+     * 按首次记录顺序排列的估计值，淘汰在队列上同步
+     */
+    private final Queue<Estimate> admissionOrder = new ConcurrentLinkedQueue<>();
+
+    public AdaptiveBackoff(long baseMillis, long maxMillis, int maxKeys) {
+        if (baseMillis <= 0 || maxMillis < baseMillis) {
+            throw new IllegalArgumentException("Invalid backoff bounds: base " + baseMillis + " ms, max " + maxMillis + " ms");
+        }
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 记录一次持锁时间
+     *
+     * @param key 锁的完整键
+     * @param heldNanos 持锁时间（纳秒）
+     */
+    public void recordHold(String key, long heldNanos) {
+        if (heldNanos < 0) {
+            return;
+        }
+        Estimate estimate = holdNanos.get(key);
+        if (estimate == null) {
+            evictIfFull();
+            Estimate created = new Estimate(key, heldNanos);
+            estimate = holdNanos.putIfAbsent(key, created);
+            if (estimate == null) {
+                admissionOrder.add(created);
+                return;
+            }
+        }
+        estimate.referenced = true;
+        estimate.update(heldNanos);
+    }
+
+    /**
+     * 计算下一次兜底等待时间
+     *
+     * @param key 锁的完整键
+     * @param previousMillis 上一次等待时间（毫秒），第一次等待时为 0
+     * @return 下一次等待时间（毫秒）
+     */
+    public long nextDelay(String key, long previousMillis) {
+        long base = baseMillis;
+        long cap = maxMillis;
+        Estimate estimate = holdNanos.get(key);
+        if (estimate != null) {
+            long estimateMillis = TimeUnit.NANOSECONDS.toMillis(estimate.nanos());
+            cap = clamp(estimateMillis);
+            base = Math.min(clamp(estimateMillis / 4), cap);
+        }
+        long upper = Math.min(cap, Math.max(previousMillis, base) * 3);
+        if (upper <= base) {
+            return base;
+        }
+        return ThreadLocalRandom.current().nextLong(base, upper + 1);
+    }
+
+    /**
+     * 该键持锁时间的估计值
+     *
+     * @param key 锁的完整键
+     * @return 持锁时间 EWMA（纳秒），没有记录时返回 -1
+     */
+    public long estimatedHoldNanos(String key) {
+        Estimate estimate = holdNanos.get(key);
+        return estimate == null ? -1 : estimate.nanos();
+    }
+
+    /**
+     * 键的数量达到上限时从队首淘汰，最近被记录过的键获得一次移到队尾的机会
+     */
+    private void evictIfFull() {
+        synchronized (admissionOrder) {
+            while (holdNanos.size() >= maxKeys) {
+                Estimate eldest = admissionOrder.poll();
+                if (eldest == null) {
+                    return;
+                }
+                if (eldest.referenced) {
+                    eldest.referenced = false;
+                    admissionOrder.add(eldest);
+                } else {
+                    holdNanos.remove(eldest.key, eldest);
+                }
+            }
+        }
+    }
+
+    private long clamp(long millis) {
+        return Math.max(baseMillis, Math.min(millis, maxMillis));
+    }
+
+    /**
+     * 一个键的持锁时间 EWMA，值为 double 的位模式
+     */
+    private static final class Estimate extends AtomicLong {
+
+        private final String key;
+
+        /**
+         * 上次经过队首之后是否又被记录过
+         */
+        private volatile boolean referenced;
+
+        private Estimate(String key, long heldNanos) {
+            super(Double.doubleToRawLongBits(heldNanos));
+            this.key = key;
+        }
+
+        private void update(long sample) {
+            long bits;
+            long next;
+            do {
+                bits = get();
+                double average = Double.longBitsToDouble(bits);
+                next = Double.doubleToRawLongBits(average + ALPHA * (sample - average));
+            } while (!compareAndSet(bits, next));
+        }
+
+        private long nanos() {
+            return (long) Double.longBitsToDouble(get());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * Desc: Redis Cluster 下锁键的哈希标签策略，决定锁键落在哪个槽位，通过配置 lock.cluster.hashTag 选择：
+ * <p>
+ * 1. none（默认）：不加哈希标签，锁按完整键分散到各个分片，适用于单机与主从部署，Cluster 下也可使用（多键操作按槽位拆分）；
+ * 2. key：以业务键整体作为哈希标签，如 javgo_cn:lock:{order:1}。同一把锁的锁键、围栏令牌计数器键、写等待标记键落在同一槽位，
+ * 不同的锁按业务键分散到各个分片；
+ * 3. bucket：以业务键的 CRC16 对 lock.cluster.buckets 取模作为哈希标签，如 javgo_cn:lock:{7}order:1。
+ * 锁只分布在固定数量的槽位上，批量续期、多键加锁按槽位分组后的调用次数不超过桶的数量。
+ * <p>
+ * 业务键中已经包含哈希标签（如 "order:{1}:item"）时原样使用，由调用方决定槽位。
+ * 无论哪种策略，由锁键派生的键（围栏令牌计数器、写等待标记）都通过 {@link #sameSlot(String)} 与锁键落在同一槽位。
+ * 配置示例：
+ * <pre>
+ * lock.cluster.hashTag=bucket
+ * lock.cluster.buckets=16
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-16 23:30
+ */
+@Component
+public class ClusterKeyStrategy {
+
+    /**
+     * 不加哈希标签的策略，没有配置该 Bean 时使用
+     */
+    public static final ClusterKeyStrategy NONE = new ClusterKeyStrategy(HashTag.NONE, 1);
+
+    /**
+     * 哈希标签策略枚举
+     */
+    public enum HashTag {
+        NONE, KEY, BUCKET
+    }
+
+    private final HashTag hashTag;
+
+    private final int buckets;
+
+    /**
+     * 预先生成的桶标签 "{0}" ... "{buckets-1}"
+     */
+    private final String[] bucketTags;
+
+    @Autowired
+    public ClusterKeyStrategy(@Value("${lock.cluster.hashTag:none}") String hashTag,
+                              @Value("${lock.cluster.buckets:16}") int buckets) {
+        this(HashTag.valueOf(hashTag.trim().toUpperCase()), buckets);
+    }
+
+    public ClusterKeyStrategy(HashTag hashTag, int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("lock.cluster.buckets must be positive: " + buckets);
+        }
+        this.hashTag = hashTag;
+        this.buckets = buckets;
+        this.bucketTags = new String[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bucketTags[i] = "{" + i + "}";
+        }
+    }
+
+    /**
+     * 为业务键加上哈希标签，返回值拼接在锁前缀之后
+     *
+     * @param key 业务键
+     * @return 加上哈希标签后的键
+     */
+    public String tag(String key) {
+        if (hashTag == HashTag.NONE || hasHashTag(key)) {
+            return key;
+        }
+        if (hashTag == HashTag.KEY) {
+            return "{" + key + "}";
+        }
+        return bucketTags[ClusterSlotHashUtil.calculateSlot(key) % buckets] + key;
+    }
+
+    public HashTag getHashTag() {
+        return hashTag;
+    }
+
+    /**
+     * 返回与锁键落在同一槽位、可用于拼接派生键的形式：锁键已有哈希标签时原样返回；
+     * 没有时以整个锁键作为哈希标签（如 {javgo_cn:lock:order:1}），该标签的槽位与未加标签的锁键相同。
+     * 锁键中有 "}" 却没有有效哈希标签时无法对齐，原样返回，Cluster 部署时这类键应使用 key / bucket 策略或显式哈希标签。
+     *
+     * @param lockKey 锁的完整键
+     * @return 与锁键同槽位的形式
+     */
+    static String sameSlot(String lockKey) {
+        // 有效的哈希标签一定含有 "}"
+        return lockKey.indexOf('}') >= 0 ? lockKey : "{" + lockKey + "}";
+    }
+
+    /**
+     * 键中是否已有有效的哈希标签：第一个 "{" 之后存在 "}"，且两者之间不为空
+     *
+     * @param key 键
+     * @return 是否已有哈希标签
+     */
+    static boolean hasHashTag(String key) {
+        int start = key.indexOf('{');
+        if (start < 0) {
+            return false;
+        }
+        int end = key.indexOf('}', start + 1);
+        return end > start + 1;
+    }
+}
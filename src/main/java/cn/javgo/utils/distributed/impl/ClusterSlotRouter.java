@@ -0,0 +1,241 @@
+package cn.javgo.utils.distributed.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * Desc: Redis Cluster 槽位路由，把涉及多个键的锁操作（多键加锁与解锁、批量续期）按槽位拆分后分发。
+ * <p>
+ * 1. Cluster 中一个 Lua 脚本的全部键必须位于同一槽位，否则返回 CROSSSLOT，因此多键操作按槽位分组，每组执行一次脚本；
+ * 2. 各槽位组再按所在节点归并，每个节点一个任务，节点之间并行执行，节点内的槽位组依次执行，总耗时约等于最慢节点的耗时；
+ * 3. 非 Cluster 部署（首次使用时检测连接类型）以及全部键位于同一槽位时只有一组，在调用线程中直接执行，没有额外开销；
+ * 4. 节点信息取自驱动缓存的集群拓扑，获取失败时按槽位分组后在调用线程中依次执行。
+ * <p>
+ * 与 {@link ClusterKeyStrategy} 配合使用：bucket 策略下槽位组的数量不超过桶的数量。
+ *
+ * @author javgo
+ * @create 2026-10-16 23:40
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "redis", matchIfMissing = true)
+public class ClusterSlotRouter {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 并行分发各节点任务的线程池，只有 Cluster 部署且涉及多个节点时使用
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 槽位 -> 节点的解析函数，为 null 时从 Redis 连接的集群拓扑中获取
+     */
+    private final IntFunction<String> nodeResolver;
+
+    /**
+     * 是否为 Cluster 部署，首次使用时检测
+     */
+    private volatile Boolean cluster;
+
+    @Autowired
+    public ClusterSlotRouter(RedisTemplate<String, Object> redisTemplate,
+                             @Value("${lock.cluster.threads:4}") int threads) {
+        this.redisTemplate = redisTemplate;
+        this.nodeResolver = null;
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), r -> {
+            Thread thread = new Thread(r, "lock-cluster-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 使用指定的槽位 -> 节点解析函数，视为 Cluster 部署
+     *
+     * @param nodeResolver 槽位 -> 节点
+     * @param executor 并行分发各节点任务的线程池
+     */
+    ClusterSlotRouter(IntFunction<String> nodeResolver, ExecutorService executor) {
+        this.redisTemplate = null;
+        this.nodeResolver = nodeResolver;
+        this.executor = executor;
+        this.cluster = true;
+    }
+
+    /**
+     * 创建不拆分的路由，所有键视为同一组，用于单机部署与测试
+     *
+     * @return 单机路由
+     */
+    public static ClusterSlotRouter standalone() {
+        return new ClusterSlotRouter();
+    }
+
+    private ClusterSlotRouter() {
+        this.redisTemplate = null;
+        this.nodeResolver = null;
+        this.executor = null;
+        this.cluster = false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 计算键所在的槽位（支持哈希标签）
+     *
+     * @param key 完整键
+     * @return 槽位
+     */
+    public static int slot(String key) {
+        return ClusterSlotHashUtil.calculateSlot(key);
+    }
+
+    /**
+     * 按槽位对键分组，组按槽位升序，组内保持键的原有顺序。非 Cluster 部署时只有一组
+     *
+     * @param keys 完整键
+     * @return 各组中键在 keys 中的下标
+     */
+    public List<List<Integer>> groupBySlot(List<String> keys) {
+        if (!isCluster() || keys.size() <= 1) {
+            return Collections.singletonList(allIndexes(keys.size()));
+        }
+        Map<Integer, List<Integer>> groups = new TreeMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(slot(keys.get(i)), s -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * 按槽位分组后对每组执行一次操作，不同节点上的组并行执行，同一节点上的组依次执行
+     *
+     * @param keys 完整键
+     * @param action 操作：(组内键, 组内键在 keys 中的下标) -> 结果
+     * @param <T> 结果类型
+     * @return 与 groupBySlot 顺序一致的各组结果
+     */
+    public <T> List<T> executeBySlot(List<String> keys, BiFunction<List<String>, List<Integer>, T> action) {
+        List<List<Integer>> groups = groupBySlot(keys);
+        if (groups.size() == 1) {
+            return Collections.singletonList(action.apply(keys, groups.get(0)));
+        }
+        // 节点 -> 该节点上的组下标
+        Map<String, List<Integer>> nodes = groupByNode(keys, groups);
+        List<T> results = new ArrayList<>(Collections.nCopies(groups.size(), null));
+        List<CompletableFuture<Void>> futures = new ArrayList<>(nodes.size());
+        // 只涉及一个节点时在调用线程中执行
+        Executor dispatcher = nodes.size() == 1 ? Runnable::run : executor;
+        for (List<Integer> nodeGroups : nodes.values()) {
+            Runnable task = () -> {
+                for (int group : nodeGroups) {
+                    List<Integer> indexes = groups.get(group);
+                    results.set(group, action.apply(select(keys, indexes), indexes));
+                }
+            };
+            futures.add(CompletableFuture.runAsync(task, dispatcher));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * 选出指定下标的键
+     *
+     * @param keys 完整键
+     * @param indexes 下标
+     * @return 对应的键
+     */
+    public static List<String> select(List<String> keys, List<Integer> indexes) {
+        if (indexes.size() == keys.size()) {
+            return keys;
+        }
+        List<String> selected = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            selected.add(keys.get(index));
+        }
+        return selected;
+    }
+
+    /**
+     * 按节点归并槽位组，拓扑不可用时全部归为一个节点
+     */
+    private Map<String, List<Integer>> groupByNode(List<String> keys, List<List<Integer>> groups) {
+        Map<String, List<Integer>> nodes = new LinkedHashMap<>();
+        if (nodeResolver != null) {
+            for (int i = 0; i < groups.size(); i++) {
+                nodes.computeIfAbsent(nodeResolver.apply(slot(keys.get(groups.get(i).get(0)))), n -> new ArrayList<>()).add(i);
+            }
+            return nodes;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+                for (int i = 0; i < groups.size(); i++) {
+                    RedisClusterNode node = clusterConnection.clusterGetNodeForSlot(slot(keys.get(groups.get(i).get(0))));
+                    nodes.computeIfAbsent(node == null ? "" : node.asString(), n -> new ArrayList<>()).add(i);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to resolve cluster nodes for {} slot groups, executing them sequentially", groups.size(), e);
+            nodes.clear();
+            List<Integer> all = allIndexes(groups.size());
+            nodes.put("", all);
+        }
+        return nodes;
+    }
+
+    private boolean isCluster() {
+        Boolean detected = cluster;
+        if (detected == null) {
+            detected = Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection -> connection instanceof RedisClusterConnection));
+            cluster = detected;
+        }
+        return detected;
+    }
+
+    private static List<Integer> allIndexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,96 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 分片选举的成员登记，{@link LeaderElector} 根据存活成员数计算每个节点应持有的分片数。
+ * <p>
+ * 成员通过心跳续期，超过 ttl 没有心跳的成员视为已下线。
+ * 1. {@link #redis(RedisTemplate)}：成员保存在 Redis 有序集合中，分值为最近一次心跳的时间戳，跨 JVM 生效；
+ * 2. {@link #local()}：成员保存在当前实例中，同一实例内的选举器互相可见，用于内存后端与测试。
+ *
+ * @author javgo
+ * @create 2026-10-17 00:20
+ */
+public interface ElectionMembership {
+
+    /**
+     * 登记心跳并返回存活成员数
+     *
+     * @param group 任务组
+     * @param member 成员标识
+     * @param ttlMillis 心跳有效期（毫秒）
+     * @return 存活成员数（至少为 1，包含自身）
+     */
+    int heartbeat(String group, String member, long ttlMillis);
+
+    /**
+     * 退出任务组
+     *
+     * @param group 任务组
+     * @param member 成员标识
+     */
+    void leave(String group, String member);
+
+    /**
+     * 基于 Redis 有序集合的成员登记。心跳时间取本地时钟，节点之间的时钟偏差应远小于 ttl
+     *
+     * @param redisTemplate RedisTemplate
+     * @return 成员登记
+     */
+    static ElectionMembership redis(RedisTemplate<String, Object> redisTemplate) {
+        return new ElectionMembership() {
+            @Override
+            public int heartbeat(String group, String member, long ttlMillis) {
+                String key = RedisKeyPrefix.LEADER_MEMBER_KEY + group;
+                long now = System.currentTimeMillis();
+                ZSetOperations<String, Object> zSet = redisTemplate.opsForZSet();
+                zSet.add(key, member, now);
+                zSet.removeRangeByScore(key, 0, now - ttlMillis);
+                // 所有成员都下线后整个有序集合随之过期
+                redisTemplate.expire(key, ttlMillis * 2, TimeUnit.MILLISECONDS);
+                Long size = zSet.zCard(key);
+                return size == null ? 1 : (int) Math.max(size, 1);
+            }
+
+            @Override
+            public void leave(String group, String member) {
+                redisTemplate.opsForZSet().remove(RedisKeyPrefix.LEADER_MEMBER_KEY + group, member);
+            }
+        };
+    }
+
+    /**
+     * 基于本地内存的成员登记
+     *
+     * @return 成员登记
+     */
+    static ElectionMembership local() {
+        // 任务组 -> (成员 -> 最近一次心跳的时间)
+        Map<String, Map<String, Long>> groups = new ConcurrentHashMap<>();
+        return new ElectionMembership() {
+            @Override
+            public int heartbeat(String group, String member, long ttlMillis) {
+                Map<String, Long> members = groups.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+                long now = System.nanoTime();
+                members.put(member, now);
+                members.values().removeIf(last -> now - last > TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+                return Math.max(members.size(), 1);
+            }
+
+            @Override
+            public void leave(String group, String member) {
+                Map<String, Long> members = groups.get(group);
+                if (members != null) {
+                    members.remove(member);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Desc: JVM 内存锁存储后端，锁状态保存在 ConcurrentHashMap 中，只在当前 JVM 内生效，适用于测试与单节点部署。
+ * <p>
+ * 1. 每个键的读写都在 ConcurrentHashMap#compute 中完成，同一个键上的操作互斥，不同键之间互不阻塞，没有网络往返；
+ * 2. 过期时间基于 System.nanoTime，过期的锁在下一次访问该键时视为不存在（与 Redis 一样，锁自然过期不会唤醒等待者）；
+ * 3. 持有次数归零删除锁时直接通过 {@link LockWaitQueue#signal(String)} 唤醒本地等待者，不经过发布订阅；
+ * 4. 围栏令牌由全局计数器发放，对每个键都单调递增，不按键保存计数器，锁删除后不残留任何状态；
+ * 5. 互斥锁同一时刻只有一个持有者，锁状态直接记录持有者与持有次数，不为每把锁创建 Map，也不装箱持有次数。
+ *
+ * @author javgo
+ * @create 2026-10-16 19:30
+ */
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "memory")
+public class InMemoryLockBackend implements LockBackend {
+
+    /**
+     * 锁的完整键 -> 锁状态
+     */
+    private final Map<String, LockEntry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次发放的围栏令牌，所有键共用
+     */
+    private final AtomicLong fenceSequence = new AtomicLong();
+
+    private final LockWaitQueue lockWaitQueue;
+
+    public InMemoryLockBackend(LockWaitQueue lockWaitQueue) {
+        this.lockWaitQueue = lockWaitQueue;
+    }
+
+    @Override
+    public long[] tryLock(String key, String owner, long leaseMillis) {
+        long[] result = new long[2];
+        locks.compute(key, (k, entry) -> {
+            long now = System.nanoTime();
+            if (entry == null || entry.isExpired(now)) {
+                entry = new LockEntry(owner);
+            } else if (!owner.equals(entry.owner)) {
+                return entry;
+            }
+            result[0] = ++entry.holds;
+            if (entry.fence == 0) {
+                entry.fence = fenceSequence.incrementAndGet();
+            }
+            result[1] = entry.fence;
+            entry.expireAt = now + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            return entry;
+        });
+        return result;
+    }
+
+    @Override
+    public long unlock(String key, String owner) {
+        long[] remaining = {-1};
+        locks.computeIfPresent(key, (k, entry) -> {
+            if (entry.isExpired(System.nanoTime())) {
+                return null;
+            }
+            if (!owner.equals(entry.owner)) {
+                return entry;
+            }
+            if (entry.holds > 1) {
+                remaining[0] = --entry.holds;
+                return entry;
+            }
+            remaining[0] = 0;
+            return null;
+        });
+        if (remaining[0] == 0) {
+            lockWaitQueue.signal(key);
+        }
+        return remaining[0];
+    }
+
+    /**
+     * 按 keys 的顺序逐把加锁，遇到由其他持有者持有的锁时回滚本次已加的锁。
+     * 与 Redis 后端的单脚本不同，回滚前其他线程可能短暂地看到部分锁已被持有，但不会出现部分持有的成功结果。
+     */
+    @Override
+    public long[] tryLockAll(List<String> keys, String owner, long leaseMillis) {
+        long[] counts = new long[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            counts[i] = tryAcquire(keys.get(i), owner, leaseMillis);
+            if (counts[i] == 0) {
+                for (int j = 0; j < i; j++) {
+                    unlock(keys.get(j), owner);
+                }
+                return new long[]{0, i + 1};
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long[] unlockAll(List<String> keys, String owner) {
+        long[] results = new long[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            results[i] = unlock(keys.get(i), owner);
+        }
+        return results;
+    }
+
+    @Override
+    public boolean[] renew(List<Lease> leases) {
+        boolean[] results = new boolean[leases.size()];
+        for (int i = 0; i < results.length; i++) {
+            Lease lease = leases.get(i);
+            boolean[] renewed = {false};
+            locks.computeIfPresent(lease.getKey(), (k, entry) -> {
+                long now = System.nanoTime();
+                if (entry.isExpired(now)) {
+                    return null;
+                }
+                if (lease.getToken().equals(entry.owner)) {
+                    entry.expireAt = now + TimeUnit.MILLISECONDS.toNanos(lease.getLeaseMillis());
+                    renewed[0] = true;
+                }
+                return entry;
+            });
+            results[i] = renewed[0];
+        }
+        return results;
+    }
+
+    /**
+     * 多键加锁中的单把锁，与 Redis 多键加锁脚本一致，不发放围栏令牌
+     *
+     * @return 加锁后的持有次数，0 表示锁由其他持有者持有
+     */
+    private long tryAcquire(String key, String owner, long leaseMillis) {
+        long[] count = {0};
+        locks.compute(key, (k, entry) -> {
+            long now = System.nanoTime();
+            if (entry == null || entry.isExpired(now)) {
+                entry = new LockEntry(owner);
+            } else if (!owner.equals(entry.owner)) {
+                return entry;
+            }
+            count[0] = ++entry.holds;
+            entry.expireAt = now + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            return entry;
+        });
+        return count[0];
+    }
+
+    /**
+     * 单把锁的状态，只在 compute 中读写
+     */
+    private static class LockEntry {
+
+        /**
+         * 持有者标识
+         */
+        private final String owner;
+
+        /**
+         * 持有次数
+         */
+        private long holds;
+
+        /**
+         * 过期时间（System.nanoTime）
+         */
+        private long expireAt;
+
+        /**
+         * 本次持有的围栏令牌，0 表示尚未发放
+         */
+        private long fence;
+
+        private LockEntry(String owner) {
+            this.owner = owner;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Desc: 基于锁租约的领导者选举。每个任务组一把锁（{@link RedisKeyPrefix#LEADER_KEY} + 任务组），持有锁的节点即为该组的领导者：
+ * <p>
+ * 1. 当选后租约登记到 {@link LeaseWatchdog}，由看门狗续期，领导者在进程存活期间一直持有；续期失败时卸任并重新参选；
+ * 2. 跟随者在 {@link LockWaitQueue} 上异步等待，领导者主动卸任时被释放通知立即唤醒，领导者宕机时在租约过期后的下一个检查周期接任，
+ * 每个检查周期只有一次加锁尝试，不会在定时任务触发时集中竞争 Redis；
+ * 3. 分片任务组拆分为多个分片（任务组#分片），每个分片单独选举。节点按 {@link ElectionMembership} 中的存活成员数计算应持有的分片数
+ * ceil(分片数 / 成员数)，只参选不超过该数量的分片，多出的分片在检查周期中主动卸任，由其他节点接任，从而把分片分散到各个节点并行执行。
+ * <p>
+ * 配置示例：
+ * <pre>
+ * lock.leader.leaseMillis=15000
+ * lock.leader.checkMillis=3000
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-17 00:30
+ */
+@Slf4j
+@Component
+public class LeaderElector {
+
+    /**
+     * 领导权变更监听器
+     */
+    @FunctionalInterface
+    public interface LeadershipListener {
+
+        /**
+         * 领导权变更回调，在选举线程中执行，实现不应阻塞
+         *
+         * @param group 任务组，分片任务组为 "任务组#分片"
+         * @param leader 当选为 true，卸任为 false
+         */
+        void onLeadershipChange(String group, boolean leader);
+    }
+
+    /**
+     * 锁存储后端
+     */
+    @Autowired
+    private LockBackend lockBackend;
+
+    /**
+     * 租约看门狗，领导者的租约由看门狗续期
+     */
+    @Autowired
+    private LeaseWatchdog leaseWatchdog;
+
+    /**
+     * 锁等待队列，跟随者在上面等待领导者卸任
+     */
+    @Autowired
+    private LockWaitQueue lockWaitQueue;
+
+    /**
+     * 锁键的哈希标签策略，没有配置时不加哈希标签
+     */
+    @Autowired(required = false)
+    private ClusterKeyStrategy clusterKeyStrategy = ClusterKeyStrategy.NONE;
+
+    /**
+     * 分片选举的成员登记，没有配置时有 RedisTemplate 则登记到 Redis，否则登记在本地
+     */
+    @Autowired(required = false)
+    private ElectionMembership membership;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 领导者的租期（毫秒）
+     */
+    @Value("${lock.leader.leaseMillis:15000}")
+    private long leaseMillis = 15000;
+
+    /**
+     * 跟随者的检查周期与分片的平衡周期（毫秒），应明显小于租期
+     */
+    @Value("${lock.leader.checkMillis:3000}")
+    private long checkMillis = 3000;
+
+    /**
+     * 本节点的成员标识，同一 JVM 内的多个选举器也互不相同
+     */
+    private final String memberId = LockTokens.next();
+
+    /**
+     * 批量续期回调，所有领导者租约共用同一个实例，由看门狗合并为一次批量续期
+     */
+    private final LeaseRenewer leaseRenewer = leases -> lockBackend.renew(leases);
+
+    /**
+     * 任务组（分片） -> 参选状态
+     */
+    private final Map<String, Candidacy> candidacies = new ConcurrentHashMap<>();
+
+    /**
+     * 分片任务组 -> 分片数
+     */
+    private final Map<String, Integer> partitionedGroups = new ConcurrentHashMap<>();
+
+    /**
+     * 分片任务组 -> 本节点应持有的分片数
+     */
+    private final Map<String, Integer> fairShares = new ConcurrentHashMap<>();
+
+    private final List<LeadershipListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 选举线程，驱动跟随者的等待超时、重新参选与分片平衡
+     */
+    private ScheduledExecutorService timer;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (membership == null) {
+            membership = redisTemplate == null ? ElectionMembership.local() : ElectionMembership.redis(redisTemplate);
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lock-leader-elector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::rebalance, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * 卸任所有任务组并释放领导权，其他节点被释放通知唤醒后立即接任
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (String group : new ArrayList<>(partitionedGroups.keySet())) {
+            leave(group);
+        }
+        for (String group : new ArrayList<>(candidacies.keySet())) {
+            leave(group);
+        }
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * 参加任务组的选举，首次调用时同步尝试一次，之后在后台参选。重复调用只查询本地状态，不访问 Redis
+     *
+     * @param group 任务组
+     * @return 本节点当前是否为该组的领导者
+     */
+    public boolean join(String group) {
+        if (partitionedGroups.containsKey(group)) {
+            throw new IllegalStateException("Group " + group + " is partitioned, use joinPartitioned");
+        }
+        return candidacy(group, () -> true).isLeader();
+    }
+
+    /**
+     * 参加分片任务组的选举，首次调用时同步尝试一次，之后在后台参选。重复调用只查询本地状态，不访问 Redis
+     *
+     * @param group 任务组
+     * @param partitions 分片数
+     * @return 本节点当前持有的分片，升序
+     */
+    public List<Integer> joinPartitioned(String group, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        Integer previous = partitionedGroups.putIfAbsent(group, partitions);
+        if (previous == null) {
+            refreshFairShare(group, partitions);
+            // 各节点从不同的分片开始参选，减少同时启动时在同一分片上的竞争
+            int offset = Math.floorMod(memberId.hashCode(), partitions);
+            for (int i = 0; i < partitions; i++) {
+                candidacy(partitionGroup(group, (offset + i) % partitions), () -> countOwned(group, partitions) < fairShares.getOrDefault(group, partitions));
+            }
+        } else if (previous != partitions) {
+            throw new IllegalStateException("Group " + group + " already joined with " + previous + " partitions");
+        }
+        return ownedPartitions(group);
+    }
+
+    /**
+     * 退出任务组（或分片任务组）的选举，持有的领导权立即释放
+     *
+     * @param group 任务组
+     */
+    public void leave(String group) {
+        Integer partitions = partitionedGroups.remove(group);
+        if (partitions == null) {
+            stop(candidacies.remove(group));
+            return;
+        }
+        fairShares.remove(group);
+        for (int partition = 0; partition < partitions; partition++) {
+            stop(candidacies.remove(partitionGroup(group, partition)));
+        }
+        try {
+            membership.leave(group, memberId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to leave membership of group {}", group, e);
+        }
+    }
+
+    /**
+     * 本节点当前是否为任务组的领导者
+     *
+     * @param group 任务组，分片任务组传入 {@link #partitionGroup(String, int)}
+     * @return 是否为领导者，按本地时钟估计租约已过期时返回 false
+     */
+    public boolean isLeader(String group) {
+        Candidacy candidacy = candidacies.get(group);
+        return candidacy != null && candidacy.isLeader();
+    }
+
+    /**
+     * 本节点当选时获得的围栏令牌，任期内不变，可随写入请求传给下游存储以拒绝旧任期的写入
+     *
+     * @param group 任务组，分片任务组传入 {@link #partitionGroup(String, int)}
+     * @return 围栏令牌，不是领导者时返回 0
+     */
+    public long getFencingToken(String group) {
+        Candidacy candidacy = candidacies.get(group);
+        return candidacy != null && candidacy.isLeader() ? candidacy.fencingToken : 0;
+    }
+
+    /**
+     * 本节点当前持有的分片
+     *
+     * @param group 分片任务组
+     * @return 持有的分片，升序；没有参加该组的选举时为空
+     */
+    public List<Integer> ownedPartitions(String group) {
+        Integer partitions = partitionedGroups.get(group);
+        if (partitions == null) {
+            return List.of();
+        }
+        List<Integer> owned = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            if (isLeader(partitionGroup(group, partition))) {
+                owned.add(partition);
+            }
+        }
+        return owned;
+    }
+
+    public void addListener(LeadershipListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(LeadershipListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 分片在选举中的任务组名
+     *
+     * @param group 分片任务组
+     * @param partition 分片
+     * @return "任务组#分片"
+     */
+    public static String partitionGroup(String group, int partition) {
+        return group + "#" + partition;
+    }
+
+    /**
+     * 一个平衡周期：登记心跳，重新计算各分片任务组应持有的分片数，卸任多出的分片
+     */
+    void rebalance() {
+        try {
+            partitionedGroups.forEach((group, partitions) -> {
+                int share = refreshFairShare(group, partitions);
+                List<Integer> owned = ownedPartitions(group);
+                for (int i = share; i < owned.size(); i++) {
+                    Candidacy candidacy = candidacies.get(partitionGroup(group, owned.get(i)));
+                    if (candidacy != null) {
+                        log.info("Member {} holds {} partitions of group {} above fair share {}, resigning partition {}",
+                                memberId, owned.size(), group, share, owned.get(i));
+                        candidacy.resign();
+                        candidacy.campaign();
+                    }
+                }
+            });
+        } catch (Throwable t) {
+            // 定时任务抛出异常会导致后续周期不再执行，这里必须兜底
+            log.error("Leader elector rebalance failed", t);
+        }
+    }
+
+    /**
+     * 登记心跳并计算本节点应持有的分片数，成员登记不可用时沿用上一次的结果
+     */
+    private int refreshFairShare(String group, int partitions) {
+        try {
+            int members = membership.heartbeat(group, memberId, leaseMillis);
+            int share = (partitions + members - 1) / members;
+            fairShares.put(group, share);
+            return share;
+        } catch (RuntimeException e) {
+            log.warn("Failed to heartbeat membership of group {}", group, e);
+            return fairShares.getOrDefault(group, partitions);
+        }
+    }
+
+    private int countOwned(String group, int partitions) {
+        int owned = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            if (isLeader(partitionGroup(group, partition))) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    private Candidacy candidacy(String name, BooleanSupplier eligible) {
+        Candidacy candidacy = candidacies.computeIfAbsent(name,
+                n -> new Candidacy(n, RedisKeyPrefix.LEADER_KEY + clusterKeyStrategy.tag(n), eligible));
+        candidacy.start();
+        return candidacy;
+    }
+
+    private void stop(Candidacy candidacy) {
+        if (candidacy != null) {
+            candidacy.active = false;
+            candidacy.resign();
+        }
+    }
+
+    private void notifyListeners(String group, boolean leader) {
+        for (LeadershipListener listener : listeners) {
+            try {
+                listener.onLeadershipChange(group, leader);
+            } catch (Exception e) {
+                log.error("Leadership listener failed for group {}", group, e);
+            }
+        }
+    }
+
+    /**
+     * 一个任务组（分片）的参选状态。状态变更在对象锁内完成，锁只在选举线程与 join / leave 的调用线程之间竞争
+     */
+    private final class Candidacy implements LeaseLostListener {
+
+        private final String name;
+
+        private final String fullKey;
+
+        /**
+         * 是否允许参选，分片超过应持有的数量时不参选
+         */
+        private final BooleanSupplier eligible;
+
+        private volatile boolean started;
+
+        private volatile boolean active = true;
+
+        /**
+         * 本届任期的持有者标识，每次卸任后更换，旧任期残留的锁只会自然过期，不会被重入
+         */
+        private volatile String token = LockTokens.next();
+
+        private volatile Lease lease;
+
+        private volatile long fencingToken;
+
+        Candidacy(String name, String fullKey, BooleanSupplier eligible) {
+            this.name = name;
+            this.fullKey = fullKey;
+            this.eligible = eligible;
+        }
+
+        void start() {
+            if (started) {
+                return;
+            }
+            synchronized (this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+            }
+            if (!attempt()) {
+                campaign();
+            }
+        }
+
+        boolean isLeader() {
+            Lease current = lease;
+            return current != null && !current.isLost() && !current.isExpired(System.nanoTime());
+        }
+
+        /**
+         * 尝试当选一次
+         *
+         * @return 尝试后是否为领导者
+         */
+        boolean attempt() {
+            synchronized (this) {
+                if (!active || lease != null) {
+                    return lease != null;
+                }
+                if (!eligible.getAsBoolean()) {
+                    return false;
+                }
+                long[] result;
+                try {
+                    result = lockBackend.tryLock(fullKey, token, leaseMillis);
+                } catch (RuntimeException e) {
+                    log.warn("Member {} failed to campaign for group {}, will retry in {} ms", memberId, name, checkMillis, e);
+                    return false;
+                }
+                if (result[0] == 0) {
+                    return false;
+                }
+                fencingToken = result[1];
+                lease = new Lease(fullKey, token, leaseMillis, leaseRenewer, this);
+                leaseWatchdog.register(lease);
+            }
+            log.info("Member {} became leader of group {}, fencing token {}", memberId, name, fencingToken);
+            notifyListeners(name, true);
+            return true;
+        }
+
+        /**
+         * 在等待队列上等待领导者卸任或检查周期超时，随后再尝试一次，未当选则继续等待
+         */
+        void campaign() {
+            if (!active || !running) {
+                return;
+            }
+            try {
+                lockWaitQueue.awaitAsync(fullKey, checkMillis, timer).whenCompleteAsync((woken, error) -> {
+                    if (!attempt()) {
+                        campaign();
+                    }
+                }, timer);
+            } catch (RejectedExecutionException e) {
+                // 选举器已关闭
+                log.debug("Leader elector stopped, member {} stops campaigning for group {}", memberId, name);
+            }
+        }
+
+        /**
+         * 卸任并释放锁，释放通知唤醒其他节点的跟随者
+         */
+        void resign() {
+            String resignedToken;
+            synchronized (this) {
+                if (lease == null) {
+                    return;
+                }
+                resignedToken = token;
+                leaseWatchdog.unregister(fullKey, resignedToken);
+                lease = null;
+                token = LockTokens.next();
+            }
+            try {
+                lockBackend.unlock(fullKey, resignedToken);
+            } catch (RuntimeException e) {
+                // 锁在租期结束后自然过期
+                log.warn("Member {} failed to release leadership of group {}", memberId, name, e);
+            }
+            log.info("Member {} resigned leadership of group {}", memberId, name);
+            notifyListeners(name, false);
+        }
+
+        @Override
+        public void onLeaseLost(Lease lostLease) {
+            // 在看门狗线程中回调，卸任与重新参选交给选举线程
+            try {
+                timer.execute(() -> revoke(lostLease));
+            } catch (RejectedExecutionException e) {
+                log.debug("Leader elector stopped, ignoring lost lease of group {}", name);
+            }
+        }
+
+        private void revoke(Lease lostLease) {
+            synchronized (this) {
+                if (lease != lostLease) {
+                    return;
+                }
+                leaseWatchdog.unregister(fullKey, lostLease.getToken());
+                lease = null;
+                token = LockTokens.next();
+            }
+            log.warn("Member {} lost leadership of group {}", memberId, name);
+            notifyListeners(name, false);
+            campaign();
+        }
+    }
+}
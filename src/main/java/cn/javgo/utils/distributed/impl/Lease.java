@@ -0,0 +1,121 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 锁租约，描述一把已被持有的锁：锁的完整键、持有者标识（token）以及租期。
+ * <p>
+ * 租约在加锁成功时由持有锁的线程创建并登记到 {@link LeaseWatchdog}，由看门狗统一定时续期；
+ * 续期失败（锁已被删除或被他人持有）时租约被标记为丢失，并通过 {@link LeaseLostListener} 通知持有者。
+ *
+ * @author javgo
+ * @create 2026-10-16 09:12
+ */
+public class Lease {
+
+    /**
+     * 锁在 Redis 中的完整键（包含前缀）
+     */
+    private final String key;
+
+    /**
+     * 持有者标识，续期与释放时用于校验所有权
+     */
+    private final String token;
+
+    /**
+     * 租期（毫秒），每次续期都会把锁的过期时间重置为该值
+     */
+    private final long leaseMillis;
+
+    /**
+     * 负责续期该租约的续期器，看门狗按续期器对租约分组批量续期
+     */
+    private final LeaseRenewer renewer;
+
+    /**
+     * 租约丢失时的回调
+     */
+    private final LeaseLostListener listener;
+
+    /**
+     * 最近一次确认租约有效的时间（System.nanoTime）
+     */
+    private volatile long lastRenewNanos;
+
+    /**
+     * 租约是否已丢失
+     */
+    private volatile boolean lost;
+
+    public Lease(String key, String token, long leaseMillis, LeaseRenewer renewer, LeaseLostListener listener) {
+        this.key = key;
+        this.token = token;
+        this.leaseMillis = leaseMillis;
+        this.renewer = renewer;
+        this.listener = listener;
+        this.lastRenewNanos = System.nanoTime();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public LeaseRenewer getRenewer() {
+        return renewer;
+    }
+
+    LeaseLostListener getListener() {
+        return listener;
+    }
+
+    public boolean isLost() {
+        return lost;
+    }
+
+    void markLost() {
+        this.lost = true;
+    }
+
+    /**
+     * 记录一次成功续期
+     *
+     * @param renewStartNanos 发起续期请求的时间，以请求发出时刻为准可以保守地估计过期时间
+     */
+    void renewed(long renewStartNanos) {
+        this.lastRenewNanos = renewStartNanos;
+    }
+
+    /**
+     * 是否需要续期：距离上次续期已经过去租期的三分之一
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return 是否需要续期
+     */
+    boolean isRenewDue(long nowNanos) {
+        return nowNanos - lastRenewNanos >= TimeUnit.MILLISECONDS.toNanos(leaseMillis) / 3;
+    }
+
+    /**
+     * 按本地时钟估计租约是否已经过期
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return 是否已过期
+     */
+    boolean isExpired(long nowNanos) {
+        return nowNanos - lastRenewNanos >= TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "Lease{key='" + key + "', token='" + token + "', leaseMillis=" + leaseMillis + ", lost=" + lost + '}';
+    }
+}
@@ -0,0 +1,18 @@
+package cn.javgo.utils.distributed.impl;
+
+/**
+ * Desc: 租约丢失监听器，当看门狗发现锁已过期或被他人持有时回调，用于通知锁的持有者。
+ *
+ * @author javgo
+ * @create 2026-10-16 09:16
+ */
+@FunctionalInterface
+public interface LeaseLostListener {
+
+    /**
+     * 租约丢失回调，在看门狗线程中执行，实现不应阻塞
+     *
+     * @param lease 丢失的租约
+     */
+    void onLeaseLost(Lease lease);
+}
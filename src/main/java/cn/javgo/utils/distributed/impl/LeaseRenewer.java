@@ -0,0 +1,22 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.List;
+
+/**
+ * Desc: 租约续期器，由具体的锁实现提供，{@link LeaseWatchdog} 在每个周期内把到期的租约按续期器分批交给它续期。
+ *
+ * @author javgo
+ * @create 2026-10-16 09:15
+ */
+@FunctionalInterface
+public interface LeaseRenewer {
+
+    /**
+     * 批量续期租约
+     *
+     * @param leases 需要续期的租约
+     * @return 与 leases 一一对应的续期结果，false 表示锁已不再由该租约持有
+     * @throws Exception 无法确定续期结果时（如网络异常）抛出，看门狗会在下个周期重试
+     */
+    boolean[] renew(List<Lease> leases) throws Exception;
+}
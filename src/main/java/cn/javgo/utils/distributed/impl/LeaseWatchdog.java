@@ -0,0 +1,231 @@
+package cn.javgo.utils.distributed.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 租约看门狗，集中登记所有已持有的锁租约，由一个定时器按固定周期批量续期。
+ * <p>
+ * 与"每把锁一个定时任务"相比：
+ * 1. 无论持有多少把锁，只占用一个线程和一个定时任务；
+ * 2. 租约在加锁线程中创建并携带 token，续期不依赖 ThreadLocal，因此在看门狗线程中也能正确校验所有权；
+ * 3. 到期的租约按续期器分组、分批续期，具体实现可以把一批续期合并为一次网络往返；
+ * 4. 续期失败的租约会被标记为丢失并回调 {@link LeaseLostListener}，持有者在释放锁时也能感知到。
+ * <p>
+ * 续期时机：距离上次成功续期超过租期的三分之一。租期应明显大于检查周期（建议 3 倍以上）。
+ *
+ * @author javgo
+ * @create 2026-10-16 09:20
+ */
+@Slf4j
+@Component
+public class LeaseWatchdog {
+
+    /**
+     * 已登记的租约，key 为锁的完整键与持有者标识的组合。
+     * 使用组合键对象而不是拼接后的字符串，登记与注销时不再复制键和持有者标识
+     */
+    private final Map<LeaseKey, Lease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * 检查周期（毫秒）
+     */
+    private final long tickMillis;
+
+    /**
+     * 单次交给续期器的最大租约数量
+     */
+    private final int batchSize;
+
+    /**
+     * 锁指标，没有配置时不记录
+     */
+    @Autowired(required = false)
+    private LockMetrics lockMetrics = LockMetrics.NOOP;
+
+    /**
+     * 看门狗定时器，所有租约共享这一个线程
+     */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lock-lease-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LeaseWatchdog(@Value("${lock.watchdog.tickMillis:200}") long tickMillis,
+                         @Value("${lock.watchdog.batchSize:500}") int batchSize) {
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 启动看门狗定时器
+     */
+    @PostConstruct
+    public void start() {
+        timer.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止看门狗定时器，已登记的租约不再续期
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 登记租约，由看门狗负责后续续期
+     *
+     * @param lease 租约
+     */
+    public void register(Lease lease) {
+        leases.put(new LeaseKey(lease.getKey(), lease.getToken()), lease);
+    }
+
+    /**
+     * 注销租约，停止续期
+     *
+     * @param key 锁的完整键
+     * @param token 持有者标识
+     * @return 被注销的租约，未登记时返回 null。调用方可通过 {@link Lease#isLost()} 判断租约在持有期间是否丢失
+     */
+    public Lease unregister(String key, String token) {
+        return leases.remove(new LeaseKey(key, token));
+    }
+
+    /**
+     * 当前登记的租约数量
+     *
+     * @return 租约数量
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * 一个检查周期：收集到期的租约，按续期器分组后分批续期
+     */
+    void tick() {
+        try {
+            long now = System.nanoTime();
+            Map<LeaseRenewer, List<Lease>> due = new IdentityHashMap<>();
+            for (Lease lease : leases.values()) {
+                if (!lease.isLost() && lease.isRenewDue(now)) {
+                    due.computeIfAbsent(lease.getRenewer(), r -> new ArrayList<>()).add(lease);
+                }
+            }
+            due.forEach(this::renew);
+        } catch (Throwable t) {
+            // 定时任务抛出异常会导致后续周期不再执行，这里必须兜底
+            log.error("Lease watchdog tick failed", t);
+        }
+    }
+
+    /**
+     * 分批续期同一个续期器下的租约
+     *
+     * @param renewer 续期器
+     * @param due 到期的租约
+     */
+    private void renew(LeaseRenewer renewer, List<Lease> due) {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Lease> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            long renewStart = System.nanoTime();
+            boolean[] results;
+            try {
+                results = renewer.renew(batch);
+            } catch (Exception e) {
+                log.warn("Failed to renew {} leases, will retry on next tick", batch.size(), e);
+                lockMetrics.recordRenewalError(batch.size());
+                // 无法确定续期结果，只有按本地时钟估计已经过期的租约才判定为丢失
+                long now = System.nanoTime();
+                for (Lease lease : batch) {
+                    if (lease.isExpired(now)) {
+                        markLost(lease);
+                    }
+                }
+                continue;
+            }
+            int renewed = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Lease lease = batch.get(i);
+                if (results[i]) {
+                    lease.renewed(renewStart);
+                    renewed++;
+                } else {
+                    markLost(lease);
+                }
+            }
+            lockMetrics.recordRenewals(renewed, batch.size() - renewed);
+            log.debug("Renewed {} leases in {} ms", batch.size(), (System.nanoTime() - renewStart) / 1_000_000);
+        }
+    }
+
+    /**
+     * 标记租约丢失并通知持有者。丢失的租约保留在登记表中，直到持有者释放锁时注销，以便持有者感知。
+     *
+     * @param lease 丢失的租约
+     */
+    private void markLost(Lease lease) {
+        // 续期期间租约可能已被持有者释放，此时不再通知
+        if (leases.get(new LeaseKey(lease.getKey(), lease.getToken())) != lease) {
+            return;
+        }
+        lease.markLost();
+        log.error("Lease lost for lock {}, token {}", lease.getKey(), lease.getToken());
+        lockMetrics.recordLeaseLost(lease.getKey());
+        LeaseLostListener listener = lease.getListener();
+        if (listener != null) {
+            try {
+                listener.onLeaseLost(lease);
+            } catch (Exception e) {
+                log.error("Lease lost listener failed for lock {}", lease.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 租约登记表的键：锁的完整键 + 持有者标识
+     */
+    private static final class LeaseKey {
+
+        private final String key;
+
+        private final String token;
+
+        private LeaseKey(String key, String token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LeaseKey other)) {
+                return false;
+            }
+            return key.equals(other.key) && token.equals(other.token);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + token.hashCode();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: JVM 内的按键本地锁表，位于 Redis 锁之前，使同一 JVM 内同一个键同时只有一个线程去竞争 Redis 锁。
+ * <p>
+ * 1. 每个键对应一个公平信号量（许可数为 1），本地等待者按到达顺序排队，前一个持有者释放时直接交接给下一个；
+ * 2. N 个本地竞争者对 Redis 而言只表现为 1 个，其余线程不再反复访问 Redis；
+ * 3. 信号量不绑定线程，加锁与释放可以发生在不同线程，持有者由调用方传入的持有者标识区分；
+ * 4. 同一持有者重复加锁时只增加持有次数，不会与自己死锁，持有次数归零才交接；
+ * 5. 条目记录持有者与等待者数量，归零时移除，键的数量不会无限增长。
+ *
+ * @author javgo
+ * @create 2026-10-16 11:10
+ */
+public class LocalLockTable {
+
+    /**
+     * 键 -> 本地锁条目，条目的引用计数只在 compute 中修改，保证原子性
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 获取本地锁，已由同一持有者持有时直接重入
+     *
+     * @param key 锁的键
+     * @param owner 持有者标识
+     * @param timeoutMillis 最长等待时间（毫秒），0 表示不等待
+     * @return 是否获取到本地锁
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public boolean tryAcquire(String key, String owner, long timeoutMillis) throws InterruptedException {
+        // 快速路径一：重入。条目由自己持有时不会被移除，持有次数只由持有者自己修改
+        Entry current = entries.get(key);
+        if (current != null && owner.equals(current.owner)) {
+            current.holds++;
+            return true;
+        }
+        // 快速路径二：无人持有也无人等待，直接放入一个已由自己持有的条目，不经过 compute
+        if (current == null && entries.putIfAbsent(key, new Entry(owner)) == null) {
+            return true;
+        }
+        boolean[] reentered = new boolean[1];
+        Entry entry = entries.compute(key, (k, e) -> {
+            if (e == null) {
+                e = new Entry();
+            }
+            if (owner.equals(e.owner)) {
+                e.holds++;
+                reentered[0] = true;
+            } else {
+                e.refs++;
+            }
+            return e;
+        });
+        if (reentered[0]) {
+            return true;
+        }
+        boolean acquired = false;
+        try {
+            acquired = entry.permit.tryAcquire(Math.max(timeoutMillis, 0), TimeUnit.MILLISECONDS);
+            if (acquired) {
+                entry.holds = 1;
+                entry.owner = owner;
+            }
+            return acquired;
+        } finally {
+            if (!acquired) {
+                unref(key);
+            }
+        }
+    }
+
+    /**
+     * 释放本地锁，持有次数归零时交接给下一个本地等待者
+     *
+     * @param key 锁的键
+     * @param owner 持有者标识，非当前持有者的释放会被忽略
+     */
+    public void release(String key, String owner) {
+        Entry entry = entries.get(key);
+        if (entry == null || !owner.equals(entry.owner)) {
+            return;
+        }
+        // 持有次数只由持有者自己修改
+        if (--entry.holds > 0) {
+            return;
+        }
+        entry.owner = null;
+        entry.permit.release();
+        unref(key);
+    }
+
+    /**
+     * 当前存在持有者或等待者的键的数量
+     *
+     * @return 键的数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void unref(String key) {
+        entries.computeIfPresent(key, (k, e) -> --e.refs == 0 ? null : e);
+    }
+
+    /**
+     * 本地锁条目
+     */
+    private static final class Entry {
+
+        /**
+         * 公平信号量，保证本地等待者按先后顺序获得交接
+         */
+        private final Semaphore permit;
+
+        /**
+         * 持有者与等待者数量
+         */
+        private int refs;
+
+        /**
+         * 当前持有者标识
+         */
+        private volatile String owner;
+
+        /**
+         * 当前持有者的重入次数
+         */
+        private int holds;
+
+        /**
+         * 空闲条目，许可可用
+         */
+        private Entry() {
+            permit = new Semaphore(1, true);
+        }
+
+        /**
+         * 已由指定持有者持有的条目，许可已被占用
+         *
+         * @param owner 持有者标识
+         */
+        private Entry(String owner) {
+            permit = new Semaphore(0, true);
+            refs = 1;
+            holds = 1;
+            this.owner = owner;
+        }
+    }
+}
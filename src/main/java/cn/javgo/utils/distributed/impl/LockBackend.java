@@ -0,0 +1,67 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.List;
+
+/**
+ * Desc: 锁存储后端 SPI。{@link RedisDistributedLockService} 负责加锁流程（本地锁表、等待与唤醒、租约、句柄），
+ * 锁状态的原子读写由后端完成，通过配置 lock.backend 选择：
+ * <p>
+ * 1. redis（默认）：{@link RedisLockBackend}，锁状态保存在 Redis 中，跨 JVM 生效；
+ * 2. memory：{@link InMemoryLockBackend}，锁状态保存在当前 JVM 中，适用于测试与单节点部署。
+ * 此时不创建 Lua 脚本注册表、槽位路由、读写锁与信号量等依赖 Redis 的组件，也不需要 RedisConnectionFactory。
+ * <p>
+ * 锁是可重入的：同一持有者重复加锁时持有次数加 1，持有次数归零时锁才被删除，并唤醒等待该锁的线程。
+ * 所有方法的键都是包含前缀的完整键。
+ *
+ * @author javgo
+ * @create 2026-10-16 19:10
+ */
+public interface LockBackend {
+
+    /**
+     * 尝试加锁（可重入）
+     *
+     * @param key 锁的完整键
+     * @param owner 持有者标识
+     * @param leaseMillis 租期（毫秒）
+     * @return {加锁后的持有次数, 围栏令牌}，持有次数为 0 表示锁由其他持有者持有
+     */
+    long[] tryLock(String key, String owner, long leaseMillis);
+
+    /**
+     * 释放锁，持有次数减 1，归零时删除锁并唤醒等待者
+     *
+     * @param key 锁的完整键
+     * @param owner 持有者标识
+     * @return 剩余持有次数，-1 表示锁不由该持有者持有
+     */
+    long unlock(String key, String owner);
+
+    /**
+     * 一次性获取多把锁，要么全部获取，要么一把都不获取
+     *
+     * @param keys 按统一顺序排列的锁的完整键
+     * @param owner 持有者标识
+     * @param leaseMillis 租期（毫秒）
+     * @return 成功时为与 keys 一一对应的持有次数；失败时为 {0, 冲突键的下标（从 1 开始）}
+     */
+    long[] tryLockAll(List<String> keys, String owner, long leaseMillis);
+
+    /**
+     * 释放多把锁
+     *
+     * @param keys 锁的完整键
+     * @param owner 持有者标识
+     * @return 与 keys 一一对应的剩余持有次数，-1 表示该锁不由该持有者持有
+     */
+    long[] unlockAll(List<String> keys, String owner);
+
+    /**
+     * 批量续期，签名与 {@link LeaseRenewer} 一致
+     *
+     * @param leases 需要续期的租约
+     * @return 与 leases 一一对应的续期结果，false 表示锁已不再由该租约持有
+     * @throws Exception 无法确定续期结果时抛出
+     */
+    boolean[] renew(List<Lease> leases) throws Exception;
+}
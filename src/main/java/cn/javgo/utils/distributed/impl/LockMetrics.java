@@ -0,0 +1,79 @@
+package cn.javgo.utils.distributed.impl;
+
+/**
+ * Desc: 分布式锁指标 SPI，各锁实现在加锁、释放、续期与租约丢失时回调。默认为不记录任何指标的 {@link #NOOP}，
+ * 应用中存在 Micrometer 的 MeterRegistry 时由 {@link LockMetricsConfiguration} 提供 {@link MicrometerLockMetrics}。
+ * <p>
+ * 所有方法的键都是包含前缀的完整键，具体实现负责把键归并为模式（如 order:* ），避免以原始键作为标签导致指标基数失控。
+ *
+ * @author javgo
+ * @create 2026-10-16 20:30
+ */
+public interface LockMetrics {
+
+    /**
+     * 锁类型：互斥锁、多键锁、读锁、写锁、信号量
+     */
+    String TYPE_MUTEX = "mutex";
+
+    String TYPE_MULTI = "multi";
+
+    String TYPE_READ = "read";
+
+    String TYPE_WRITE = "write";
+
+    String TYPE_SEMAPHORE = "semaphore";
+
+    /**
+     * 不记录任何指标
+     */
+    LockMetrics NOOP = new LockMetrics() {
+    };
+
+    /**
+     * 记录一次加锁
+     *
+     * @param type 锁类型
+     * @param key 锁的完整键
+     * @param acquired 是否获取到锁
+     * @param attempts 尝试次数，大于 1 表示发生了竞争
+     * @param waitNanos 加锁耗时（纳秒，含等待）
+     */
+    default void recordAcquire(String type, String key, boolean acquired, int attempts, long waitNanos) {
+    }
+
+    /**
+     * 记录一次持有
+     *
+     * @param type 锁类型
+     * @param key 锁的完整键
+     * @param holdNanos 从获取到释放的时长（纳秒）
+     */
+    default void recordHold(String type, String key, long holdNanos) {
+    }
+
+    /**
+     * 记录一批续期结果
+     *
+     * @param renewed 续期成功的租约数
+     * @param failed 续期失败（锁已不再由该租约持有）的租约数
+     */
+    default void recordRenewals(int renewed, int failed) {
+    }
+
+    /**
+     * 记录一次无法确定结果的批量续期（如网络异常）
+     *
+     * @param leases 该批租约数
+     */
+    default void recordRenewalError(int leases) {
+    }
+
+    /**
+     * 记录一次租约丢失
+     *
+     * @param key 锁的完整键
+     */
+    default void recordLeaseLost(String key) {
+    }
+}
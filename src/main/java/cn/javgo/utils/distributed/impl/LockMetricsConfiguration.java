@@ -0,0 +1,35 @@
+package cn.javgo.utils.distributed.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Desc: 分布式锁指标配置，只有类路径中存在 Micrometer 时才生效，容器中存在 MeterRegistry 时记录指标，否则不记录。
+ * <p>
+ * 配置示例：
+ * <pre>
+ * lock.metrics.enabled=true
+ * lock.metrics.maxKeyPatterns=100
+ * </pre>
+ * 各锁实现以 {@code @Autowired(required = false)} 注入 {@link LockMetrics}，没有该 Bean 时使用 {@link LockMetrics#NOOP}。
+ *
+ * @author javgo
+ * @create 2026-10-16 20:40
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(name = "lock.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class LockMetricsConfiguration {
+
+    @Bean
+    public LockMetrics lockMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                   @Value("${lock.metrics.maxKeyPatterns:100}") int maxKeyPatterns) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? LockMetrics.NOOP : new MicrometerLockMetrics(registry, maxKeyPatterns);
+    }
+}
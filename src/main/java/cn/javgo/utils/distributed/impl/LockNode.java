@@ -0,0 +1,65 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.List;
+
+/**
+ * Desc: 多节点（Redlock）模式下的单个独立锁节点。各节点之间没有复制关系，由 {@link RedlockDistributedLockService} 按多数派仲裁。
+ * <p>
+ * 所有方法都只做一次非阻塞的尝试；节点不可用时可以抛出异常，调用方按"该节点未成功"处理。
+ *
+ * @author javgo
+ * @create 2026-10-16 18:05
+ */
+public interface LockNode {
+
+    /**
+     * 键不存在时设置锁（SET key token NX PX lease）
+     *
+     * @param key 锁的完整键
+     * @param token 持有者标识
+     * @param leaseMillis 租期（毫秒）
+     * @return 是否加锁成功
+     */
+    boolean tryLock(String key, String token, long leaseMillis);
+
+    /**
+     * 锁仍由该持有者持有时重置过期时间
+     *
+     * @param key 锁的完整键
+     * @param token 持有者标识
+     * @param leaseMillis 租期（毫秒）
+     * @return 是否续期成功
+     */
+    boolean extend(String key, String token, long leaseMillis);
+
+    /**
+     * 批量续期，默认逐把调用 {@link #extend(String, String, long)}，实现可以合并为一次网络往返
+     *
+     * @param leases 需要续期的租约
+     * @return 与 leases 一一对应的续期结果
+     */
+    default boolean[] extendAll(List<Lease> leases) {
+        boolean[] results = new boolean[leases.size()];
+        for (int i = 0; i < results.length; i++) {
+            Lease lease = leases.get(i);
+            results[i] = extend(lease.getKey(), lease.getToken(), lease.getLeaseMillis());
+        }
+        return results;
+    }
+
+    /**
+     * 锁仍由该持有者持有时删除锁
+     *
+     * @param key 锁的完整键
+     * @param token 持有者标识
+     * @return 是否释放成功
+     */
+    boolean unlock(String key, String token);
+
+    /**
+     * 节点名称，用于日志
+     *
+     * @return 节点名称
+     */
+    String getName();
+}
@@ -0,0 +1,48 @@
+package cn.javgo.utils.distributed.impl;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Desc: 锁持有者标识的生成，加锁热路径上不再调用 UUID.randomUUID()（基于 SecureRandom，高并发时会在熵源上竞争）。
+ * <p>
+ * 1. JVM 标识只在类加载时生成一次，保证不同 JVM 的持有者标识不会冲突；
+ * 2. 线程持有者标识为 "JVM 标识:线程 ID"，每次调用时拼接，不使用 ThreadLocal 缓存（虚拟线程数量巨大，按线程缓存得不偿失）；
+ * 3. 一次性令牌为 "JVM 标识#序号"，序号由 AtomicLong 递增，分隔符与线程持有者标识不同，二者不会相等。
+ *
+ * @author javgo
+ * @create 2026-10-16 21:40
+ */
+final class LockTokens {
+
+    /**
+     * 当前 JVM 的唯一标识
+     */
+    static final String JVM_ID = UUID.randomUUID().toString();
+
+    /**
+     * 一次性令牌的序号
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private LockTokens() {
+    }
+
+    /**
+     * 当前线程的持有者标识，同一线程重入时持有者相同
+     *
+     * @return 持有者标识
+     */
+    static String currentThread() {
+        return JVM_ID + ":" + Thread.currentThread().getId();
+    }
+
+    /**
+     * 不可重入场景（异步加锁、信号量许可、Redlock）使用的一次性令牌，每次调用都不同
+     *
+     * @return 一次性令牌
+     */
+    static String next() {
+        return JVM_ID + "#" + SEQUENCE.incrementAndGet();
+    }
+}
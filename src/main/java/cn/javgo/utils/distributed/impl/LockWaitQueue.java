@@ -0,0 +1,297 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Desc: 锁等待队列，基于 Redis 发布订阅唤醒等待锁的线程，替代固定间隔的 sleep 轮询。
+ * <p>
+ * 1. 释放锁的 Lua 脚本在删除锁后向 {@link RedisKeyPrefix#LOCK_RELEASE_CHANNEL} 发布被释放的锁的完整键；
+ * 2. 每个 JVM 只订阅一次该频道，收到消息后从本地该键的等待队列中按先后顺序唤醒恰好一个等待者；
+ * 3. 等待者被唤醒后立即重试加锁。消息可能丢失（如订阅断线、锁自然过期不会发布消息），
+ * 因此等待总是带有超时，超时后同样会重试，即轮询只作为兜底；
+ * 4. 重试前先通过 {@link #register(String)} 登记，再尝试加锁，失败后才等待：尝试失败与开始等待之间到达的释放通知
+ * 已经唤醒了登记的等待者，等待立即返回，不会丢失；加锁成功时通过 {@link #cancel(Registration)} 撤销登记；
+ * 5. 配置 lock.backend=memory 时不订阅频道，也不需要 RedisConnectionFactory，锁释放时由 {@link InMemoryLockBackend} 直接调用 {@link #signal(String)}。
+ *
+ * @author javgo
+ * @create 2026-10-16 10:30
+ */
+@Slf4j
+@Component
+public class LockWaitQueue implements MessageListener {
+
+    /**
+     * 每个锁键上的本地等待者，先进先出
+     */
+    private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Redis 连接工厂，为 null 时不订阅锁释放频道，只由本地 {@link #signal(String)} 唤醒
+     */
+    private final RedisConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer container;
+
+    public LockWaitQueue(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Autowired
+    public LockWaitQueue(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                         @Value("${lock.backend:redis}") String backend) {
+        this("memory".equals(backend) ? null : connectionFactory.getObject());
+    }
+
+    /**
+     * 订阅锁释放频道，没有 Redis 连接工厂时不订阅
+     */
+    @PostConstruct
+    public void start() {
+        if (connectionFactory == null) {
+            return;
+        }
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(RedisKeyPrefix.LOCK_RELEASE_CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    /**
+     * 取消订阅
+     */
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * 登记等待者，之后到达的释放通知会唤醒它。登记后应当再尝试一次加锁，失败时调用 await / awaitAsync 等待，成功时调用 cancel 撤销
+     *
+     * @param key 锁的完整键
+     * @return 登记
+     */
+    public Registration register(String key) {
+        Registration registration = new Registration(key);
+        enqueue(key, registration.waiter);
+        return registration;
+    }
+
+    /**
+     * 撤销登记，已被唤醒的登记同样可以撤销
+     *
+     * @param registration 登记
+     */
+    public void cancel(Registration registration) {
+        registration.waiter.cancel();
+        dequeue(registration.key, registration.waiter);
+    }
+
+    /**
+     * 等待锁释放通知
+     *
+     * @param key 锁的完整键
+     * @param timeoutMillis 最长等待时间（毫秒），超时后调用方应当再次尝试加锁
+     * @return true 表示被释放通知唤醒，false 表示等待超时
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public boolean await(String key, long timeoutMillis) throws InterruptedException {
+        return await(register(key), timeoutMillis);
+    }
+
+    /**
+     * 在已登记的等待者上等待锁释放通知，登记之后到达的通知不会丢失
+     *
+     * @param registration 登记
+     * @param timeoutMillis 最长等待时间（毫秒），超时后调用方应当再次尝试加锁
+     * @return true 表示被释放通知唤醒，false 表示等待超时
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public boolean await(Registration registration, long timeoutMillis) throws InterruptedException {
+        try {
+            registration.woken.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // 超时，由下面的取消结果判断是否恰好在超时之后被唤醒
+        } finally {
+            dequeue(registration.key, registration.waiter);
+        }
+        // 取消失败说明已被唤醒（可能恰好发生在超时之后）
+        return !registration.waiter.cancel();
+    }
+
+    /**
+     * 异步等待锁释放通知，不占用调用线程
+     *
+     * @param key 锁的完整键
+     * @param timeoutMillis 最长等待时间（毫秒），超时后调用方应当再次尝试加锁
+     * @param timer 用于超时的定时器
+     * @return 被释放通知唤醒时完成为 true，等待超时时完成为 false
+     */
+    public CompletableFuture<Boolean> awaitAsync(String key, long timeoutMillis, ScheduledExecutorService timer) {
+        return awaitAsync(register(key), timeoutMillis, timer);
+    }
+
+    /**
+     * 在已登记的等待者上异步等待锁释放通知，不占用调用线程
+     *
+     * @param registration 登记
+     * @param timeoutMillis 最长等待时间（毫秒），超时后调用方应当再次尝试加锁
+     * @param timer 用于超时的定时器
+     * @return 被释放通知唤醒时完成为 true，等待超时时完成为 false
+     * @throws RejectedExecutionException 定时器拒绝超时任务（如已关闭），此时登记已撤销
+     */
+    public CompletableFuture<Boolean> awaitAsync(Registration registration, long timeoutMillis, ScheduledExecutorService timer) {
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = timer.schedule(() -> {
+                if (registration.waiter.cancel()) {
+                    dequeue(registration.key, registration.waiter);
+                    registration.woken.complete(false);
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 没有超时任务时等待者可能永远留在队列中
+            cancel(registration);
+            throw e;
+        }
+        registration.woken.whenComplete((woken, error) -> timeout.cancel(false));
+        return registration.woken;
+    }
+
+    /**
+     * 唤醒该键上最早等待的一个等待者，已超时或已取消的等待者会被跳过
+     *
+     * @param key 锁的完整键
+     */
+    public void signal(String key) {
+        Queue<Waiter> queue = waiters.get(key);
+        if (queue == null) {
+            return;
+        }
+        Waiter waiter;
+        while ((waiter = queue.poll()) != null) {
+            if (waiter.wake()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 收到锁释放消息，消息体为被释放的锁的完整键
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Received release notification for lock {}", key);
+        signal(key);
+    }
+
+    /**
+     * 该键上仍在队列中的等待者数量，用于测试
+     *
+     * @param key 锁的完整键
+     * @return 等待者数量
+     */
+    int waiting(String key) {
+        Queue<Waiter> queue = waiters.get(key);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void enqueue(String key, Waiter waiter) {
+        waiters.compute(key, (k, queue) -> {
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<>();
+            }
+            queue.add(waiter);
+            return queue;
+        });
+    }
+
+    private void dequeue(String key, Waiter waiter) {
+        waiters.computeIfPresent(key, (k, queue) -> {
+            queue.remove(waiter);
+            // 没有等待者时移除队列，避免键的数量无限增长
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    /**
+     * 等待者的登记，唤醒时完成为 true
+     */
+    public static final class Registration {
+
+        private final String key;
+
+        private final CompletableFuture<Boolean> woken = new CompletableFuture<>();
+
+        private final Waiter waiter = new Waiter(() -> woken.complete(true));
+
+        private Registration(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * 等待者，唤醒与取消互斥，保证一次释放通知只被一个等待者消费
+     */
+    static final class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int WOKEN = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private final Runnable onWake;
+
+        Waiter(Runnable onWake) {
+            this.onWake = onWake;
+        }
+
+        /**
+         * @return 是否由本次调用唤醒
+         */
+        boolean wake() {
+            if (state.compareAndSet(WAITING, WOKEN)) {
+                onWake.run();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return 是否由本次调用取消，false 表示已被唤醒
+         */
+        boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED) || state.get() == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package cn.javgo.utils.distributed.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Desc: Lua 脚本注册表，与驱动无关地执行锁相关的 Lua 脚本，Jedis 与 Lettuce 均可使用。
+ * <p>
+ * 1. 各组件在创建时通过 {@link #register(String, String)} 登记自己的脚本，容器启动完成后对全部脚本执行一次 SCRIPT LOAD；
+ * 2. 执行时只以 EVALSHA 发送 40 字节的 SHA1，不再每次发送完整脚本，Redis 也不再重复解析脚本；
+ * 3. Redis 返回 NOSCRIPT（Redis 重启或执行过 SCRIPT FLUSH，脚本缓存被清空）时重新 SCRIPT LOAD 该脚本后重试一次，调用方无感知；
+ * 4. 每个脚本记录调用次数、失败次数、重新载入次数与累计耗时，通过 {@link #getStats()} 查看；
+ * 5. 键与参数按 UTF-8 编码，不经过 RedisTemplate 的序列化器；热路径上的调用方可以直接传入编码好的字节，复用预先编码的常量参数。
+ *
+ * @author javgo
+ * @create 2026-10-16 19:05
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "redis", matchIfMissing = true)
+public class LuaScriptRegistry implements SmartInitializingSingleton {
+
+    /**
+     * 脚本内容 -> 已登记的脚本，脚本都是常量，数量固定
+     */
+    private final Map<String, RegisteredScript> scripts = new ConcurrentHashMap<>();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public LuaScriptRegistry(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 登记脚本，同一脚本重复登记时沿用第一次的名称
+     *
+     * @param name 脚本名称，用于统计
+     * @param script 脚本内容
+     */
+    public void register(String name, String script) {
+        scripts.computeIfAbsent(script, s -> new RegisteredScript(name, s));
+    }
+
+    /**
+     * 容器中的单例全部创建完成（各组件已登记脚本）后预载全部脚本。
+     * Redis 暂不可用时只记录日志，脚本会在首次执行收到 NOSCRIPT 时载入。
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            loadAll();
+        } catch (Exception e) {
+            log.warn("Failed to preload {} lua scripts, they will be loaded on first use", scripts.size(), e);
+        }
+    }
+
+    /**
+     * 对全部已登记的脚本执行 SCRIPT LOAD
+     */
+    public void loadAll() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            for (RegisteredScript script : scripts.values()) {
+                connection.scriptingCommands().scriptLoad(script.source);
+            }
+            return null;
+        });
+        log.info("Loaded {} lua scripts", scripts.size());
+    }
+
+    /**
+     * 以 EVALSHA 执行 Lua 脚本，未登记的脚本以其 SHA1 的前 8 位为名称自动登记
+     *
+     * @param script 脚本内容
+     * @param returnType 返回类型：INTEGER 返回 Long，MULTI 返回 List（整数元素为 Long），STATUS / VALUE 返回 byte[]
+     * @param keys 脚本的 KEYS
+     * @param args 脚本的 ARGV
+     * @param <T> 返回值类型
+     * @return 脚本返回值
+     */
+    public <T> T execute(String script, ReturnType returnType, List<String> keys, List<String> args) {
+        byte[][] keysAndArgs = new byte[keys.size() + args.size()][];
+        int i = 0;
+        for (String key : keys) {
+            keysAndArgs[i++] = key.getBytes(StandardCharsets.UTF_8);
+        }
+        for (String arg : args) {
+            keysAndArgs[i++] = arg.getBytes(StandardCharsets.UTF_8);
+        }
+        return execute(script, returnType, keys.size(), keysAndArgs);
+    }
+
+    /**
+     * 以 EVALSHA 执行 Lua 脚本，键与参数已由调用方编码
+     *
+     * @param script 脚本内容
+     * @param returnType 返回类型
+     * @param numKeys 键的数量，keysAndArgs 的前 numKeys 个元素为 KEYS，其余为 ARGV
+     * @param keysAndArgs 编码后的键与参数
+     * @param <T> 返回值类型
+     * @return 脚本返回值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String script, ReturnType returnType, int numKeys, byte[]... keysAndArgs) {
+        RegisteredScript registered = scripts.get(script);
+        if (registered == null) {
+            registered = scripts.computeIfAbsent(script, s -> new RegisteredScript(null, s));
+        }
+
+        RegisteredScript target = registered;
+        long startTime = System.nanoTime();
+        try {
+            return redisTemplate.execute((RedisCallback<T>) connection -> {
+                try {
+                    return (T) connection.scriptingCommands().evalSha(target.sha, returnType, numKeys, keysAndArgs);
+                } catch (RuntimeException e) {
+                    if (!isNoScript(e)) {
+                        throw e;
+                    }
+                    // 脚本缓存已被清空，重新载入后重试
+                    log.warn("Lua script {} is missing on redis, reloading it", target.name);
+                    connection.scriptingCommands().scriptLoad(target.source);
+                    target.reloads.increment();
+                    return (T) connection.scriptingCommands().evalSha(target.sha, returnType, numKeys, keysAndArgs);
+                }
+            });
+        } catch (RuntimeException e) {
+            target.errors.increment();
+            throw e;
+        } finally {
+            target.calls.increment();
+            target.totalNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * 各脚本的调用统计
+     *
+     * @return 脚本名称 -> 统计快照
+     */
+    public Map<String, ScriptStats> getStats() {
+        Map<String, ScriptStats> stats = new LinkedHashMap<>();
+        for (RegisteredScript script : scripts.values()) {
+            stats.put(script.name, new ScriptStats(script.name, script.shaHex, script.calls.sum(), script.errors.sum(),
+                    script.reloads.sum(), script.totalNanos.sum()));
+        }
+        return stats;
+    }
+
+    /**
+     * 是否为 NOSCRIPT 错误（各驱动的异常类型不同，统一按错误信息判断）
+     *
+     * @param e 异常
+     * @return 是否为 NOSCRIPT 错误
+     */
+    static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已登记的脚本及其计数器，计数器使用 LongAdder，高并发调用时不会在同一个缓存行上竞争
+     */
+    private static class RegisteredScript {
+
+        private final String name;
+
+        private final String shaHex;
+
+        private final byte[] sha;
+
+        private final byte[] source;
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder reloads = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private RegisteredScript(String name, String script) {
+            this.shaHex = DigestUtils.sha1DigestAsHex(script);
+            this.name = name != null ? name : shaHex.substring(0, 8);
+            this.sha = shaHex.getBytes(StandardCharsets.US_ASCII);
+            this.source = script.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 单个脚本的调用统计快照
+     */
+    public static final class ScriptStats {
+
+        private final String name;
+
+        private final String sha;
+
+        private final long calls;
+
+        private final long errors;
+
+        private final long reloads;
+
+        private final long totalNanos;
+
+        ScriptStats(String name, String sha, long calls, long errors, long reloads, long totalNanos) {
+            this.name = name;
+            this.sha = sha;
+            this.calls = calls;
+            this.errors = errors;
+            this.reloads = reloads;
+            this.totalNanos = totalNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSha() {
+            return sha;
+        }
+
+        /**
+         * @return 调用次数
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return 失败次数
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return 因 NOSCRIPT 重新载入的次数
+         */
+        public long getReloads() {
+            return reloads;
+        }
+
+        /**
+         * @return 累计耗时（纳秒，含网络往返）
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return 平均耗时（微秒），没有调用时为 0
+         */
+        public long getAverageMicros() {
+            return calls == 0 ? 0 : totalNanos / calls / 1_000;
+        }
+
+        @Override
+        public String toString() {
+            return "ScriptStats{name='" + name + "', calls=" + calls + ", errors=" + errors + ", reloads=" + reloads
+                    + ", averageMicros=" + getAverageMicros() + "}";
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 基于 Micrometer 的分布式锁指标
+ * <p>
+ * 1. lock.acquire（Timer，带直方图）：加锁耗时，标签 type / pattern / result（acquired、timeout）；
+ * 2. lock.contention（Counter）：首次尝试未获取到锁的加锁次数；lock.retries（Counter）：等待后的重试次数；
+ * 3. lock.hold（Timer，带直方图）：从获取到释放的持有时长，用于校准 keepMills；
+ * 4. lock.renewal（Counter）：续期结果，标签 result（renewed、failed、error）；
+ * 5. lock.lease.lost（Counter）：租约丢失次数。
+ * <p>
+ * pattern 标签由键归并而来：去掉公共前缀后，按 ":" 切分，含数字或过长的段替换为 "*"（如 lock:order:10086 -> lock:order:*）。
+ * 不同的模式数量超过上限后，新出现的模式统一记为 "other"，保证指标基数有界。
+ *
+ * @author javgo
+ * @create 2026-10-16 20:35
+ */
+public class MicrometerLockMetrics implements LockMetrics {
+
+    /**
+     * 超过模式数量上限后使用的模式
+     */
+    static final String OTHER_PATTERN = "other";
+
+    /**
+     * 不含数字的段超过该长度时同样视为变量（如哈希值）
+     */
+    private static final int MAX_SEGMENT_LENGTH = 32;
+
+    private final MeterRegistry registry;
+
+    private final int maxPatterns;
+
+    /**
+     * 已出现的模式
+     */
+    private final Set<String> patterns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 指标缓存，避免每次记录都经过 MeterRegistry 的查找。按 type -> pattern 两级查找，记录时不拼接缓存键
+     */
+    private final Map<String, Map<String, PatternMeters>> meters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> leaseLostCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> renewalCounters = new ConcurrentHashMap<>();
+
+    public MicrometerLockMetrics(MeterRegistry registry, int maxPatterns) {
+        this.registry = registry;
+        this.maxPatterns = maxPatterns;
+    }
+
+    @Override
+    public void recordAcquire(String type, String key, boolean acquired, int attempts, long waitNanos) {
+        PatternMeters patternMeters = meters(type, patternOf(key));
+        patternMeters.acquireTimer(acquired).record(waitNanos, TimeUnit.NANOSECONDS);
+        if (attempts > 1 || !acquired) {
+            patternMeters.contentionCounter().increment();
+        }
+        if (attempts > 1) {
+            patternMeters.retriesCounter().increment(attempts - 1);
+        }
+    }
+
+    @Override
+    public void recordHold(String type, String key, long holdNanos) {
+        meters(type, patternOf(key)).holdTimer().record(holdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRenewals(int renewed, int failed) {
+        if (renewed > 0) {
+            renewalCounter("renewed").increment(renewed);
+        }
+        if (failed > 0) {
+            renewalCounter("failed").increment(failed);
+        }
+    }
+
+    @Override
+    public void recordRenewalError(int leases) {
+        renewalCounter("error").increment(leases);
+    }
+
+    @Override
+    public void recordLeaseLost(String key) {
+        leaseLostCounters.computeIfAbsent(patternOf(key), pattern -> Counter.builder("lock.lease.lost")
+                .description("Leases lost before the holder released the lock")
+                .tag("pattern", pattern)
+                .register(registry)).increment();
+    }
+
+    /**
+     * 把键归并为模式，模式数量超过上限时返回 "other"
+     *
+     * @param key 锁的完整键
+     * @return 模式
+     */
+    String patternOf(String key) {
+        String pattern = toPattern(key);
+        if (patterns.contains(pattern)) {
+            return pattern;
+        }
+        // 并发时可能略微超出上限，不影响基数有界
+        if (patterns.size() >= maxPatterns) {
+            return OTHER_PATTERN;
+        }
+        patterns.add(pattern);
+        return pattern;
+    }
+
+    /**
+     * 去掉公共前缀，把含数字或过长的段替换为 "*"
+     *
+     * @param key 锁的完整键
+     * @return 模式
+     */
+    static String toPattern(String key) {
+        String name = key.startsWith(RedisKeyPrefix.BASE_PREFIX) ? key.substring(RedisKeyPrefix.BASE_PREFIX.length()) : key;
+        StringBuilder pattern = new StringBuilder(name.length());
+        int start = 0;
+        while (start <= name.length()) {
+            int end = name.indexOf(':', start);
+            if (end < 0) {
+                end = name.length();
+            }
+            if (start > 0) {
+                pattern.append(':');
+            }
+            if (isVariable(name, start, end)) {
+                pattern.append('*');
+            } else {
+                pattern.append(name, start, end);
+            }
+            start = end + 1;
+        }
+        return pattern.toString();
+    }
+
+    private static boolean isVariable(String name, int start, int end) {
+        if (end - start > MAX_SEGMENT_LENGTH) {
+            return true;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.isDigit(name.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PatternMeters meters(String type, String pattern) {
+        Map<String, PatternMeters> byPattern = meters.get(type);
+        if (byPattern == null) {
+            byPattern = meters.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        }
+        PatternMeters patternMeters = byPattern.get(pattern);
+        if (patternMeters == null) {
+            patternMeters = byPattern.computeIfAbsent(pattern, p -> new PatternMeters(type, p));
+        }
+        return patternMeters;
+    }
+
+    private Counter renewalCounter(String result) {
+        return renewalCounters.computeIfAbsent(result, r -> Counter.builder("lock.renewal")
+                .description("Lease renewal results")
+                .tag("result", r)
+                .register(registry));
+    }
+
+    /**
+     * 同一 type + pattern 下的指标，首次使用时注册。并发首次使用时可能重复注册，MeterRegistry 返回的是同一个指标
+     */
+    private final class PatternMeters {
+
+        private final String type;
+
+        private final String pattern;
+
+        private volatile Timer acquiredTimer;
+
+        private volatile Timer timeoutTimer;
+
+        private volatile Timer holdTimer;
+
+        private volatile Counter contentionCounter;
+
+        private volatile Counter retriesCounter;
+
+        private PatternMeters(String type, String pattern) {
+            this.type = type;
+            this.pattern = pattern;
+        }
+
+        private Timer acquireTimer(boolean acquired) {
+            Timer timer = acquired ? acquiredTimer : timeoutTimer;
+            if (timer == null) {
+                timer = Timer.builder("lock.acquire")
+                        .description("Time spent acquiring a distributed lock, including waiting")
+                        .tags("type", type, "pattern", pattern, "result", acquired ? "acquired" : "timeout")
+                        .publishPercentileHistogram()
+                        .register(registry);
+                if (acquired) {
+                    acquiredTimer = timer;
+                } else {
+                    timeoutTimer = timer;
+                }
+            }
+            return timer;
+        }
+
+        private Timer holdTimer() {
+            Timer timer = holdTimer;
+            if (timer == null) {
+                holdTimer = timer = Timer.builder("lock.hold")
+                        .description("Time a distributed lock was held")
+                        .tags("type", type, "pattern", pattern)
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+            return timer;
+        }
+
+        private Counter contentionCounter() {
+            Counter counter = contentionCounter;
+            if (counter == null) {
+                contentionCounter = counter = counter("lock.contention");
+            }
+            return counter;
+        }
+
+        private Counter retriesCounter() {
+            Counter counter = retriesCounter;
+            if (counter == null) {
+                retriesCounter = counter = counter("lock.retries");
+            }
+            return counter;
+        }
+
+        private Counter counter(String name) {
+            return Counter.builder(name)
+                    .tags("type", type, "pattern", pattern)
+                    .register(registry);
+        }
+    }
+}
@@ -1,79 +1,154 @@
 package cn.javgo.utils.distributed.impl;
 
+import cn.javgo.utils.distributed.AsyncDistributedLock;
+import cn.javgo.utils.distributed.LockHandle;
 import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisCallback;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import redis.clients.jedis.commands.JedisCommands;
-import redis.clients.jedis.params.SetParams;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.UUID;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Desc: 基于 Redis 的分布式锁服务实现
  * TIP：下面的日志级别根据实际情况调整
+ * <p>
+ * 加锁流程（本地锁表、等待与唤醒、租约、句柄）在本类中完成，锁状态的原子读写委托给 {@link LockBackend}，
+ * 默认为 {@link RedisLockBackend}，配置 lock.backend=memory 时为 {@link InMemoryLockBackend}。
  *
  * @author javgo
  * @create 2024-08-04 17:52
  */
 @Slf4j
 @Service
-public class RedisDistributedLockService extends AbstractDistributedLock {
+public class RedisDistributedLockService extends AbstractDistributedLock implements AsyncDistributedLock {
 
     /**
-     * 保存每个线程持有的锁的唯一标识符（UUID）。在释放锁时，通过 ThreadLocal 获取当前线程持有的锁标识，以确保只有持有该锁的线程才能释放锁，从而避免误删其他线程的锁。
-     * 1. 当获取锁成功时，将生成的 UUID 存入 ThreadLocal。
-     * 2. 释放锁时，从 ThreadLocal 中获取并校验锁标识，确保只有持有锁的线程才能执行释放操作。
+     * 兜底轮询间隔为该值时，等待时间由自适应退避计算
      */
-    private ThreadLocal<LinkedList<String>> lockFlagStack = ThreadLocal.withInitial(LinkedList::new);
+    private static final long ADAPTIVE_POLL = 0;
 
     /**
-     * 用于记录需要续期锁的定时任务。
+     * 保存每个线程通过 lock 系列方法持有的锁句柄。在释放锁时，通过 ThreadLocal 获取当前线程持有的锁句柄，以确保只有持有该锁的线程才能释放锁，从而避免误删其他线程的锁。
+     * 1. 当获取锁成功时，将锁句柄（携带持有者标识）压入栈顶，重入时同一把锁会有多个句柄。
+     * 2. 释放锁时，从栈顶开始取出该键最近一次加锁的句柄并凭句柄释放，确保只有持有锁的线程才能执行释放操作。
+     * <p>
+     * 只有兼容原有 lock / releaseLock 接口时才使用该 ThreadLocal，acquire 返回的句柄自身携带所有权，不依赖任何 ThreadLocal。
      */
-    private ThreadLocal<ScheduledFuture<?>> renewalFuture = new ThreadLocal<>();
+    private ThreadLocal<LinkedList<LockHandle>> lockFlagStack = ThreadLocal.withInitial(LinkedList::new);
 
     /**
-     * 官方提供的 Lua 解锁脚本, 确保脚本的原子性，以避免由于锁过期导致的误删其他线程持有的锁。
+     * 锁存储后端
      */
-    private static final String UNLOCK_LUA_SCRIPT;
+    @Autowired
+    private LockBackend lockBackend;
 
     /**
-     * Lua 脚本说明：
-     * 1. redis.call("get", KEYS[1]) == ARGV[1]：检查键 KEYS[1]（即锁的 key）对应的值是否等于 ARGV[1]（即锁的 UUID）。
-     * 2. redis.call("del", KEYS[1])：如果上述检查通过，删除该键（即释放锁）。
-     * 3. return 0：如果上述检查未通过，返回 0，表示未能释放锁。
+     * 租约看门狗，集中续期所有已持有的锁
      */
-    static {
-        UNLOCK_LUA_SCRIPT = "if redis.call(\"get\",KEYS[1]) == ARGV[1] " +
-                "then " +
-                "    return redis.call(\"del\",KEYS[1]) " +
-                "else " +
-                "    return 0 " +
-                "end ";
-    }
+    @Autowired
+    private LeaseWatchdog leaseWatchdog;
 
+    /**
+     * 锁等待队列，锁释放时通过发布订阅唤醒本地等待者
+     */
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private LockWaitQueue lockWaitQueue;
+
+    /**
+     * 锁指标，没有配置时不记录
+     */
+    @Autowired(required = false)
+    private LockMetrics lockMetrics = LockMetrics.NOOP;
+
+    /**
+     * 锁键的哈希标签策略，Redis Cluster 下使同一把锁的相关键位于同一槽位，没有配置时不加哈希标签
+     */
+    @Autowired(required = false)
+    private ClusterKeyStrategy clusterKeyStrategy = ClusterKeyStrategy.NONE;
+
+    /**
+     * 本地锁表，同一 JVM 内同一个键只有一个线程竞争 Redis 锁，其余线程在本地排队
+     */
+    private final LocalLockTable localLocks = new LocalLockTable();
+
+    /**
+     * 批量续期回调与租约丢失回调。看门狗按续期回调的实例对租约分批，所有租约必须共用同一个实例才能合并为一次批量续期
+     */
+    private final LeaseRenewer leaseRenewer = leases -> lockBackend.renew(leases);
+
+    private final LeaseLostListener leaseLostListener = this::onLeaseLost;
+
+    /**
+     * 同步加锁句柄的释放动作，所有句柄共用同一个实例，加锁时不再创建新的 lambda
+     */
+    private final Predicate<LockHandle> handleReleaser = this::releaseHandle;
+
+    /**
+     * 自适应退避的最小与最大等待时间（毫秒），以及记录持锁时间估计值的键数量上限
+     */
+    @Value("${lock.backoff.baseMillis:10}")
+    private long backoffBaseMillis = 10;
+
+    @Value("${lock.backoff.maxMillis:1000}")
+    private long backoffMaxMillis = 1000;
+
+    @Value("${lock.backoff.maxKeys:10000}")
+    private int backoffMaxKeys = 10000;
+
+    /**
+     * 自适应退避，tryLock 等待期间按键的持锁时间估计值计算带抖动的兜底等待时间
+     */
+    private AdaptiveBackoff backoff;
+
+    /**
+     * 异步接口的线程数，线程只执行单次 Redis 调用，不会因等待锁而挂起
+     */
+    @Value("${lock.async.threads:2}")
+    private int asyncThreads;
 
     /**
-     * 定时任务线程池
+     * 异步接口的定时器，驱动异步加锁的重试与超时
      */
-    private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private ScheduledExecutorService asyncTimer;
+
+    @PostConstruct
+    public void init() {
+        backoff = new AdaptiveBackoff(backoffBaseMillis, backoffMaxMillis, backoffMaxKeys);
+        asyncTimer = Executors.newScheduledThreadPool(Math.max(asyncThreads, 1), r -> {
+            Thread thread = new Thread(r, "lock-async-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        asyncTimer.shutdownNow();
+    }
 
     /**
      * 锁的加锁过程如下：
-     * 1. 调用 lock 方法检查是否可以直接获取锁, 如果获取失败，根据重试次数和间隔时间进行重试。
-     * 2. 调用 setRedisLock 方法使用 Redis 的 SET 命令尝试设置锁。将锁的键、值（UUID）和过期时间传递给 Redis，使用 NX 参数确保只有当键不存在时才能设置，使用 PX 参数设置过期时间。
+     * 1. 调用 lock 方法检查是否可以直接获取锁, 如果获取失败，在等待预算（retryTimes * sleepMillis）内等待锁释放后重试。
+     * 2. 调用 trySetRedisLock 方法执行可重入加锁脚本。锁不存在或已由当前线程持有时持有次数加 1，同一线程嵌套加锁只需一次网络往返，不会与自己死锁。
+     * 3. 等待时挂在本地等待队列上，锁释放时由发布订阅通知立即唤醒；每次最多等待 sleepMillis，以兜底丢失的通知和自然过期的锁。
+     * 4. 竞争 Redis 锁之前先获取本地锁，同一 JVM 内同一个键只有一个线程访问 Redis，其余线程在本地公平排队等待交接（本地锁同样可重入）。
+     * 5. 加锁成功后把锁句柄压入当前线程的锁句柄栈，供 releaseLock 使用。
      *
      * @param key         锁的键
      * @param expire      锁的过期时间（毫秒）
@@ -83,183 +158,353 @@ public class RedisDistributedLockService extends AbstractDistributedLock {
      */
     @Override
     public boolean lock(String key, long expire, int retryTimes, long sleepMillis) {
+        LockHandle handle = doAcquire(key, expire, Math.max(retryTimes, 0) * sleepMillis, sleepMillis);
+        if (handle == null) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            // 回退逻辑
+            handleLockFailure(key);
+            return false;
+        }
+        lockFlagStack.get().push(handle);
+        return true;
+    }
+
+    /**
+     * 获取锁句柄。整个过程不读写任何 ThreadLocal，等待只使用 java.util.concurrent 的同步器（不使用 synchronized），
+     * 在虚拟线程上等待时不会钉住（pin）载体线程。同一线程对同一个键可重入。
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    @Override
+    public LockHandle acquire(String key, long expire, long waitMillis) {
+        return doAcquire(key, expire, waitMillis, getDefaultSleepMillis());
+    }
+
+    @Override
+    public LockHandle acquire(String key, long expire, long waitMillis, long sleepMillis) {
+        return doAcquire(key, expire, waitMillis, sleepMillis > 0 ? sleepMillis : getDefaultSleepMillis());
+    }
+
+    /**
+     * 在截止时间内获取锁句柄。与 acquire 的区别在于兜底等待时间：不使用固定的重试间隔，而是由 {@link AdaptiveBackoff}
+     * 按该键最近的持锁时间（EWMA）计算并加入去相关抖动，多个等待者不会同步重试，持锁时间长的键也不会被频繁轮询。
+     * 锁释放通知仍会立即唤醒等待者。
+     *
+     * @param key 锁的键
+     * @param waitTimeout 最长等待时间，ZERO 表示只尝试一次
+     * @param lease 锁的租期
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    @Override
+    public LockHandle tryLock(String key, Duration waitTimeout, Duration lease) {
+        return doAcquire(key, lease.toMillis(), waitTimeout.toMillis(), ADAPTIVE_POLL);
+    }
+
+    /**
+     * 加锁主流程：本地锁 -> Redis 锁 -> 等待释放通知后重试 -> 登记租约
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒）
+     * @param pollMillis 兜底轮询间隔（毫秒），为 ADAPTIVE_POLL 时使用自适应退避
+     * @return 锁句柄，未获取到锁或等待期间被中断时返回 null（被中断时保留中断状态）
+     */
+    private LockHandle doAcquire(String key, long expire, long waitMillis, long pollMillis) {
         long startTime = System.nanoTime();
-        // 尝试获取锁
-        boolean result = setRedisLock(key, expire);
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        // 持有者标识：JVM 标识 + 线程 ID，同一线程重入时持有者相同
+        String token = LockTokens.currentThread();
+        // 完整键只拼接一次，后续加锁、等待、指标与租约共用
+        String fullKey = toFullKey(key);
+        // 尝试次数，本地锁需要排队时同样计为一次竞争
+        int attempts = 1;
+        // 先获取本地锁，本地等待时间同样计入等待预算
+        try {
+            if (!localLocks.tryAcquire(key, token, 0)) {
+                attempts++;
+                if (waitMillis <= 0 || !localLocks.tryAcquire(key, token, waitMillis)) {
+                    log.warn("Thread {} failed to acquire local lock {} in {} ms", Thread.currentThread().getId(), key, (System.nanoTime() - startTime) / 1_000_000);
+                    lockMetrics.recordAcquire(LockMetrics.TYPE_MUTEX, fullKey, false, attempts, System.nanoTime() - startTime);
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error("Thread {} interrupted while waiting for local lock {}", Thread.currentThread().getId(), key, e);
+            Thread.currentThread().interrupt(); // 恢复中断状态
+            return null;
+        }
+        // 允许等待时先登记等待者再尝试获取锁，尝试失败之后、开始等待之前到达的释放通知不会丢失
+        LockWaitQueue.Registration registration = waitMillis > 0 ? lockWaitQueue.register(fullKey) : null;
+        long[] lockResult = trySetRedisLock(key, fullKey, token, expire);
 
-        // 如果获取锁失败，按照传入的重试次数进行重试
-        while ((!result) && retryTimes-- > 0) {
+        // 如果获取锁失败，等待锁释放通知或兜底轮询间隔后重试，直到超过等待截止时间
+        long remainingMillis;
+        long delayMillis = 0;
+        while (lockResult[0] == 0 && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            delayMillis = pollMillis == ADAPTIVE_POLL ? backoff.nextDelay(fullKey, delayMillis) : pollMillis;
             try {
-                log.debug("Thread {} failed to acquire lock {}, retrying... remaining retries: {}", Thread.currentThread().getId(), key, retryTimes);
-                Thread.sleep(sleepMillis);
+                if (log.isDebugEnabled()) {
+                    log.debug("Thread {} failed to acquire lock {}, waiting {} ms... remaining wait time: {} ms", Thread.currentThread().getId(), key, Math.min(remainingMillis, delayMillis), remainingMillis);
+                }
+                lockWaitQueue.await(registration, Math.min(remainingMillis, delayMillis));
             } catch (InterruptedException e) {
-                log.error("Thread {} interrupted while retrying to acquire lock {}", Thread.currentThread().getId(), key, e);
+                log.error("Thread {} interrupted while waiting to acquire lock {}", Thread.currentThread().getId(), key, e);
                 Thread.currentThread().interrupt(); // 恢复中断状态
-                return false;
+                localLocks.release(key, token);
+                lockMetrics.recordAcquire(LockMetrics.TYPE_MUTEX, fullKey, false, attempts, System.nanoTime() - startTime);
+                return null;
             }
-            result = setRedisLock(key, expire);
+            registration = lockWaitQueue.register(fullKey);
+            lockResult = trySetRedisLock(key, fullKey, token, expire);
+            attempts++;
+        }
+        // 加锁成功或等待超时，撤销最后一次尝试前的登记
+        if (registration != null) {
+            lockWaitQueue.cancel(registration);
         }
 
         long endTime = System.nanoTime();
-        if (result) {
-            log.info("Thread {} acquired lock {} in {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
-            // 加锁成功，开启定时任务，定时续期锁
-            startRenewalTask(key, expire);
-        } else {
-            log.warn("Thread {} failed to acquire lock {} after {} retries in {} ms", Thread.currentThread().getId(), key, retryTimes, (endTime - startTime) / 1_000_000);
-            // 回退逻辑
-            handleLockFailure(key);
+        long holdCount = lockResult[0];
+        lockMetrics.recordAcquire(LockMetrics.TYPE_MUTEX, fullKey, holdCount > 0, attempts, endTime - startTime);
+        if (holdCount == 0) {
+            log.warn("Thread {} failed to acquire lock {} after waiting {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
+            // 交还本地锁，让本地下一个等待者接手
+            localLocks.release(key, token);
+            return null;
         }
-        return result;
+        // 多参数日志会创建参数数组并装箱，热路径上先判断级别
+        if (log.isDebugEnabled()) {
+            log.debug("Thread {} acquired lock {} in {} ms, hold count {}, fencing token {}", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000, holdCount, lockResult[1]);
+        }
+        // 首次加锁时登记租约，由看门狗定时续期；重入时沿用已有租约
+        if (holdCount == 1) {
+            startRenewalTask(fullKey, token, expire);
+        }
+        return new LockHandle(key, token, lockResult[1], handleReleaser);
+    }
+
+    /**
+     * 一次性获取多把锁。键去重后按字典序排列，通过一次多键加锁脚本原子地全部获取；任意一把被其他持有者持有时一把都不获取，
+     * 并在冲突的那把锁上等待释放通知后整体重试。所有调用方按同一顺序加锁，不会出现交叉持有导致的死锁。
+     * <p>
+     * 持有者标识与 acquire 相同，已通过 acquire / lock 持有其中某把锁的线程可以重入。多键加锁直接由 Redis 仲裁，不经过本地锁表。
+     * 多键句柄代表多把锁，不提供围栏令牌。
+     *
+     * @param keys 锁的键集合
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 代表全部锁的句柄（键为逗号拼接的排序后键），未获取到全部锁时返回 null
+     */
+    @Override
+    public LockHandle lockAll(Collection<String> keys, long expire, long waitMillis) {
+        List<String> sortedKeys = new ArrayList<>(new TreeSet<>(keys));
+        if (sortedKeys.isEmpty()) {
+            throw new IllegalArgumentException("keys must not be empty");
+        }
+        String lockName = String.join(",", sortedKeys);
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        String token = LockTokens.currentThread();
+
+        long[] holdCounts = trySetRedisLocks(sortedKeys, token, expire);
+        int attempts = 1;
+        long remainingMillis;
+        while (holdCounts[0] == 0 && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            // 先在冲突的那把锁上登记再重试，重试失败后才等待，两者之间到达的释放通知不会丢失
+            String conflictKey = sortedKeys.get((int) Math.max(holdCounts[1] - 1, 0));
+            LockWaitQueue.Registration registration = lockWaitQueue.register(toFullKey(conflictKey));
+            holdCounts = trySetRedisLocks(sortedKeys, token, expire);
+            attempts++;
+            if (holdCounts[0] > 0) {
+                lockWaitQueue.cancel(registration);
+                break;
+            }
+            try {
+                log.debug("Thread {} failed to acquire locks {} because of {}, waiting... remaining wait time: {} ms", Thread.currentThread().getId(), lockName, conflictKey, remainingMillis);
+                lockWaitQueue.await(registration, Math.min(remainingMillis, getDefaultSleepMillis()));
+            } catch (InterruptedException e) {
+                log.error("Thread {} interrupted while waiting to acquire locks {}", Thread.currentThread().getId(), lockName, e);
+                Thread.currentThread().interrupt(); // 恢复中断状态
+                lockMetrics.recordAcquire(LockMetrics.TYPE_MULTI, getKeyPrefix() + lockName, false, attempts, System.nanoTime() - startTime);
+                return null;
+            }
+        }
+
+        long endTime = System.nanoTime();
+        lockMetrics.recordAcquire(LockMetrics.TYPE_MULTI, getKeyPrefix() + lockName, holdCounts[0] > 0, attempts, endTime - startTime);
+        if (holdCounts[0] == 0) {
+            log.warn("Thread {} failed to acquire locks {} after waiting {} ms", Thread.currentThread().getId(), lockName, (endTime - startTime) / 1_000_000);
+            return null;
+        }
+        log.debug("Thread {} acquired locks {} in {} ms", Thread.currentThread().getId(), lockName, (endTime - startTime) / 1_000_000);
+        for (int i = 0; i < sortedKeys.size(); i++) {
+            if (holdCounts[i] == 1) {
+                startRenewalTask(toFullKey(sortedKeys.get(i)), token, expire);
+            }
+        }
+        return new LockHandle(lockName, token, handle -> {
+            lockMetrics.recordHold(LockMetrics.TYPE_MULTI, getKeyPrefix() + lockName, handle.getHeldNanos());
+            return releaseRedisLocks(sortedKeys, handle.getToken());
+        });
+    }
+
+    /**
+     * 使用指定的持有者标识执行多键加锁脚本
+     *
+     * @param keys 排序后的锁的键
+     * @param token 持有者标识
+     * @param expire 锁的超时时间，单位为毫秒
+     * @return 成功时为与 keys 一一对应的持有次数；失败时第一个元素为 0，第二个元素为冲突键的下标（从 1 开始，访问 Redis 出错时为 0）
+     */
+    private long[] trySetRedisLocks(List<String> keys, String token, long expire) {
+        try {
+            List<String> fullKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                fullKeys.add(toFullKey(key));
+            }
+            long[] holdCounts = lockBackend.tryLockAll(fullKeys, token, expire);
+            if (holdCounts.length > 0) {
+                return holdCounts;
+            }
+        } catch (Exception e) {
+            log.error("Thread {} failed to set locks {} due to unexpected error", Thread.currentThread().getId(), keys, e);
+        }
+        return new long[]{0, 0};
     }
 
     /**
-     * 设置 Redis 分布式锁
+     * 使用指定的持有者标识执行可重入加锁脚本
      *
      * @param key 锁的键名
+     * @param fullKey 锁的完整键
+     * @param token 持有者标识
      * @param expire 锁的超时时间，单位为毫秒
-     * @return 如果成功设置锁，则返回true；否则返回false
+     * @return {加锁后的持有次数, 围栏令牌}，持有次数为 0 表示锁由其他持有者持有（或访问 Redis 出错）
      */
-    private boolean setRedisLock(String key, long expire) {
+    private long[] trySetRedisLock(String key, String fullKey, String token, long expire) {
         try {
-            // 尝试设置 Redis 锁，并返回操作结果
-            String result = redisTemplate.execute((RedisCallback<String>) connection -> {
-                JedisCommands commands = (JedisCommands) connection.getNativeConnection();
-                String uuid = UUID.randomUUID().toString();
-                lockFlagStack.get().push(uuid);
-
-                // 使用 NX（Not eXist）和 PX（eXpire）参数设置锁
-                // NX 确保锁不存在时才设置，PX 设置锁的过期时间为 expire 毫秒
-                SetParams params = new SetParams().nx().px(expire);
-                return commands.set(getKeyPrefix() + key, uuid, params);
-            });
+            // 执行可重入加锁，并返回持有次数与围栏令牌
+            long[] result = lockBackend.tryLock(fullKey, token, expire);
 
             // 判断是否成功设置锁
-            boolean success = !StringUtils.isEmpty(result);
-            if (success) {
-                log.debug("Thread {} set lock {} with expire time {} ms", Thread.currentThread().getId(), key, expire);
-            } else {
-                log.debug("Thread {} failed to set lock {}", Thread.currentThread().getId(), key);
+            if (result[0] > 0) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Thread {} set lock {} with expire time {} ms, hold count {}, fencing token {}", Thread.currentThread().getId(), key, expire, result[0], result[1]);
+                }
+                return result;
             }
-            return success;
+            log.debug("Thread {} failed to set lock {}", Thread.currentThread().getId(), key);
         } catch (Exception e) {
             log.error("Thread {} failed to set lock {} due to unexpected error", Thread.currentThread().getId(), key, e);
         }
         // 如果执行到此处，设置锁失败
-        return false;
+        return new long[]{0, 0};
     }
 
-
     /**
-     * 启动锁续期任务：当线程获得锁后，需要定期续期以保持锁的有效性此方法启动一个定时任务，以确保锁在过期前被续期。
+     * 启动锁续期：当线程获得锁后，把租约（携带锁标识）登记到看门狗，由看门狗在锁过期前统一续期。
+     * 锁标识由加锁方显式传入，看门狗线程中无需也不能读取加锁线程的 ThreadLocal。
      *
-     * @param key 锁的唯一标识符
+     * @param fullKey 锁的完整键
+     * @param token 锁标识
      * @param expire 锁的过期时间，以毫秒为单位
      */
-    private void startRenewalTask(String key, long expire) {
-        // 创建一个 Runnable 任务，用于锁的自动续期
-        Runnable renewalTask = () -> {
-            // 获取当前线程的锁值
-            String lockValue = lockFlagStack.get().peek();
-            // 检查锁值是否有效
-            if (!StringUtils.isEmpty(lockValue)) {
-                // 尝试续期锁
-                boolean success = renewLock(key, lockValue, expire);
-                if (success) {
-                    log.info("Thread {} renewed lock {} for {} ms", Thread.currentThread().getId(), key, expire);
-                } else {
-                    log.warn("Thread {} failed to renew lock {}", Thread.currentThread().getId(), key);
-                }
-            }
-        };
-        // 安排一个定时执行的续期任务，首次延时和后续续期间隔为锁过期时间的一半
-        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(renewalTask, expire / 2, expire / 2, TimeUnit.MILLISECONDS);
-        // 保存续期任务的未来引用，以便将来可能的取消操作
-        renewalFuture.set(future);
+    private void startRenewalTask(String fullKey, String token, long expire) {
+        leaseWatchdog.register(new Lease(fullKey, token, expire, leaseRenewer, leaseLostListener));
     }
 
-
     /**
-     * 续租锁，该方法会检查当前线程持有的锁标识是否仍然有效，如果有效，则续期锁的过期时间。
+     * 租约丢失回调：锁已过期或被其他持有者获取，临界区不再受保护
      *
-     * @param key 锁的唯一标识
-     * @param value 锁的值，用于验证锁的所有权
-     * @param expire 锁的过期时间，单位为毫秒
-     * @return 续租是否成功
+     * @param lease 丢失的租约
      */
-    private boolean renewLock(String key, String value, long expire) {
-        try {
-            // 使用 RedisTemplate 执行 Redis 操作
-            String result = redisTemplate.execute((RedisCallback<String>) connection -> {
-                // 获取 Jedis 连接
-                JedisCommands commands = (JedisCommands) connection.getNativeConnection();
-                // 检查并更新锁
-                if (value.equals(commands.get(getKeyPrefix() + key))) {
-                    // 设置锁的参数，包括仅当锁存在时更新和设置过期时间
-                    SetParams params = new SetParams().xx().px(expire);
-                    // 更新锁的过期时间
-                    return commands.set(getKeyPrefix() + key, value, params);
-                }
-                // 如果锁已被其他人持有，则不进行更新
-                return null;
-            });
-            // 检查续租操作的结果
-            return !StringUtils.isEmpty(result);
-        } catch (Exception e) {
-            log.error("Thread {} failed to renew lock {} due to unexpected error", Thread.currentThread().getId(), key, e);
-        }
-        // 续租失败返回 false
-        return false;
-    }
-
-    private void handleLockFailure(String key) {
-        // 这里可以添加回退逻辑，例如返回默认值或抛出自定义异常
-        throw new RuntimeException("Failed to acquire lock: " + key);
+    private void onLeaseLost(Lease lease) {
+        log.error("Lock {} is no longer held by token {}, the critical section is unprotected", lease.getKey(), lease.getToken());
     }
 
     /**
      * 锁的释放过程如下：
-     * 1. 调用 releaseLock 方法从 ThreadLocal 中获取当前线程持有的锁标识（UUID）,如果获取不到锁标识，说明当前线程没有持有锁，直接返回 false。
-     * 2. 调用 Lua 脚本检查并释放锁，确保操作的原子性。如果 Lua 脚本执行成功，返回 true；否则，返回 false。
+     * 1. 调用 releaseLock 方法从 ThreadLocal 中取出当前线程对该键最近一次加锁的句柄,如果获取不到锁句柄，说明当前线程没有持有锁，直接返回 false。
+     * 2. 调用 Lua 脚本检查并释放锁，确保操作的原子性。重入时只减少持有次数，持有次数归零才真正删除锁。
+     * 3. 最后交还本地锁，本地排队的下一个线程接手竞争 Redis 锁。
      *
      * @param key 锁的键
      * @return 是否释放锁
      */
     @Override
     public boolean releaseLock(String key) {
-        // 停止续订任务
-        stopRenewalTask();
-        long startTime = System.nanoTime();
-        try {
-            // 获取锁标识并移除
-            String releaseValue = lockFlagStack.get().poll();
-            if (StringUtils.isEmpty(releaseValue)) {
-                log.warn("Thread {} has no lock flag to release for key {}", Thread.currentThread().getId(), key);
-                return false;
+        // 从栈顶开始查找该键最近一次加锁的句柄并移除
+        LockHandle handle = null;
+        Iterator<LockHandle> iterator = lockFlagStack.get().iterator();
+        while (iterator.hasNext()) {
+            LockHandle candidate = iterator.next();
+            if (candidate.getKey().equals(key)) {
+                iterator.remove();
+                handle = candidate;
+                break;
             }
+        }
+        if (handle == null) {
+            log.warn("Thread {} has no lock flag to release for key {}", Thread.currentThread().getId(), key);
+            return false;
+        }
+        return handle.release();
+    }
 
-            // key
-            List<String> keys = new ArrayList<>();
-            keys.add(getKeyPrefix() + key);
-
-            // value
-            List<String> args = new ArrayList<>();
-            args.add(releaseValue);
+    /**
+     * 同步加锁得到的句柄的释放动作：释放 Redis 锁并交还本地锁
+     *
+     * @param handle 锁句柄
+     * @return 是否释放锁
+     */
+    private boolean releaseHandle(LockHandle handle) {
+        String fullKey = toFullKey(handle.getKey());
+        lockMetrics.recordHold(LockMetrics.TYPE_MUTEX, fullKey, handle.getHeldNanos());
+        backoff.recordHold(fullKey, handle.getHeldNanos());
+        try {
+            return releaseRedisLock(handle.getKey(), fullKey, handle.getToken());
+        } finally {
+            // 无论 Redis 释放结果如何，都交还本地锁（重入时只减少本地持有次数），交接给本地下一个等待者
+            localLocks.release(handle.getKey(), handle.getToken());
+        }
+    }
 
-            // 执行 Lua 脚本原子释放锁
-            Long result = redisTemplate.execute((RedisCallback<Long>) connection -> {
-                JedisCommands commands = (JedisCommands) connection.getNativeConnection();
-                return (Long) commands.eval(UNLOCK_LUA_SCRIPT, keys, args);
-            });
-            boolean success = result != null && result > 0;
+    /**
+     * 通过 Lua 脚本释放指定持有者持有的 Redis 锁，持有次数归零时停止续期
+     *
+     * @param key 锁的键
+     * @param fullKey 锁的完整键
+     * @param token 持有者标识
+     * @return 是否释放锁（重入的内层释放同样返回 true）
+     */
+    private boolean releaseRedisLock(String key, String fullKey, String token) {
+        long startTime = System.nanoTime();
+        // 先停止续期，避免锁删除后看门狗续期失败被误判为租约丢失；若只是重入的内层释放，再重新登记
+        Lease lease = leaseWatchdog.unregister(fullKey, token);
+        if (lease != null && lease.isLost()) {
+            log.error("Thread {} lost lock {} before releasing it", Thread.currentThread().getId(), key);
+        }
+        try {
+            // 由后端原子释放锁
+            long remaining = lockBackend.unlock(fullKey, token);
+            if (remaining > 0 && lease != null && !lease.isLost()) {
+                leaseWatchdog.register(lease);
+            }
 
             long endTime = System.nanoTime();
-            if (success) {
-                log.info("Thread {} successfully released lock {} in {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
+            if (remaining >= 0) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Thread {} successfully released lock {} in {} ms, remaining hold count {}", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000, remaining);
+                }
             } else {
                 log.error("Thread {} failed to release lock {} in {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
             }
-            return success;
+            return remaining >= 0;
         } catch (Exception e) {
             log.error("Thread {} failed to release lock {} due to unexpected error", Thread.currentThread().getId(), key, e);
         }
@@ -267,17 +512,137 @@ public class RedisDistributedLockService extends AbstractDistributedLock {
     }
 
     /**
-     * 用于停止续期任务。在锁被释放后，停止续期任务，避免不必要的资源开销。
+     * 通过一次多键解锁脚本释放多把锁，持有次数归零的锁停止续期
+     *
+     * @param keys 排序后的锁的键
+     * @param token 持有者标识
+     * @return 是否全部释放
      */
-    private void stopRenewalTask() {
-        // 获取已计划的任务
-        ScheduledFuture<?> future = renewalFuture.get();
-        // 如果任务存在，则取消任务的执行
-        if (future != null) {
-            future.cancel(false);
-            // 从存储中移除已取消的任务
-            renewalFuture.remove();
+    private boolean releaseRedisLocks(List<String> keys, String token) {
+        List<String> fullKeys = new ArrayList<>(keys.size());
+        List<Lease> leases = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            String fullKey = toFullKey(key);
+            fullKeys.add(fullKey);
+            Lease lease = leaseWatchdog.unregister(fullKey, token);
+            if (lease != null && lease.isLost()) {
+                log.error("Thread {} lost lock {} before releasing it", Thread.currentThread().getId(), key);
+            }
+            leases.add(lease);
+        }
+        try {
+            long[] replies = lockBackend.unlockAll(fullKeys, token);
+            boolean released = true;
+            for (int i = 0; i < keys.size(); i++) {
+                long remaining = replies[i];
+                Lease lease = leases.get(i);
+                if (remaining > 0 && lease != null && !lease.isLost()) {
+                    leaseWatchdog.register(lease);
+                }
+                released &= remaining >= 0;
+            }
+            if (released) {
+                log.debug("Thread {} successfully released locks {}", Thread.currentThread().getId(), keys);
+            } else {
+                log.error("Thread {} failed to release locks {}", Thread.currentThread().getId(), keys);
+            }
+            return released;
+        } catch (Exception e) {
+            log.error("Thread {} failed to release locks {} due to unexpected error", Thread.currentThread().getId(), keys, e);
         }
+        return false;
+    }
+
+    /**
+     * 异步加锁：每次尝试在异步定时器线程中执行一次 Redis 调用，失败后登记到锁等待队列，
+     * 由锁释放通知或兜底超时（默认重试间隔）触发下一次尝试，期间不占用任何线程。
+     * <p>
+     * 异步加锁没有线程归属，每次调用使用独立的持有者标识（不可重入），不经过本地锁表，直接由 Redis 仲裁。
+     * 调用方取消返回的 Future（或 orTimeout 超时）后不再重试；取消前已获取的锁立即释放。
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 加锁成功时完成为锁句柄，等待超时时完成为 null
+     */
+    @Override
+    public CompletableFuture<LockHandle> lockAsync(String key, long expire, long waitMillis) {
+        CompletableFuture<LockHandle> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        String token = LockTokens.next();
+        asyncTimer.execute(() -> attemptLockAsync(key, token, expire, deadline, result));
+        return result;
+    }
+
+    /**
+     * 异步加锁的单次尝试
+     *
+     * @param key 锁的键
+     * @param token 本次加锁使用的锁标识
+     * @param expire 锁的过期时间（毫秒）
+     * @param deadline 等待截止时间（System.nanoTime）
+     * @param result 加锁结果
+     */
+    private void attemptLockAsync(String key, String token, long expire, long deadline, CompletableFuture<LockHandle> result) {
+        // 调用方已取消或超时，不再尝试
+        if (result.isDone()) {
+            return;
+        }
+        String fullKey = toFullKey(key);
+        // 先登记等待者再尝试加锁，尝试失败之后、开始等待之前到达的释放通知不会丢失
+        LockWaitQueue.Registration registration = lockWaitQueue.register(fullKey);
+        try {
+            long[] lockResult = trySetRedisLock(key, fullKey, token, expire);
+            if (lockResult[0] > 0) {
+                lockWaitQueue.cancel(registration);
+                startRenewalTask(fullKey, token, expire);
+                // 异步加锁没有占用本地锁，释放时只需释放 Redis 锁
+                LockHandle lockHandle = new LockHandle(key, token, lockResult[1], handle -> {
+                    lockMetrics.recordHold(LockMetrics.TYPE_MUTEX, fullKey, handle.getHeldNanos());
+                    backoff.recordHold(fullKey, handle.getHeldNanos());
+                    return releaseRedisLock(key, fullKey, handle.getToken());
+                });
+                // 加锁期间调用方已取消或超时，句柄不会再被释放，立即释放锁并注销租约
+                if (!result.complete(lockHandle)) {
+                    log.warn("Lock {} acquired asynchronously after the caller gave up, releasing it", key);
+                    lockHandle.release();
+                }
+                return;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                log.warn("Failed to acquire lock {} asynchronously before deadline", key);
+                lockWaitQueue.cancel(registration);
+                result.complete(null);
+                return;
+            }
+            lockWaitQueue.awaitAsync(registration, Math.min(remainingMillis, getDefaultSleepMillis()), asyncTimer)
+                    .thenRunAsync(() -> attemptLockAsync(key, token, expire, deadline, result), asyncTimer);
+        } catch (Exception e) {
+            lockWaitQueue.cancel(registration);
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 异步释放锁，在异步定时器线程中执行释放脚本
+     *
+     * @param handle 加锁时得到的锁句柄
+     * @return 是否成功释放锁
+     */
+    @Override
+    public CompletableFuture<Boolean> releaseAsync(LockHandle handle) {
+        return CompletableFuture.supplyAsync(handle::release, asyncTimer);
+    }
+
+    /**
+     * 锁的完整键：前缀 + 按哈希标签策略处理后的键
+     *
+     * @param key 锁的键
+     * @return 锁的完整键
+     */
+    private String toFullKey(String key) {
+        return getKeyPrefix() + clusterKeyStrategy.tag(key);
     }
 
     @Override
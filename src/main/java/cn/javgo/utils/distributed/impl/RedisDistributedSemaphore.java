@@ -0,0 +1,295 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.DistributedSemaphore;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 基于 Redis 的分布式信号量实现
+ * <p>
+ * 信号量以 Redis ZSET 存储：member 为许可的持有者标识，score 为该许可的过期时间（Redis 服务器时间，毫秒）。
+ * 1. 获取许可时先清理已过期的许可，剩余数量小于许可总数时加入新的许可，整个过程在一个 Lua 脚本中完成；
+ * 2. 过期时间统一取 Redis 服务器时间，不受各 JVM 时钟偏差影响；
+ * 3. 许可登记到租约看门狗，由批量续期脚本推后 score，持有者崩溃时许可在租期结束后自动回收；
+ * 4. 归还许可时发布释放通知，唤醒一个等待者。
+ *
+ * @author javgo
+ * @create 2026-10-16 16:45
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "lock.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisDistributedSemaphore implements DistributedSemaphore {
+
+    /**
+     * 获取许可 Lua 脚本
+     * 1. KEYS[1]：信号量的 key；ARGV[1]：许可总数；ARGV[2]：租期（毫秒）；ARGV[3]：持有者标识。
+     * 2. 清理已过期的许可后，持有数量小于许可总数时以"当前时间 + 租期"为 score 加入许可，返回 1；否则返回 0。
+     * 3. 信号量 key 的过期时间不短于最长的许可，空闲的信号量会自动删除。
+     */
+    static final String ACQUIRE_LUA_SCRIPT = "local time = redis.call(\"time\") " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "redis.call(\"zremrangebyscore\", KEYS[1], \"-inf\", now) " +
+            "if redis.call(\"zcard\", KEYS[1]) >= tonumber(ARGV[1]) then " +
+            "    return 0 " +
+            "end " +
+            "redis.call(\"zadd\", KEYS[1], now + tonumber(ARGV[2]), ARGV[3]) " +
+            "if redis.call(\"pttl\", KEYS[1]) < tonumber(ARGV[2]) then " +
+            "    redis.call(\"pexpire\", KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 1 ";
+
+    /**
+     * 归还许可 Lua 脚本
+     * 1. KEYS[1]：信号量的 key；ARGV[1]：持有者标识；ARGV[2]：锁释放通知频道。
+     * 2. 许可存在时移除并发布释放通知，返回 1；许可已过期被回收时返回 0。
+     */
+    static final String RELEASE_LUA_SCRIPT = "if redis.call(\"zrem\", KEYS[1], ARGV[1]) == 1 then " +
+            "    redis.call(\"publish\", ARGV[2], KEYS[1]) " +
+            "    return 1 " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * 批量续期 Lua 脚本
+     * 1. KEYS[i]：第 i 个许可所在信号量的 key；ARGV[2i-1]：第 i 个许可的持有者标识；ARGV[2i]：第 i 个许可的租期（毫秒）。
+     * 2. 许可仍存在时把 score 推后到"当前时间 + 租期"，结果为 1；许可已过期被回收时结果为 0。
+     */
+    static final String BATCH_RENEW_LUA_SCRIPT = "local time = redis.call(\"time\") " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local results = {} " +
+            "for i = 1, #KEYS do " +
+            "    local score = redis.call(\"zscore\", KEYS[i], ARGV[2 * i - 1]) " +
+            "    if score and tonumber(score) > now then " +
+            "        redis.call(\"zadd\", KEYS[i], \"XX\", now + tonumber(ARGV[2 * i]), ARGV[2 * i - 1]) " +
+            "        if redis.call(\"pttl\", KEYS[i]) < tonumber(ARGV[2 * i]) then " +
+            "            redis.call(\"pexpire\", KEYS[i], ARGV[2 * i]) " +
+            "        end " +
+            "        results[i] = 1 " +
+            "    else " +
+            "        results[i] = 0 " +
+            "    end " +
+            "end " +
+            "return results ";
+
+    /**
+     * 统计未过期许可数量 Lua 脚本，KEYS[1]：信号量的 key
+     */
+    static final String HOLD_COUNT_LUA_SCRIPT = "local time = redis.call(\"time\") " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "return redis.call(\"zcount\", KEYS[1], \"(\" .. now, \"+inf\") ";
+
+    /**
+     * Lua 脚本执行器，以 EVALSHA 执行脚本，Jedis 与 Lettuce 驱动均可使用
+     */
+    @Autowired
+    private LuaScriptRegistry scriptRegistry;
+
+    /**
+     * 租约看门狗，与分布式锁共用
+     */
+    @Autowired
+    private LeaseWatchdog leaseWatchdog;
+
+    /**
+     * 锁等待队列，许可归还时通过发布订阅唤醒本地等待者
+     */
+    @Autowired
+    private LockWaitQueue lockWaitQueue;
+
+    /**
+     * 槽位路由，Redis Cluster 下不同信号量的许可分布在多个槽位，批量续期按槽位拆分
+     */
+    @Autowired(required = false)
+    private ClusterSlotRouter slotRouter = ClusterSlotRouter.standalone();
+
+    /**
+     * 锁指标，没有配置时不记录
+     */
+    @Autowired(required = false)
+    private LockMetrics lockMetrics = LockMetrics.NOOP;
+
+    /**
+     * 兜底轮询间隔（毫秒），许可过期被回收时不会发布通知，等待者最迟在该间隔后重试
+     */
+    @Value("${lock.sleepMillis}")
+    private long sleepMillis;
+
+    /**
+     * 批量续期回调与租约丢失回调，所有许可共用同一个实例，看门狗才能把它们合并为一次批量续期
+     */
+    private final LeaseRenewer leaseRenewer = this::renewLeases;
+
+    private final LeaseLostListener leaseLostListener = this::onLeaseLost;
+
+    /**
+     * 登记信号量脚本，由脚本注册表在启动后统一预载
+     */
+    @PostConstruct
+    public void registerScripts() {
+        scriptRegistry.register("semaphore.acquire", ACQUIRE_LUA_SCRIPT);
+        scriptRegistry.register("semaphore.release", RELEASE_LUA_SCRIPT);
+        scriptRegistry.register("semaphore.renew", BATCH_RENEW_LUA_SCRIPT);
+        scriptRegistry.register("semaphore.holdCount", HOLD_COUNT_LUA_SCRIPT);
+    }
+
+    /**
+     * 获取一个许可：执行获取脚本，失败时等待许可归还通知或兜底轮询间隔后重试，成功后登记租约
+     *
+     * @param key 信号量的键
+     * @param permits 许可总数
+     * @param expire 许可的租期（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 许可句柄，在等待时间内未获取到许可或等待期间被中断时返回 null（被中断时保留中断状态）
+     */
+    @Override
+    public LockHandle acquire(String key, int permits, long expire, long waitMillis) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        // 每个许可使用独立的持有者标识
+        String token = LockTokens.next();
+        // 允许等待时先登记等待者再尝试，尝试失败之后、开始等待之前到达的许可归还通知不会丢失
+        LockWaitQueue.Registration registration = waitMillis > 0 ? lockWaitQueue.register(getKeyPrefix() + key) : null;
+        boolean acquired = tryAcquire(key, permits, token, expire);
+        int attempts = 1;
+
+        long remainingMillis;
+        while (!acquired && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            try {
+                log.debug("Thread {} failed to acquire permit of semaphore {}, waiting... remaining wait time: {} ms", Thread.currentThread().getId(), key, remainingMillis);
+                lockWaitQueue.await(registration, Math.min(remainingMillis, sleepMillis));
+            } catch (InterruptedException e) {
+                log.error("Thread {} interrupted while waiting for permit of semaphore {}", Thread.currentThread().getId(), key, e);
+                Thread.currentThread().interrupt(); // 恢复中断状态
+                return null;
+            }
+            registration = lockWaitQueue.register(getKeyPrefix() + key);
+            acquired = tryAcquire(key, permits, token, expire);
+            attempts++;
+        }
+        // 获取成功或等待超时，撤销最后一次尝试前的登记
+        if (registration != null) {
+            lockWaitQueue.cancel(registration);
+        }
+
+        long endTime = System.nanoTime();
+        lockMetrics.recordAcquire(LockMetrics.TYPE_SEMAPHORE, getKeyPrefix() + key, acquired, attempts, endTime - startTime);
+        if (!acquired) {
+            log.warn("Thread {} failed to acquire permit of semaphore {} after waiting {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
+            return null;
+        }
+        log.debug("Thread {} acquired permit of semaphore {} in {} ms", Thread.currentThread().getId(), key, (endTime - startTime) / 1_000_000);
+        leaseWatchdog.register(new Lease(getKeyPrefix() + key, token, expire, leaseRenewer, leaseLostListener));
+        return new LockHandle(key, token, this::releaseHandle);
+    }
+
+    @Override
+    public int holdCount(String key) {
+        List<String> keys = Collections.singletonList(getKeyPrefix() + key);
+        Long result = scriptRegistry.execute(HOLD_COUNT_LUA_SCRIPT, ReturnType.INTEGER, keys, Collections.emptyList());
+        return result == null ? 0 : result.intValue();
+    }
+
+    /**
+     * 执行一次获取许可脚本
+     *
+     * @param key 信号量的键
+     * @param permits 许可总数
+     * @param token 持有者标识
+     * @param expire 许可的租期（毫秒）
+     * @return 是否获取到许可，访问 Redis 出错时返回 false
+     */
+    private boolean tryAcquire(String key, int permits, String token, long expire) {
+        try {
+            List<String> keys = Collections.singletonList(getKeyPrefix() + key);
+            List<String> args = Arrays.asList(String.valueOf(permits), String.valueOf(expire), token);
+            Long result = scriptRegistry.execute(ACQUIRE_LUA_SCRIPT, ReturnType.INTEGER, keys, args);
+            return result != null && result == 1;
+        } catch (Exception e) {
+            log.error("Thread {} failed to acquire permit of semaphore {} due to unexpected error", Thread.currentThread().getId(), key, e);
+        }
+        return false;
+    }
+
+    /**
+     * 看门狗回调的批量续期，一批许可只发送一次批量续期脚本；Cluster 部署时按槽位拆分，每个槽位一次脚本调用
+     *
+     * @param leases 到期需要续期的租约
+     * @return 与 leases 一一对应的续期结果
+     */
+    private boolean[] renewLeases(List<Lease> leases) {
+        List<String> keys = new ArrayList<>(leases.size());
+        for (Lease lease : leases) {
+            keys.add(lease.getKey());
+        }
+        boolean[] results = new boolean[leases.size()];
+        slotRouter.executeBySlot(keys, (groupKeys, indexes) -> {
+            List<String> args = new ArrayList<>(indexes.size() * 2);
+            for (int index : indexes) {
+                Lease lease = leases.get(index);
+                args.add(lease.getToken());
+                args.add(String.valueOf(lease.getLeaseMillis()));
+            }
+            List<Object> replies = scriptRegistry.execute(BATCH_RENEW_LUA_SCRIPT, ReturnType.MULTI, groupKeys, args);
+            for (int i = 0; i < indexes.size() && replies != null; i++) {
+                results[indexes.get(i)] = Long.valueOf(1L).equals(replies.get(i));
+            }
+            return null;
+        });
+        return results;
+    }
+
+    private void onLeaseLost(Lease lease) {
+        log.error("Permit {} of semaphore {} has expired, the bulkhead is no longer enforced for its holder", lease.getToken(), lease.getKey());
+    }
+
+    /**
+     * 归还许可
+     *
+     * @param handle 许可句柄
+     * @return 是否归还成功，许可已过期被回收时返回 false
+     */
+    private boolean releaseHandle(LockHandle handle) {
+        String key = handle.getKey();
+        lockMetrics.recordHold(LockMetrics.TYPE_SEMAPHORE, getKeyPrefix() + key, handle.getHeldNanos());
+        Lease lease = leaseWatchdog.unregister(getKeyPrefix() + key, handle.getToken());
+        if (lease != null && lease.isLost()) {
+            log.error("Thread {} lost permit of semaphore {} before releasing it", Thread.currentThread().getId(), key);
+        }
+        try {
+            List<String> keys = Collections.singletonList(getKeyPrefix() + key);
+            List<String> args = Arrays.asList(handle.getToken(), RedisKeyPrefix.LOCK_RELEASE_CHANNEL);
+            Long result = scriptRegistry.execute(RELEASE_LUA_SCRIPT, ReturnType.INTEGER, keys, args);
+            boolean released = result != null && result == 1;
+            if (released) {
+                log.debug("Thread {} released permit of semaphore {}", Thread.currentThread().getId(), key);
+            } else {
+                log.error("Thread {} failed to release permit of semaphore {}", Thread.currentThread().getId(), key);
+            }
+            return released;
+        } catch (Exception e) {
+            log.error("Thread {} failed to release permit of semaphore {} due to unexpected error", Thread.currentThread().getId(), key, e);
+        }
+        return false;
+    }
+
+    public String getKeyPrefix() {
+        return RedisKeyPrefix.SEMAPHORE_KEY;
+    }
+}
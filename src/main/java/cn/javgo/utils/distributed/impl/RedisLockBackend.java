@@ -0,0 +1,368 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: Redis 锁存储后端（默认），锁状态保存在 Redis Hash 中，全部操作通过 Lua 脚本原子完成。
+ * <p>
+ * 脚本在创建时登记到 {@link LuaScriptRegistry}，启动后预载并以 EVALSHA 执行，只依赖 Spring Data Redis 的 RedisConnection，Jedis 与 Lettuce 驱动均可使用
+ * （Lettuce 默认共享一条多路复用连接，并发加锁不再占用连接池中的连接）。
+ * 锁删除时脚本向 {@link RedisKeyPrefix#LOCK_RELEASE_CHANNEL} 发布被释放的键，由 {@link LockWaitQueue} 唤醒各 JVM 中的等待者。
+ * Redis Cluster 下围栏令牌计数器键通过 {@link ClusterKeyStrategy#sameSlot(String)} 与锁键落在同一槽位，多键操作由 {@link ClusterSlotRouter} 按槽位拆分。
+ *
+ * @author javgo
+ * @create 2026-10-16 19:15
+ */
+@Component
+@ConditionalOnProperty(name = "lock.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisLockBackend implements LockBackend {
+
+    /**
+     * 可重入加锁 Lua 脚本。锁以 Redis Hash 存储：field 为持有者标识，value 为持有次数；field "fence" 为本次持有的围栏令牌。
+     * 1. KEYS[1]：锁的 key；KEYS[2]：该锁的围栏令牌计数器 key；ARGV[1]：租期（毫秒）；ARGV[2]：持有者标识；ARGV[3]：计数器过期时间（毫秒）。
+     * 2. 锁不存在，或锁已由同一持有者持有时，持有次数加 1 并重置过期时间。
+     * 3. 首次加锁时对计数器执行 INCR 得到新的围栏令牌并记录在锁中，同时刷新计数器的过期时间，重入时沿用已有令牌。
+     * 计数器不存在（首次使用或长期未加锁已过期）时先以 Redis 服务器当前时间（微秒）作为初始值，
+     * 单个键每秒发放的令牌远少于一百万个，过期重建后的令牌仍大于过期前发放的令牌，计数器不必永久保留。
+     * 4. 返回 {持有次数, 围栏令牌}，持有次数为 1 表示首次加锁，大于 1 表示重入，0 表示锁由其他持有者持有。
+     */
+    static final String REENTRANT_LOCK_LUA_SCRIPT = "if (redis.call(\"exists\", KEYS[1]) == 0) " +
+            "    or (redis.call(\"hexists\", KEYS[1], ARGV[2]) == 1) then " +
+            "    local count = redis.call(\"hincrby\", KEYS[1], ARGV[2], 1) " +
+            "    local fence = redis.call(\"hget\", KEYS[1], \"fence\") " +
+            "    if not fence then " +
+            "        if redis.call(\"exists\", KEYS[2]) == 0 then " +
+            "            local now = redis.call(\"time\") " +
+            "            redis.call(\"set\", KEYS[2], now[1] .. string.format(\"%06d\", now[2])) " +
+            "        end " +
+            "        fence = redis.call(\"incr\", KEYS[2]) " +
+            "        redis.call(\"pexpire\", KEYS[2], ARGV[3]) " +
+            "        redis.call(\"hset\", KEYS[1], \"fence\", fence) " +
+            "    end " +
+            "    redis.call(\"pexpire\", KEYS[1], ARGV[1]) " +
+            "    return {count, tonumber(fence)} " +
+            "end " +
+            "return {0, 0} ";
+
+    /**
+     * 可重入解锁 Lua 脚本, 确保脚本的原子性，以避免由于锁过期导致的误删其他线程持有的锁。
+     * 1. KEYS[1]：锁的 key；ARGV[1]：持有者标识；ARGV[2]：锁释放通知频道。
+     * 2. 锁不由该持有者持有时返回 -1，表示未能释放锁。
+     * 3. 持有次数减 1，仍大于 0 时返回剩余持有次数（重入的内层释放）。
+     * 4. 持有次数归零时删除锁，并向 ARGV[2] 频道发布被释放的锁的 key 唤醒等待者，返回 0。
+     */
+    static final String UNLOCK_LUA_SCRIPT = "if redis.call(\"hexists\", KEYS[1], ARGV[1]) == 0 then " +
+            "    return -1 " +
+            "end " +
+            "local count = redis.call(\"hincrby\", KEYS[1], ARGV[1], -1) " +
+            "if count > 0 then " +
+            "    return count " +
+            "end " +
+            "redis.call(\"del\", KEYS[1]) " +
+            "redis.call(\"publish\", ARGV[2], KEYS[1]) " +
+            "return 0 ";
+
+    /**
+     * 批量续期 Lua 脚本，一次调用完成 N 把锁的"比较并续期"，没有检查与续期之间的竞态。
+     * 1. KEYS[i]：第 i 把锁的 key；ARGV[2i-1]：第 i 把锁的持有者标识；ARGV[2i]：第 i 把锁的租期（毫秒）。
+     * 2. 锁仍由该持有者持有时执行 pexpire 重置过期时间，结果为 1；否则不做任何修改，结果为 0。
+     * 3. 返回与 KEYS 一一对应的结果数组。
+     */
+    static final String BATCH_RENEW_LUA_SCRIPT = "local results = {} " +
+            "for i = 1, #KEYS do " +
+            "    if redis.call(\"hexists\", KEYS[i], ARGV[2 * i - 1]) == 1 then " +
+            "        results[i] = redis.call(\"pexpire\", KEYS[i], ARGV[2 * i]) " +
+            "    else " +
+            "        results[i] = 0 " +
+            "    end " +
+            "end " +
+            "return results ";
+
+    /**
+     * 多键加锁 Lua 脚本，要么全部加锁，要么一把都不加。
+     * 1. KEYS：按统一顺序排列的锁 key；ARGV[1]：租期（毫秒）；ARGV[2]：持有者标识。
+     * 2. 先检查全部 key，任意一把由其他持有者持有时不做任何修改，返回 {0, 冲突 key 的下标}。
+     * 3. 全部可以获取时，逐把持有次数加 1 并重置过期时间，返回与 KEYS 一一对应的持有次数数组（均大于 0）。
+     */
+    static final String MULTI_LOCK_LUA_SCRIPT = "for i = 1, #KEYS do " +
+            "    if redis.call(\"exists\", KEYS[i]) == 1 and redis.call(\"hexists\", KEYS[i], ARGV[2]) == 0 then " +
+            "        return {0, i} " +
+            "    end " +
+            "end " +
+            "local counts = {} " +
+            "for i = 1, #KEYS do " +
+            "    counts[i] = redis.call(\"hincrby\", KEYS[i], ARGV[2], 1) " +
+            "    redis.call(\"pexpire\", KEYS[i], ARGV[1]) " +
+            "end " +
+            "return counts ";
+
+    /**
+     * 多键解锁 Lua 脚本，逐把执行与 UNLOCK_LUA_SCRIPT 相同的释放逻辑。
+     * 1. KEYS：锁 key；ARGV[1]：持有者标识；ARGV[2]：锁释放通知频道。
+     * 2. 返回与 KEYS 一一对应的结果：-1 表示不由该持有者持有，0 表示已删除并发布释放通知，大于 0 表示剩余持有次数。
+     */
+    static final String MULTI_UNLOCK_LUA_SCRIPT = "local results = {} " +
+            "for i = 1, #KEYS do " +
+            "    if redis.call(\"hexists\", KEYS[i], ARGV[1]) == 0 then " +
+            "        results[i] = -1 " +
+            "    else " +
+            "        local count = redis.call(\"hincrby\", KEYS[i], ARGV[1], -1) " +
+            "        if count <= 0 then " +
+            "            redis.call(\"del\", KEYS[i]) " +
+            "            redis.call(\"publish\", ARGV[2], KEYS[i]) " +
+            "            count = 0 " +
+            "        end " +
+            "        results[i] = count " +
+            "    end " +
+            "end " +
+            "return results ";
+
+    /**
+     * 预先编码的常量：锁键前缀、围栏令牌键前缀与锁释放通知频道，加锁释放时不再重复编码
+     */
+    private static final byte[] LOCK_KEY_BYTES = RedisKeyPrefix.LOCK_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LOCK_FENCE_KEY_BYTES = RedisKeyPrefix.LOCK_FENCE_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] RELEASE_CHANNEL_BYTES = RedisKeyPrefix.LOCK_RELEASE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 围栏令牌计数器的过期时间（毫秒），每次发放令牌时刷新，长期不再加锁的键的计数器随之过期，不会无限增长
+     */
+    static final long FENCE_TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final byte[] FENCE_TTL_BYTES = String.valueOf(FENCE_TTL_MILLIS).getBytes(StandardCharsets.UTF_8);
+
+    private final LuaScriptRegistry scriptRegistry;
+
+    /**
+     * 槽位路由，Cluster 部署时多键加锁、解锁与批量续期按槽位拆分为多次脚本调用
+     */
+    private final ClusterSlotRouter slotRouter;
+
+    /**
+     * 最近一次使用的租期及其编码，同一应用的租期通常只有少数几种，命中时不再编码
+     */
+    private volatile EncodedLease lastLease = new EncodedLease(-1);
+
+    public RedisLockBackend(LuaScriptRegistry scriptRegistry) {
+        this(scriptRegistry, ClusterSlotRouter.standalone());
+    }
+
+    @Autowired
+    public RedisLockBackend(LuaScriptRegistry scriptRegistry, ClusterSlotRouter slotRouter) {
+        this.scriptRegistry = scriptRegistry;
+        this.slotRouter = slotRouter;
+        scriptRegistry.register("lock.acquire", REENTRANT_LOCK_LUA_SCRIPT);
+        scriptRegistry.register("lock.release", UNLOCK_LUA_SCRIPT);
+        scriptRegistry.register("lock.renew", BATCH_RENEW_LUA_SCRIPT);
+        scriptRegistry.register("lock.acquireAll", MULTI_LOCK_LUA_SCRIPT);
+        scriptRegistry.register("lock.releaseAll", MULTI_UNLOCK_LUA_SCRIPT);
+    }
+
+    @Override
+    public long[] tryLock(String key, String owner, long leaseMillis) {
+        byte[] keyBytes = encode(key);
+        List<Object> reply = scriptRegistry.execute(REENTRANT_LOCK_LUA_SCRIPT, ReturnType.MULTI, 2,
+                keyBytes, getFenceKey(keyBytes), encodeLease(leaseMillis), encode(owner), FENCE_TTL_BYTES);
+        return toLongArray(reply);
+    }
+
+    @Override
+    public long unlock(String key, String owner) {
+        Long reply = scriptRegistry.execute(UNLOCK_LUA_SCRIPT, ReturnType.INTEGER, 1,
+                encode(key), encode(owner), RELEASE_CHANNEL_BYTES);
+        return reply == null ? -1 : reply;
+    }
+
+    /**
+     * Cluster 部署时键可能分布在多个槽位，按槽位升序逐组加锁；某一组冲突时释放已获取的组，保持要么全部获取、要么一把都不获取
+     */
+    @Override
+    public long[] tryLockAll(List<String> keys, String owner, long leaseMillis) {
+        List<String> args = Arrays.asList(String.valueOf(leaseMillis), owner);
+        List<List<Integer>> groups = slotRouter.groupBySlot(keys);
+        if (groups.size() == 1) {
+            return toLongArray(scriptRegistry.execute(MULTI_LOCK_LUA_SCRIPT, ReturnType.MULTI, keys, args));
+        }
+        long[] holdCounts = new long[keys.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            List<Integer> indexes = groups.get(g);
+            long[] reply = toLongArray(scriptRegistry.execute(MULTI_LOCK_LUA_SCRIPT, ReturnType.MULTI,
+                    ClusterSlotRouter.select(keys, indexes), args));
+            if (reply[0] == 0) {
+                for (int acquired = 0; acquired < g; acquired++) {
+                    scriptRegistry.execute(MULTI_UNLOCK_LUA_SCRIPT, ReturnType.MULTI,
+                            ClusterSlotRouter.select(keys, groups.get(acquired)), Arrays.asList(owner, RedisKeyPrefix.LOCK_RELEASE_CHANNEL));
+                }
+                // 冲突键的下标换算为在 keys 中的下标
+                return new long[]{0, reply[1] == 0 ? 0 : indexes.get((int) reply[1] - 1) + 1};
+            }
+            for (int i = 0; i < reply.length; i++) {
+                holdCounts[indexes.get(i)] = reply[i];
+            }
+        }
+        return holdCounts;
+    }
+
+    @Override
+    public long[] unlockAll(List<String> keys, String owner) {
+        List<String> args = Arrays.asList(owner, RedisKeyPrefix.LOCK_RELEASE_CHANNEL);
+        long[] results = new long[keys.size()];
+        slotRouter.executeBySlot(keys, (groupKeys, indexes) -> {
+            long[] reply = toLongArray(scriptRegistry.execute(MULTI_UNLOCK_LUA_SCRIPT, ReturnType.MULTI, groupKeys, args));
+            for (int i = 0; i < reply.length; i++) {
+                results[indexes.get(i)] = reply[i];
+            }
+            return null;
+        });
+        return results;
+    }
+
+    @Override
+    public boolean[] renew(List<Lease> leases) {
+        return renew(scriptRegistry, slotRouter, leases);
+    }
+
+    /**
+     * 批量续期，互斥锁与读写锁共用。一批租约只发送一次批量续期脚本，即每个周期每批只有一次网络往返；
+     * Cluster 部署时按槽位拆分，每个槽位一次脚本调用，不同节点并行发送
+     *
+     * @param scriptRegistry Lua 脚本注册表
+     * @param slotRouter 槽位路由
+     * @param leases 需要续期的租约
+     * @return 与 leases 一一对应的续期结果
+     */
+    static boolean[] renew(LuaScriptRegistry scriptRegistry, ClusterSlotRouter slotRouter, List<Lease> leases) {
+        List<String> keys = new ArrayList<>(leases.size());
+        for (Lease lease : leases) {
+            keys.add(lease.getKey());
+        }
+        boolean[] results = new boolean[leases.size()];
+        slotRouter.executeBySlot(keys, (groupKeys, indexes) -> {
+            List<String> args = new ArrayList<>(indexes.size() * 2);
+            for (int index : indexes) {
+                Lease lease = leases.get(index);
+                args.add(lease.getToken());
+                args.add(String.valueOf(lease.getLeaseMillis()));
+            }
+            List<Object> replies = scriptRegistry.execute(BATCH_RENEW_LUA_SCRIPT, ReturnType.MULTI, groupKeys, args);
+            for (int i = 0; i < indexes.size() && replies != null; i++) {
+                results[indexes.get(i)] = Long.valueOf(1L).equals(replies.get(i));
+            }
+            return null;
+        });
+        return results;
+    }
+
+    /**
+     * 锁的围栏令牌计数器键，位于 LOCK_FENCE_KEY 之下，与锁的键一一对应，Redis Cluster 下与锁键位于同一槽位：
+     * 锁键有哈希标签时为 LOCK_FENCE_KEY + 去掉 LOCK_KEY 前缀的锁键，没有时为 LOCK_FENCE_KEY + {锁键}
+     *
+     * @param key 锁的完整键
+     * @return 计数器的完整键
+     */
+    static String getFenceKey(String key) {
+        String slotKey = ClusterKeyStrategy.sameSlot(key);
+        if (!slotKey.equals(key)) {
+            return RedisKeyPrefix.LOCK_FENCE_KEY + slotKey;
+        }
+        return RedisKeyPrefix.LOCK_FENCE_KEY + (key.startsWith(RedisKeyPrefix.LOCK_KEY) ? key.substring(RedisKeyPrefix.LOCK_KEY.length()) : key);
+    }
+
+    /**
+     * 由锁键的编码直接拼出围栏令牌键的编码，与 {@link #getFenceKey(String)} 结果一致
+     *
+     * @param key 锁的完整键的编码
+     * @return 计数器的完整键的编码
+     */
+    static byte[] getFenceKey(byte[] key) {
+        if (indexOf(key, (byte) '}') < 0) {
+            byte[] fenceKey = Arrays.copyOf(LOCK_FENCE_KEY_BYTES, LOCK_FENCE_KEY_BYTES.length + key.length + 2);
+            fenceKey[LOCK_FENCE_KEY_BYTES.length] = '{';
+            System.arraycopy(key, 0, fenceKey, LOCK_FENCE_KEY_BYTES.length + 1, key.length);
+            fenceKey[fenceKey.length - 1] = '}';
+            return fenceKey;
+        }
+        int offset = startsWith(key, LOCK_KEY_BYTES) ? LOCK_KEY_BYTES.length : 0;
+        byte[] fenceKey = Arrays.copyOf(LOCK_FENCE_KEY_BYTES, LOCK_FENCE_KEY_BYTES.length + key.length - offset);
+        System.arraycopy(key, offset, fenceKey, LOCK_FENCE_KEY_BYTES.length, key.length - offset);
+        return fenceKey;
+    }
+
+    /**
+     * 查找 ASCII 字符，UTF-8 多字节字符的各字节均不小于 0x80，不会误匹配
+     */
+    private static int indexOf(byte[] bytes, byte b) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 租期参数的编码，与最近一次相同时复用
+     */
+    private byte[] encodeLease(long leaseMillis) {
+        EncodedLease lease = lastLease;
+        if (lease.millis != leaseMillis) {
+            lease = new EncodedLease(leaseMillis);
+            lastLease = lease;
+        }
+        return lease.bytes;
+    }
+
+    /**
+     * 编码后的租期参数，不可变，多线程共享
+     */
+    private static final class EncodedLease {
+
+        private final long millis;
+
+        private final byte[] bytes;
+
+        private EncodedLease(long millis) {
+            this.millis = millis;
+            this.bytes = encode(String.valueOf(millis));
+        }
+    }
+
+    private static long[] toLongArray(List<Object> reply) {
+        if (reply == null) {
+            throw new IllegalStateException("Lua script returned no reply");
+        }
+        long[] values = new long[reply.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Long) reply.get(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,119 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Desc: 基于单个独立 Redis 实例的锁节点，锁的值为持有者标识的字符串（不可重入）。
+ * 只依赖 Spring Data Redis 的 RedisConnection，节点的连接工厂可以是 Jedis 或 Lettuce。
+ *
+ * @author javgo
+ * @create 2026-10-16 18:10
+ */
+public class RedisLockNode implements LockNode {
+
+    /**
+     * 续期 Lua 脚本，KEYS[1]：锁的 key；ARGV[1]：持有者标识；ARGV[2]：租期（毫秒）
+     */
+    static final String EXTEND_LUA_SCRIPT = "if redis.call(\"get\", KEYS[1]) == ARGV[1] then " +
+            "    return redis.call(\"pexpire\", KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * 批量续期 Lua 脚本，一次调用完成 N 把锁的"比较并续期"。
+     * KEYS[i]：第 i 把锁的 key；ARGV[2i-1]：第 i 把锁的持有者标识；ARGV[2i]：第 i 把锁的租期（毫秒）；返回与 KEYS 一一对应的结果数组
+     */
+    static final String BATCH_EXTEND_LUA_SCRIPT = "local results = {} " +
+            "for i = 1, #KEYS do " +
+            "    if redis.call(\"get\", KEYS[i]) == ARGV[2 * i - 1] then " +
+            "        results[i] = redis.call(\"pexpire\", KEYS[i], ARGV[2 * i]) " +
+            "    else " +
+            "        results[i] = 0 " +
+            "    end " +
+            "end " +
+            "return results ";
+
+    /**
+     * 解锁 Lua 脚本，KEYS[1]：锁的 key；ARGV[1]：持有者标识
+     */
+    static final String UNLOCK_LUA_SCRIPT = "if redis.call(\"get\", KEYS[1]) == ARGV[1] then " +
+            "    return redis.call(\"del\", KEYS[1]) " +
+            "end " +
+            "return 0 ";
+
+    private final String name;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final LuaScriptRegistry scriptRegistry;
+
+    public RedisLockNode(String name, RedisConnectionFactory connectionFactory) {
+        this.name = name;
+        this.redisTemplate = new RedisTemplate<>();
+        this.redisTemplate.setConnectionFactory(connectionFactory);
+        this.redisTemplate.afterPropertiesSet();
+        this.scriptRegistry = new LuaScriptRegistry(redisTemplate);
+        scriptRegistry.register("redlock.extend", EXTEND_LUA_SCRIPT);
+        scriptRegistry.register("redlock.extend_batch", BATCH_EXTEND_LUA_SCRIPT);
+        scriptRegistry.register("redlock.release", UNLOCK_LUA_SCRIPT);
+    }
+
+    @Override
+    public boolean tryLock(String key, String token, long leaseMillis) {
+        Boolean reply = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                key.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8),
+                Expiration.milliseconds(leaseMillis), RedisStringCommands.SetOption.ifAbsent()));
+        return Boolean.TRUE.equals(reply);
+    }
+
+    @Override
+    public boolean extend(String key, String token, long leaseMillis) {
+        return eval(EXTEND_LUA_SCRIPT, key, Arrays.asList(token, String.valueOf(leaseMillis)));
+    }
+
+    /**
+     * 一批租约只发送一次批量续期脚本
+     */
+    @Override
+    public boolean[] extendAll(List<Lease> leases) {
+        List<String> keys = new ArrayList<>(leases.size());
+        List<String> args = new ArrayList<>(leases.size() * 2);
+        for (Lease lease : leases) {
+            keys.add(lease.getKey());
+            args.add(lease.getToken());
+            args.add(String.valueOf(lease.getLeaseMillis()));
+        }
+        List<Object> replies = scriptRegistry.execute(BATCH_EXTEND_LUA_SCRIPT, ReturnType.MULTI, keys, args);
+        boolean[] results = new boolean[leases.size()];
+        for (int i = 0; i < results.length && replies != null; i++) {
+            results[i] = Long.valueOf(1L).equals(replies.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public boolean unlock(String key, String token) {
+        return eval(UNLOCK_LUA_SCRIPT, key, Collections.singletonList(token));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    private boolean eval(String script, String key, List<String> args) {
+        Long reply = scriptRegistry.execute(script, ReturnType.INTEGER, Collections.singletonList(key), args);
+        return reply != null && reply == 1;
+    }
+}
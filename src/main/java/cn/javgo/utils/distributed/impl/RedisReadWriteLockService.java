@@ -0,0 +1,379 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.DistributedReadWriteLock;
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 基于 Redis 的分布式读写锁实现
+ * <p>
+ * 锁以 Redis Hash 存储：field "mode" 为当前模式（read / write），其余 field 为持有者标识，value 为该持有者的持有次数。
+ * 写优先时，等待中的写者会设置一个带短过期时间的"写等待"标记键，标记存在期间新的读者不再进入，已持有读锁的读者仍可重入。
+ * <p>
+ * 续期沿用租约看门狗与批量续期脚本（持有者 field 存在即续期整个键）。持有者进程崩溃时其 field 会残留，
+ * 最多阻塞写者一个租期：写等待标记阻止新读者进入，其余读者释放后键不再被续期，过期后写者即可获得锁。
+ *
+ * @author javgo
+ * @create 2026-10-16 15:45
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "lock.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisReadWriteLockService implements DistributedReadWriteLock {
+
+    /**
+     * 读锁 Lua 脚本
+     * 1. KEYS[1]：锁的 key；KEYS[2]：写等待标记 key；ARGV[1]：租期（毫秒）；ARGV[2]：持有者标识。
+     * 2. 锁不存在且没有写者等待时，以读模式加锁；读模式下新的读者在没有写者等待时共享加锁，已持有的读者直接重入。
+     * 3. 写模式下只有写锁持有者自己可以获取读锁（重入计数共用）。
+     * 4. 返回加锁后的持有次数，0 表示未获取到锁。
+     */
+    static final String READ_LOCK_LUA_SCRIPT = "local mode = redis.call(\"hget\", KEYS[1], \"mode\") " +
+            "if mode == false then " +
+            "    if redis.call(\"exists\", KEYS[2]) == 1 then " +
+            "        return 0 " +
+            "    end " +
+            "    redis.call(\"hset\", KEYS[1], \"mode\", \"read\") " +
+            "    redis.call(\"hset\", KEYS[1], ARGV[2], 1) " +
+            "    redis.call(\"pexpire\", KEYS[1], ARGV[1]) " +
+            "    return 1 " +
+            "end " +
+            "local held = redis.call(\"hexists\", KEYS[1], ARGV[2]) == 1 " +
+            "if (mode == \"read\" and (held or redis.call(\"exists\", KEYS[2]) == 0)) or (mode == \"write\" and held) then " +
+            "    local count = redis.call(\"hincrby\", KEYS[1], ARGV[2], 1) " +
+            "    if redis.call(\"pttl\", KEYS[1]) < tonumber(ARGV[1]) then " +
+            "        redis.call(\"pexpire\", KEYS[1], ARGV[1]) " +
+            "    end " +
+            "    return count " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * 写锁 Lua 脚本
+     * 1. KEYS[1]：锁的 key；KEYS[2]：写等待标记 key；ARGV[1]：租期（毫秒）；ARGV[2]：持有者标识；ARGV[3]：写等待标记的过期时间（毫秒），0 表示不启用写优先。
+     * 2. 锁不存在时以写模式加锁，并清除自己设置的写等待标记；写模式下写锁持有者直接重入。
+     * 3. 其他情况下未获取到锁，启用写优先时设置写等待标记，阻止新的读者进入。
+     * 4. 返回加锁后的持有次数，0 表示未获取到锁。
+     */
+    static final String WRITE_LOCK_LUA_SCRIPT = "local mode = redis.call(\"hget\", KEYS[1], \"mode\") " +
+            "if mode == false then " +
+            "    redis.call(\"hset\", KEYS[1], \"mode\", \"write\") " +
+            "    redis.call(\"hset\", KEYS[1], ARGV[2], 1) " +
+            "    redis.call(\"pexpire\", KEYS[1], ARGV[1]) " +
+            "    if redis.call(\"get\", KEYS[2]) == ARGV[2] then " +
+            "        redis.call(\"del\", KEYS[2]) " +
+            "    end " +
+            "    return 1 " +
+            "end " +
+            "if mode == \"write\" and redis.call(\"hexists\", KEYS[1], ARGV[2]) == 1 then " +
+            "    local count = redis.call(\"hincrby\", KEYS[1], ARGV[2], 1) " +
+            "    redis.call(\"pexpire\", KEYS[1], ARGV[1]) " +
+            "    return count " +
+            "end " +
+            "if tonumber(ARGV[3]) > 0 then " +
+            "    redis.call(\"set\", KEYS[2], ARGV[2], \"px\", ARGV[3]) " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * 读写锁解锁 Lua 脚本
+     * 1. KEYS[1]：锁的 key；ARGV[1]：持有者标识；ARGV[2]：锁释放通知频道。
+     * 2. 锁不由该持有者持有时返回 -1。
+     * 3. 持有次数减 1，仍大于 0 时返回剩余持有次数；归零时移除该持有者。
+     * 4. 最后一个持有者离开时删除锁，并发布锁释放通知唤醒等待者，返回 0。
+     */
+    static final String RW_UNLOCK_LUA_SCRIPT = "if redis.call(\"hexists\", KEYS[1], ARGV[1]) == 0 then " +
+            "    return -1 " +
+            "end " +
+            "local count = redis.call(\"hincrby\", KEYS[1], ARGV[1], -1) " +
+            "if count > 0 then " +
+            "    return count " +
+            "end " +
+            "redis.call(\"hdel\", KEYS[1], ARGV[1]) " +
+            "if redis.call(\"hlen\", KEYS[1]) <= 1 then " +
+            "    redis.call(\"del\", KEYS[1]) " +
+            "    redis.call(\"publish\", ARGV[2], KEYS[1]) " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * 清除写等待标记 Lua 脚本，写者放弃等待时调用，只清除自己设置的标记
+     * 1. KEYS[1]：写等待标记 key；ARGV[1]：持有者标识。
+     */
+    static final String CLEAR_WRITE_INTENT_LUA_SCRIPT = "if redis.call(\"get\", KEYS[1]) == ARGV[1] then " +
+            "    return redis.call(\"del\", KEYS[1]) " +
+            "end " +
+            "return 0 ";
+
+    /**
+     * Lua 脚本执行器，以 EVALSHA 执行脚本，Jedis 与 Lettuce 驱动均可使用
+     */
+    @Autowired
+    private LuaScriptRegistry scriptRegistry;
+
+    /**
+     * 租约看门狗，集中续期所有已持有的锁
+     */
+    @Autowired
+    private LeaseWatchdog leaseWatchdog;
+
+    /**
+     * 锁等待队列，锁释放时通过发布订阅唤醒本地等待者
+     */
+    @Autowired
+    private LockWaitQueue lockWaitQueue;
+
+    /**
+     * 锁指标，没有配置时不记录
+     */
+    @Autowired(required = false)
+    private LockMetrics lockMetrics = LockMetrics.NOOP;
+
+    /**
+     * 锁键的哈希标签策略与槽位路由，Redis Cluster 下锁键与写等待标记键位于同一槽位，批量续期按槽位拆分
+     */
+    @Autowired(required = false)
+    private ClusterKeyStrategy clusterKeyStrategy = ClusterKeyStrategy.NONE;
+
+    @Autowired(required = false)
+    private ClusterSlotRouter slotRouter = ClusterSlotRouter.standalone();
+
+    /**
+     * 兜底轮询间隔（毫秒），写等待标记的过期时间为该值的 2 倍，写者每次重试都会刷新标记
+     */
+    @Value("${lock.sleepMillis}")
+    private long sleepMillis;
+
+    /**
+     * 是否启用写优先
+     */
+    @Value("${lock.rw.writerPreference:true}")
+    private boolean writerPreference;
+
+    /**
+     * 批量续期回调与租约丢失回调，所有租约共用同一个实例，看门狗才能把它们合并为一次批量续期
+     */
+    private final LeaseRenewer leaseRenewer = this::renewLeases;
+
+    private final LeaseLostListener leaseLostListener = this::onLeaseLost;
+
+    /**
+     * 登记读写锁脚本，由脚本注册表在启动后统一预载
+     */
+    @PostConstruct
+    public void registerScripts() {
+        scriptRegistry.register("rwlock.read", READ_LOCK_LUA_SCRIPT);
+        scriptRegistry.register("rwlock.write", WRITE_LOCK_LUA_SCRIPT);
+        scriptRegistry.register("rwlock.release", RW_UNLOCK_LUA_SCRIPT);
+        scriptRegistry.register("rwlock.clearWriteIntent", CLEAR_WRITE_INTENT_LUA_SCRIPT);
+        scriptRegistry.register("lock.renew", RedisLockBackend.BATCH_RENEW_LUA_SCRIPT);
+    }
+
+    /**
+     * 获取读锁，读模式下多个持有者共享，同一线程可重入
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    @Override
+    public LockHandle readLock(String key, long expire, long waitMillis) {
+        return doAcquire(key, expire, waitMillis, false);
+    }
+
+    /**
+     * 获取写锁，与读锁及其他写锁互斥，同一线程可重入
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒），0 表示只尝试一次
+     * @return 锁句柄，在等待时间内未获取到锁时返回 null
+     */
+    @Override
+    public LockHandle writeLock(String key, long expire, long waitMillis) {
+        return doAcquire(key, expire, waitMillis, true);
+    }
+
+    /**
+     * 加锁主流程：执行加锁脚本 -> 等待释放通知后重试 -> 登记租约
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒）
+     * @param write 是否为写锁
+     * @return 锁句柄，未获取到锁或等待期间被中断时返回 null（被中断时保留中断状态）
+     */
+    private LockHandle doAcquire(String key, long expire, long waitMillis, boolean write) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        String mode = write ? "write" : "read";
+        // 持有者标识与互斥锁一致：JVM 标识 + 线程 ID，同一线程重入时持有者相同
+        String token = LockTokens.currentThread();
+        // 允许等待时先登记等待者再尝试加锁，尝试失败之后、开始等待之前到达的释放通知不会丢失
+        LockWaitQueue.Registration registration = waitMillis > 0 ? lockWaitQueue.register(toFullKey(key)) : null;
+        long holdCount = tryLock(key, token, expire, write);
+        int attempts = 1;
+
+        long remainingMillis;
+        while (holdCount == 0 && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            try {
+                log.debug("Thread {} failed to acquire {} lock {}, waiting... remaining wait time: {} ms", Thread.currentThread().getId(), mode, key, remainingMillis);
+                lockWaitQueue.await(registration, Math.min(remainingMillis, sleepMillis));
+            } catch (InterruptedException e) {
+                log.error("Thread {} interrupted while waiting to acquire {} lock {}", Thread.currentThread().getId(), mode, key, e);
+                Thread.currentThread().interrupt(); // 恢复中断状态
+                holdCount = 0;
+                break;
+            }
+            registration = lockWaitQueue.register(toFullKey(key));
+            holdCount = tryLock(key, token, expire, write);
+            attempts++;
+        }
+        // 加锁成功、等待超时或被中断，撤销仍在队列中的登记
+        if (registration != null) {
+            lockWaitQueue.cancel(registration);
+        }
+
+        long endTime = System.nanoTime();
+        String type = write ? LockMetrics.TYPE_WRITE : LockMetrics.TYPE_READ;
+        lockMetrics.recordAcquire(type, toFullKey(key), holdCount > 0, attempts, endTime - startTime);
+        if (holdCount == 0) {
+            log.warn("Thread {} failed to acquire {} lock {} after waiting {} ms", Thread.currentThread().getId(), mode, key, (endTime - startTime) / 1_000_000);
+            if (write && writerPreference) {
+                clearWriteIntent(key, token);
+            }
+            return null;
+        }
+        log.debug("Thread {} acquired {} lock {} in {} ms, hold count {}", Thread.currentThread().getId(), mode, key, (endTime - startTime) / 1_000_000, holdCount);
+        if (!write) {
+            // 读锁共享：一次释放通知只唤醒本地一个等待者，读者获得锁后把通知接力给下一个本地等待者
+            lockWaitQueue.signal(toFullKey(key));
+        }
+        if (holdCount == 1) {
+            leaseWatchdog.register(new Lease(toFullKey(key), token, expire, leaseRenewer, leaseLostListener));
+        }
+        return new LockHandle(key, token, handle -> {
+            lockMetrics.recordHold(type, toFullKey(handle.getKey()), handle.getHeldNanos());
+            return releaseHandle(handle);
+        });
+    }
+
+    /**
+     * 执行一次读锁或写锁脚本
+     *
+     * @param key 锁的键
+     * @param token 持有者标识
+     * @param expire 锁的过期时间（毫秒）
+     * @param write 是否为写锁
+     * @return 加锁后的持有次数，0 表示未获取到锁（或访问 Redis 出错）
+     */
+    private long tryLock(String key, String token, long expire, boolean write) {
+        try {
+            List<String> keys = Arrays.asList(toFullKey(key), getWriteIntentKey(key));
+            List<String> args = write
+                    ? Arrays.asList(String.valueOf(expire), token, String.valueOf(writerPreference ? sleepMillis * 2 : 0))
+                    : Arrays.asList(String.valueOf(expire), token);
+            String script = write ? WRITE_LOCK_LUA_SCRIPT : READ_LOCK_LUA_SCRIPT;
+
+            Long result = scriptRegistry.execute(script, ReturnType.INTEGER, keys, args);
+            return result == null ? 0 : result;
+        } catch (Exception e) {
+            log.error("Thread {} failed to set {} lock {} due to unexpected error", Thread.currentThread().getId(), write ? "write" : "read", key, e);
+        }
+        return 0;
+    }
+
+    /**
+     * 写者放弃等待时清除自己设置的写等待标记，读者无需等待标记自然过期
+     *
+     * @param key 锁的键
+     * @param token 持有者标识
+     */
+    private void clearWriteIntent(String key, String token) {
+        try {
+            List<String> keys = Collections.singletonList(getWriteIntentKey(key));
+            List<String> args = Collections.singletonList(token);
+            scriptRegistry.execute(CLEAR_WRITE_INTENT_LUA_SCRIPT, ReturnType.INTEGER, keys, args);
+        } catch (Exception e) {
+            log.warn("Thread {} failed to clear write intent of lock {}", Thread.currentThread().getId(), key, e);
+        }
+    }
+
+    /**
+     * 看门狗回调的批量续期，与互斥锁共用批量续期脚本
+     *
+     * @param leases 到期需要续期的租约
+     * @return 与 leases 一一对应的续期结果
+     */
+    private boolean[] renewLeases(List<Lease> leases) {
+        return RedisLockBackend.renew(scriptRegistry, slotRouter, leases);
+    }
+
+    private void onLeaseLost(Lease lease) {
+        log.error("Read/write lock {} is no longer held by token {}, the critical section is unprotected", lease.getKey(), lease.getToken());
+    }
+
+    /**
+     * 释放读锁或写锁，重入时只减少持有次数，最后一个持有者离开时删除锁并通知等待者
+     *
+     * @param handle 锁句柄
+     * @return 是否释放锁
+     */
+    private boolean releaseHandle(LockHandle handle) {
+        String key = handle.getKey();
+        String token = handle.getToken();
+        Lease lease = leaseWatchdog.unregister(toFullKey(key), token);
+        if (lease != null && lease.isLost()) {
+            log.error("Thread {} lost read/write lock {} before releasing it", Thread.currentThread().getId(), key);
+        }
+        try {
+            List<String> keys = Collections.singletonList(toFullKey(key));
+            List<String> args = Arrays.asList(token, RedisKeyPrefix.LOCK_RELEASE_CHANNEL);
+            Long result = scriptRegistry.execute(RW_UNLOCK_LUA_SCRIPT, ReturnType.INTEGER, keys, args);
+            long remaining = result == null ? -1 : result;
+            if (remaining > 0 && lease != null && !lease.isLost()) {
+                leaseWatchdog.register(lease);
+            }
+            if (remaining >= 0) {
+                log.debug("Thread {} successfully released read/write lock {}, remaining hold count {}", Thread.currentThread().getId(), key, remaining);
+            } else {
+                log.error("Thread {} failed to release read/write lock {}", Thread.currentThread().getId(), key);
+            }
+            return remaining >= 0;
+        } catch (Exception e) {
+            log.error("Thread {} failed to release read/write lock {} due to unexpected error", Thread.currentThread().getId(), key, e);
+        }
+        return false;
+    }
+
+    /**
+     * 写等待标记键，Redis Cluster 下与锁键位于同一槽位
+     */
+    String getWriteIntentKey(String key) {
+        return ClusterKeyStrategy.sameSlot(toFullKey(key)) + ":writer";
+    }
+
+    /**
+     * 锁的完整键：前缀 + 按哈希标签策略处理后的键
+     */
+    private String toFullKey(String key) {
+        return getKeyPrefix() + clusterKeyStrategy.tag(key);
+    }
+
+    public String getKeyPrefix() {
+        return RedisKeyPrefix.RW_LOCK_KEY;
+    }
+}
@@ -0,0 +1,57 @@
+package cn.javgo.utils.distributed.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Desc: 多节点仲裁锁（Redlock）配置，只有配置了 lock.redlock.nodes 时才生效。
+ * <p>
+ * 配置示例（节点之间相互独立，不能是同一主从集群中的节点，建议奇数个）：
+ * <pre>
+ * lock.redlock.nodes=10.0.0.1:6379,10.0.0.2:6379,10.0.0.3:6379
+ * lock.redlock.nodeTimeoutMillis=50
+ * lock.redlock.driftFactor=0.01
+ * </pre>
+ * 创建的 RedlockDistributedLockService 不替换默认的单节点锁，需要时按类型注入。
+ *
+ * @author javgo
+ * @create 2026-10-16 18:30
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lock.redlock", name = "nodes")
+public class RedlockConfiguration {
+
+    private final List<JedisConnectionFactory> connectionFactories = new ArrayList<>();
+
+    @Bean
+    public RedlockDistributedLockService redlockDistributedLockService(@Value("${lock.redlock.nodes}") String nodes,
+                                                                       @Value("${lock.redlock.nodeTimeoutMillis:50}") long nodeTimeoutMillis,
+                                                                       @Value("${lock.redlock.driftFactor:0.01}") double driftFactor,
+                                                                       LeaseWatchdog leaseWatchdog) {
+        List<LockNode> lockNodes = new ArrayList<>();
+        for (String node : nodes.split(",")) {
+            String address = node.trim();
+            int colon = address.lastIndexOf(':');
+            JedisConnectionFactory connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                    address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            connectionFactories.add(connectionFactory);
+            lockNodes.add(new RedisLockNode(address, connectionFactory));
+        }
+        return new RedlockDistributedLockService(lockNodes, leaseWatchdog, nodeTimeoutMillis, driftFactor);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        connectionFactories.forEach(JedisConnectionFactory::destroy);
+    }
+}
@@ -0,0 +1,334 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Desc: 多节点仲裁（Redlock）分布式锁实现，锁由 N 个相互独立的 Redis 节点共同仲裁，单个节点故障或主从切换不会导致同一把锁被重复授予。
+ * <p>
+ * 加锁过程如下：
+ * 1. 并行向全部节点发送 SET key token NX PX lease，每个节点最多等待 nodeTimeoutMillis，超时或异常视为该节点加锁失败；
+ * 2. 在多数派（N / 2 + 1）节点上加锁成功，且"租期 - 加锁耗时 - 时钟漂移预算"仍大于 0 时，加锁成功；
+ * 3. 否则在全部节点上释放本次加锁（包括超时的节点，它们可能已经加锁成功），随机退避后重试，直到超过等待时间；
+ * 4. 加锁成功后登记到租约看门狗，续期同样要求多数派节点成功，否则视为租约丢失；每个周期对每个节点只发送一次批量续期。
+ * <p>
+ * lock 系列方法与 {@link RedisDistributedLockService} 契约一致：等待时间内未获取到锁时抛出异常，等待期间被中断时返回 false。
+ * <p>
+ * 该实现不可重入，也不经过本地锁表与发布订阅通知（释放通知无法跨节点仲裁），等待期间使用随机退避。
+ * 默认不启用，配置 lock.redlock.nodes 后由 {@link RedlockConfiguration} 创建。
+ *
+ * @author javgo
+ * @create 2026-10-16 18:15
+ */
+@Slf4j
+public class RedlockDistributedLockService extends AbstractDistributedLock {
+
+    /**
+     * 保存每个线程通过 lock 系列方法持有的锁句柄，供 releaseLock 使用
+     */
+    private final ThreadLocal<LinkedList<LockHandle>> lockFlagStack = ThreadLocal.withInitial(LinkedList::new);
+
+    /**
+     * 全部锁节点
+     */
+    private final List<LockNode> nodes;
+
+    /**
+     * 多数派节点数
+     */
+    private final int quorum;
+
+    /**
+     * 单个节点的最长等待时间（毫秒），应远小于租期，避免在故障节点上耗尽锁的有效时间
+     */
+    private final long nodeTimeoutMillis;
+
+    /**
+     * 时钟漂移系数，漂移预算为"租期 * 系数 + 2 毫秒"
+     */
+    private final double driftFactor;
+
+    private final LeaseWatchdog leaseWatchdog;
+
+    /**
+     * 每个节点分配的线程数，节点线程池大小为"节点数 * 该值"
+     */
+    private static final int THREADS_PER_NODE = 2;
+
+    /**
+     * 并行访问各节点的线程池，大小固定，节点响应缓慢时不会无限创建线程
+     */
+    private final ExecutorService nodeExecutor;
+
+    /**
+     * 续期回调与租约丢失回调，所有租约共用同一个实例，看门狗才能把它们合并为一批
+     */
+    private final LeaseRenewer leaseRenewer = this::renewLeases;
+
+    private final LeaseLostListener leaseLostListener = this::onLeaseLost;
+
+    public RedlockDistributedLockService(List<LockNode> nodes, LeaseWatchdog leaseWatchdog, long nodeTimeoutMillis, double driftFactor) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("redlock requires at least one node");
+        }
+        this.nodes = new ArrayList<>(nodes);
+        this.quorum = nodes.size() / 2 + 1;
+        this.leaseWatchdog = leaseWatchdog;
+        this.nodeTimeoutMillis = nodeTimeoutMillis;
+        this.driftFactor = driftFactor;
+        this.nodeExecutor = Executors.newFixedThreadPool(nodes.size() * THREADS_PER_NODE, r -> {
+            Thread thread = new Thread(r, "redlock-node");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        nodeExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean lock(String key, long expire, int retryTimes, long sleepMillis) {
+        LockHandle handle = doAcquire(key, expire, Math.max(retryTimes, 0) * sleepMillis, sleepMillis);
+        if (handle == null) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            // 回退逻辑
+            handleLockFailure(key);
+            return false;
+        }
+        lockFlagStack.get().push(handle);
+        return true;
+    }
+
+    @Override
+    public LockHandle acquire(String key, long expire, long waitMillis) {
+        return doAcquire(key, expire, waitMillis, getDefaultSleepMillis());
+    }
+
+    @Override
+    public LockHandle acquire(String key, long expire, long waitMillis, long sleepMillis) {
+        return doAcquire(key, expire, waitMillis, sleepMillis > 0 ? sleepMillis : getDefaultSleepMillis());
+    }
+
+    /**
+     * 一次性获取多把锁：按字典序逐把获取，任意一把在等待时间内未获取到时释放已获取的锁。
+     * 多节点模式下无法在一次脚本调用中完成，每把锁各需一轮多数派仲裁。
+     *
+     * @param keys 锁的键集合
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒）
+     * @return 代表全部锁的句柄，未获取到全部锁时返回 null
+     */
+    @Override
+    public LockHandle lockAll(Collection<String> keys, long expire, long waitMillis) {
+        List<String> sortedKeys = new ArrayList<>(new TreeSet<>(keys));
+        if (sortedKeys.isEmpty()) {
+            throw new IllegalArgumentException("keys must not be empty");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        List<LockHandle> handles = new ArrayList<>(sortedKeys.size());
+        for (String key : sortedKeys) {
+            LockHandle handle = doAcquire(key, expire, Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 0), getDefaultSleepMillis());
+            if (handle == null) {
+                handles.forEach(LockHandle::release);
+                return null;
+            }
+            handles.add(handle);
+        }
+        return new LockHandle(String.join(",", sortedKeys), handles.get(0).getToken(), all -> {
+            boolean released = true;
+            for (LockHandle handle : handles) {
+                released &= handle.release();
+            }
+            return released;
+        });
+    }
+
+    /**
+     * 加锁主流程：多数派仲裁 -> 失败时随机退避后重试 -> 登记租约
+     *
+     * @param key 锁的键
+     * @param expire 锁的过期时间（毫秒）
+     * @param waitMillis 最长等待时间（毫秒）
+     * @param sleepMillis 退避上限（毫秒）
+     * @return 锁句柄，未获取到锁或等待期间被中断时返回 null（被中断时保留中断状态）
+     */
+    private LockHandle doAcquire(String key, long expire, long waitMillis, long sleepMillis) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(waitMillis, 0));
+        String token = LockTokens.next();
+        String fullKey = getKeyPrefix() + key;
+
+        long validity;
+        long remainingMillis;
+        while ((validity = tryLockQuorum(fullKey, token, expire)) <= 0
+                && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            try {
+                // 随机退避，避免多个客户端同时重试时再次平分节点、谁都拿不到多数派
+                Thread.sleep(Math.min(remainingMillis, ThreadLocalRandom.current().nextLong(Math.max(sleepMillis / 2, 1), Math.max(sleepMillis, 2))));
+            } catch (InterruptedException e) {
+                log.error("Thread {} interrupted while waiting to acquire redlock {}", Thread.currentThread().getId(), key, e);
+                Thread.currentThread().interrupt(); // 恢复中断状态
+                return null;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        if (validity <= 0) {
+            log.warn("Thread {} failed to acquire redlock {} after waiting {} ms", Thread.currentThread().getId(), key, elapsedMillis);
+            return null;
+        }
+        log.debug("Thread {} acquired redlock {} in {} ms, validity {} ms", Thread.currentThread().getId(), key, elapsedMillis, validity);
+        leaseWatchdog.register(new Lease(fullKey, token, expire, leaseRenewer, leaseLostListener));
+        return new LockHandle(key, token, this::releaseHandle);
+    }
+
+    /**
+     * 一轮多数派加锁
+     *
+     * @param fullKey 锁的完整键
+     * @param token 持有者标识
+     * @param expire 租期（毫秒）
+     * @return 锁的剩余有效时间（毫秒），未获得多数派或有效时间已耗尽时返回 0
+     */
+    long tryLockQuorum(String fullKey, String token, long expire) {
+        long start = System.nanoTime();
+        int acquired = countSuccesses((node, k) -> node.tryLock(k, token, expire), fullKey);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long drift = (long) (expire * driftFactor) + 2;
+        long validity = expire - elapsedMillis - drift;
+        if (acquired >= quorum && validity > 0) {
+            return validity;
+        }
+        log.debug("Redlock {} acquired on {}/{} nodes, validity {} ms, rolling back", fullKey, acquired, nodes.size(), validity);
+        countSuccesses((node, k) -> node.unlock(k, token), fullKey);
+        return 0;
+    }
+
+    /**
+     * 并行在全部节点上执行操作，统计在单节点超时时间内成功的节点数
+     *
+     * @param operation 节点操作
+     * @param fullKey 锁的完整键
+     * @return 成功的节点数
+     */
+    private int countSuccesses(BiPredicate<LockNode, String> operation, String fullKey) {
+        int successes = 0;
+        for (Boolean success : callAllNodes(node -> operation.test(node, fullKey), fullKey)) {
+            if (Boolean.TRUE.equals(success)) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+
+    /**
+     * 并行在全部节点上执行操作
+     *
+     * @param operation 节点操作
+     * @param target 操作对象，用于日志
+     * @return 与 nodes 一一对应的结果，超时或异常的节点为 null
+     */
+    private <T> List<T> callAllNodes(Function<LockNode, T> operation, Object target) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(nodes.size());
+        for (LockNode node : nodes) {
+            futures.add(CompletableFuture.supplyAsync(() -> operation.apply(node), nodeExecutor)
+                    .completeOnTimeout(null, nodeTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        log.warn("Redlock node {} failed for {}: {}", node.getName(), target, e.getMessage());
+                        return null;
+                    }));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * 看门狗回调的续期：每个节点只发送一次批量续期，每把锁需要在多数派节点上续期成功
+     *
+     * @param leases 到期需要续期的租约
+     * @return 与 leases 一一对应的续期结果
+     */
+    private boolean[] renewLeases(List<Lease> leases) {
+        int[] successes = new int[leases.size()];
+        for (boolean[] nodeResults : callAllNodes(node -> node.extendAll(leases), leases.size() + " leases")) {
+            for (int i = 0; nodeResults != null && i < successes.length; i++) {
+                if (nodeResults[i]) {
+                    successes[i]++;
+                }
+            }
+        }
+        boolean[] results = new boolean[leases.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = successes[i] >= quorum;
+        }
+        return results;
+    }
+
+    private void onLeaseLost(Lease lease) {
+        log.error("Redlock {} is no longer held by token {} on a quorum of nodes, the critical section is unprotected", lease.getKey(), lease.getToken());
+    }
+
+    @Override
+    public boolean releaseLock(String key) {
+        LockHandle handle = null;
+        Iterator<LockHandle> iterator = lockFlagStack.get().iterator();
+        while (iterator.hasNext()) {
+            LockHandle candidate = iterator.next();
+            if (candidate.getKey().equals(key)) {
+                iterator.remove();
+                handle = candidate;
+                break;
+            }
+        }
+        if (handle == null) {
+            log.warn("Thread {} has no redlock flag to release for key {}", Thread.currentThread().getId(), key);
+            return false;
+        }
+        return handle.release();
+    }
+
+    /**
+     * 在全部节点上释放锁，多数派节点释放成功即视为成功
+     *
+     * @param handle 锁句柄
+     * @return 是否释放锁
+     */
+    private boolean releaseHandle(LockHandle handle) {
+        String fullKey = getKeyPrefix() + handle.getKey();
+        Lease lease = leaseWatchdog.unregister(fullKey, handle.getToken());
+        if (lease != null && lease.isLost()) {
+            log.error("Thread {} lost redlock {} before releasing it", Thread.currentThread().getId(), handle.getKey());
+        }
+        int released = countSuccesses((node, k) -> node.unlock(k, handle.getToken()), fullKey);
+        log.debug("Thread {} released redlock {} on {}/{} nodes", Thread.currentThread().getId(), handle.getKey(), released, nodes.size());
+        return released >= quorum;
+    }
+
+    @Override
+    public String getKeyPrefix() {
+        return RedisKeyPrefix.REDLOCK_KEY;
+    }
+}
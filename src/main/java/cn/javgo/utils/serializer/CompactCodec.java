@@ -0,0 +1,719 @@
+package cn.javgo.utils.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Desc: 紧凑二进制编码，不写字段名与类型描述（schema-less），由 {@link CompactRedisSerializer} 使用：
+ * <p>
+ * 1. 每个值以 1 字节类型标记开头，整数使用 zigzag 变长编码，字符串为 变长长度 + UTF-8；
+ * 2. List / Set / Map 按元素逐个编码，读取时分别还原为 ArrayList / LinkedHashSet / LinkedHashMap；
+ * 3. 普通对象写入 类引用 + 各字段的值，字段按 父类优先、类内按名称排序 的顺序排列，基本类型字段不写类型标记。
+ * 类引用对已注册的类为注册号（变长整数），未注册的类为 0 + 类名。读写两端的类结构必须一致，增删字段需要清理旧数据；
+ * 4. 没有无参构造器的类、JDK 内部类型（如 java.time）、集合字段声明为无法从 ArrayList / LinkedHashSet / LinkedHashMap 赋值的具体类型
+ * （如 TreeSet、TreeMap、LinkedList）的类等无法按字段编码的值，实现了 Serializable 时退回 JDK 序列化，否则抛出异常；
+ * 5. 不支持循环引用，对象图的嵌套深度超过 {@link #MAX_DEPTH} 时抛出异常。
+ *
+ * @author javgo
+ * @create 2026-10-17 03:20
+ */
+final class CompactCodec {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte STRING = 7;
+    private static final byte BYTES = 8;
+    private static final byte LIST = 9;
+    private static final byte SET = 10;
+    private static final byte MAP = 11;
+    private static final byte SHORT = 12;
+    private static final byte BYTE = 13;
+    private static final byte CHAR = 14;
+    private static final byte BIG_DECIMAL = 15;
+    private static final byte BIG_INTEGER = 16;
+    private static final byte DATE = 17;
+    private static final byte ENUM = 18;
+    private static final byte OBJECT = 19;
+    private static final byte JAVA = 20;
+
+    /**
+     * 对象图的最大嵌套深度
+     */
+    static final int MAX_DEPTH = 128;
+
+    /**
+     * 是否只允许编码与解码已注册的类
+     */
+    private final boolean registrationRequired;
+
+    private final ClassLoader classLoader;
+
+    private final Map<Class<?>, Integer> classIds = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Class<?>> classesById = new ConcurrentHashMap<>();
+
+    /**
+     * 类 -> 编码方式，首次编码或解码时解析
+     */
+    private final Map<Class<?>, ClassInfo> classInfos = new ConcurrentHashMap<>();
+
+    CompactCodec(boolean registrationRequired, ClassLoader classLoader) {
+        this.registrationRequired = registrationRequired;
+        this.classLoader = classLoader != null ? classLoader : CompactCodec.class.getClassLoader();
+    }
+
+    /**
+     * 注册类，注册号在所有读写该数据的节点上必须一致
+     *
+     * @param type 类
+     * @param id 注册号，必须为正数
+     */
+    void register(Class<?> type, int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Class id must be positive: " + id);
+        }
+        Class<?> previous = classesById.putIfAbsent(id, type);
+        if (previous != null && previous != type) {
+            throw new IllegalArgumentException("Class id " + id + " is already registered for " + previous.getName());
+        }
+        classIds.put(type, id);
+    }
+
+    void write(Output out, Object value, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new SerializationException("Object graph is deeper than " + MAX_DEPTH + ", cyclic references are not supported");
+        }
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            out.writeString(s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeVarLong(zigZag(i));
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeVarLong(zigZag(l));
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? TRUE : FALSE);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(d));
+        } else if (value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeInt(Float.floatToRawIntBits(f));
+        } else if (value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeVarLong(zigZag(s));
+        } else if (value instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if (value instanceof Character c) {
+            out.writeByte(CHAR);
+            out.writeVarLong(c);
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(BYTES);
+            out.writeVarLong(bytes.length);
+            out.writeBytes(bytes, 0, bytes.length);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeString(decimal.toString());
+        } else if (value instanceof BigInteger integer) {
+            out.writeByte(BIG_INTEGER);
+            out.writeString(integer.toString());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeVarLong(zigZag(((Date) value).getTime()));
+        } else if (value instanceof Enum<?> e) {
+            out.writeByte(ENUM);
+            writeClass(out, e.getDeclaringClass());
+            out.writeString(e.name());
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            writeElements(out, list, depth);
+        } else if (value instanceof Set<?> set) {
+            out.writeByte(SET);
+            writeElements(out, set, depth);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey(), depth + 1);
+                write(out, entry.getValue(), depth + 1);
+            }
+        } else {
+            writeObject(out, value, depth);
+        }
+    }
+
+    Object read(Input in, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new SerializationException("Object graph is deeper than " + MAX_DEPTH);
+        }
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) unZigZag(in.readVarLong());
+            case LONG:
+                return unZigZag(in.readVarLong());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case STRING:
+                return in.readString();
+            case BYTES:
+                return in.readBytes(in.readLength());
+            case LIST: {
+                int size = in.readLength();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in, depth + 1));
+                }
+                return list;
+            }
+            case SET: {
+                int size = in.readLength();
+                Set<Object> set = new LinkedHashSet<>(capacity(size));
+                for (int i = 0; i < size; i++) {
+                    set.add(read(in, depth + 1));
+                }
+                return set;
+            }
+            case MAP: {
+                int size = in.readLength();
+                Map<Object, Object> map = new LinkedHashMap<>(capacity(size));
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in, depth + 1), read(in, depth + 1));
+                }
+                return map;
+            }
+            case SHORT:
+                return (short) unZigZag(in.readVarLong());
+            case BYTE:
+                return in.readByte();
+            case CHAR:
+                return (char) in.readVarLong();
+            case BIG_DECIMAL:
+                return new BigDecimal(in.readString());
+            case BIG_INTEGER:
+                return new BigInteger(in.readString());
+            case DATE:
+                return new Date(unZigZag(in.readVarLong()));
+            case ENUM:
+                return readEnum(in);
+            case OBJECT:
+                return readObject(in, depth);
+            case JAVA:
+                return readJava(in);
+            default:
+                throw new SerializationException("Unknown type tag " + tag + " at " + (in.position() - 1));
+        }
+    }
+
+    private void writeElements(Output out, Collection<?> elements, int depth) {
+        out.writeVarLong(elements.size());
+        for (Object element : elements) {
+            write(out, element, depth + 1);
+        }
+    }
+
+    private void writeObject(Output out, Object value, int depth) {
+        ClassInfo info = classInfo(value.getClass());
+        if (info == null) {
+            writeJava(out, value);
+            return;
+        }
+        out.writeByte(OBJECT);
+        writeClass(out, info.type);
+        try {
+            for (FieldInfo field : info.fields) {
+                field.write(this, out, value, depth);
+            }
+        } catch (IllegalAccessException e) {
+            throw new SerializationException("Cannot read fields of " + info.type.getName(), e);
+        }
+    }
+
+    private Object readObject(Input in, int depth) {
+        Class<?> type = readClass(in);
+        ClassInfo info = classInfo(type);
+        if (info == null) {
+            throw new SerializationException("Class " + type.getName() + " cannot be decoded field by field");
+        }
+        try {
+            if (info.recordConstructor != null) {
+                Object[] components = new Object[info.fields.length];
+                for (int i = 0; i < components.length; i++) {
+                    components[i] = info.fields[i].read(this, in, depth);
+                }
+                return info.recordConstructor.newInstance(components);
+            }
+            Object instance = info.constructor.newInstance();
+            for (FieldInfo field : info.fields) {
+                field.field.set(instance, field.read(this, in, depth));
+            }
+            return instance;
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new SerializationException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum(Input in) {
+        Class type = readClass(in);
+        return Enum.valueOf(type, in.readString());
+    }
+
+    private void writeJava(Output out, Object value) {
+        if (!(value instanceof Serializable)) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getName()
+                    + ": it has no no-arg constructor or accessible fields and is not Serializable");
+        }
+        if (registrationRequired && !classIds.containsKey(value.getClass())) {
+            throw new SerializationException("Class " + value.getClass().getName() + " is not registered");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(value);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getName(), e);
+        }
+        out.writeByte(JAVA);
+        out.writeVarLong(bytes.size());
+        out.writeBytes(bytes.toByteArray(), 0, bytes.size());
+    }
+
+    private Object readJava(Input in) {
+        return readJava(in.readBytes(in.readLength()));
+    }
+
+    /**
+     * JDK 反序列化，要求注册时在实例化之前拦截未注册的类
+     *
+     * @param bytes JDK 序列化流
+     * @return 反序列化的值
+     */
+    Object readJava(byte[] bytes) {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                Class<?> type;
+                try {
+                    type = Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // 基本类型等
+                    type = super.resolveClass(desc);
+                }
+                // 在实例化之前拦截未注册的类，JDK 自身的类型（集合、java.time 等）放行
+                if (registrationRequired && !type.isPrimitive() && !type.isArray()
+                        && !type.getName().startsWith("java.") && !classIds.containsKey(type)) {
+                    throw new InvalidClassException(type.getName(), "class is not registered");
+                }
+                return type;
+            }
+        }) {
+            return stream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationException("Cannot deserialize JDK serialized value", e);
+        }
+    }
+
+    private void writeClass(Output out, Class<?> type) {
+        Integer id = classIds.get(type);
+        if (id != null) {
+            out.writeVarLong(id);
+            return;
+        }
+        if (registrationRequired) {
+            throw new SerializationException("Class " + type.getName() + " is not registered");
+        }
+        out.writeVarLong(0);
+        out.writeString(type.getName());
+    }
+
+    private Class<?> readClass(Input in) {
+        int id = (int) in.readVarLong();
+        if (id != 0) {
+            Class<?> type = classesById.get(id);
+            if (type == null) {
+                throw new SerializationException("Unknown class id " + id);
+            }
+            return type;
+        }
+        if (registrationRequired) {
+            throw new SerializationException("Unregistered class in payload");
+        }
+        String name = in.readString();
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new SerializationException("Class not found: " + name, e);
+        }
+    }
+
+    /**
+     * 解析类的编码方式，无法按字段编码时返回 null（退回 JDK 序列化）
+     */
+    private ClassInfo classInfo(Class<?> type) {
+        ClassInfo info = classInfos.get(type);
+        if (info == null) {
+            info = ClassInfo.of(type);
+            classInfos.putIfAbsent(type, info);
+        }
+        return info.fields == null ? null : info;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /**
+     * 类的编码方式：字段顺序、构造器
+     */
+    private static final class ClassInfo {
+
+        private final Class<?> type;
+
+        /**
+         * 按编码顺序排列的字段，为 null 表示无法按字段编码
+         */
+        private final FieldInfo[] fields;
+
+        private final Constructor<?> constructor;
+
+        private final Constructor<?> recordConstructor;
+
+        private ClassInfo(Class<?> type, FieldInfo[] fields, Constructor<?> constructor, Constructor<?> recordConstructor) {
+            this.type = type;
+            this.fields = fields;
+            this.constructor = constructor;
+            this.recordConstructor = recordConstructor;
+        }
+
+        static ClassInfo of(Class<?> type) {
+            String name = type.getName();
+            if (type.isArray() || type.isInterface() || name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")) {
+                return new ClassInfo(type, null, null, null);
+            }
+            try {
+                if (type.isRecord()) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    FieldInfo[] fields = new FieldInfo[components.length];
+                    Class<?>[] parameterTypes = new Class<?>[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        Field field = type.getDeclaredField(components[i].getName());
+                        field.setAccessible(true);
+                        fields[i] = new FieldInfo(field);
+                        parameterTypes[i] = components[i].getType();
+                    }
+                    Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                    constructor.setAccessible(true);
+                    return decodable(fields) ? new ClassInfo(type, fields, null, constructor) : new ClassInfo(type, null, null, null);
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                List<FieldInfo> fields = new ArrayList<>();
+                collectFields(type, fields);
+                FieldInfo[] fieldInfos = fields.toArray(new FieldInfo[0]);
+                return decodable(fieldInfos) ? new ClassInfo(type, fieldInfos, constructor, null) : new ClassInfo(type, null, null, null);
+            } catch (NoSuchMethodException | NoSuchFieldException | RuntimeException e) {
+                // 没有无参构造器或字段不可访问（如模块封装）
+                return new ClassInfo(type, null, null, null);
+            }
+        }
+
+        /**
+         * 集合字段解码后为 ArrayList / LinkedHashSet / LinkedHashMap，字段的声明类型必须能接收这些类型
+         */
+        private static boolean decodable(FieldInfo[] fields) {
+            for (FieldInfo field : fields) {
+                Class<?> type = field.type;
+                if (Collection.class.isAssignableFrom(type)
+                        && !type.isAssignableFrom(ArrayList.class) && !type.isAssignableFrom(LinkedHashSet.class)) {
+                    return false;
+                }
+                if (Map.class.isAssignableFrom(type) && !type.isAssignableFrom(LinkedHashMap.class)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void collectFields(Class<?> type, List<FieldInfo> fields) {
+            if (type == null || type == Object.class) {
+                return;
+            }
+            collectFields(type.getSuperclass(), fields);
+            Field[] declared = type.getDeclaredFields();
+            Arrays.sort(declared, Comparator.comparing(Field::getName));
+            for (Field field : declared) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(new FieldInfo(field));
+            }
+        }
+    }
+
+    /**
+     * 字段的编码方式，基本类型字段不写类型标记
+     */
+    private static final class FieldInfo {
+
+        private final Field field;
+
+        private final Class<?> type;
+
+        FieldInfo(Field field) {
+            this.field = field;
+            this.type = field.getType();
+        }
+
+        void write(CompactCodec codec, Output out, Object target, int depth) throws IllegalAccessException {
+            if (type == int.class) {
+                out.writeVarLong(zigZag(field.getInt(target)));
+            } else if (type == long.class) {
+                out.writeVarLong(zigZag(field.getLong(target)));
+            } else if (type == boolean.class) {
+                out.writeByte(field.getBoolean(target) ? TRUE : FALSE);
+            } else if (type == double.class) {
+                out.writeLong(Double.doubleToRawLongBits(field.getDouble(target)));
+            } else if (type == float.class) {
+                out.writeInt(Float.floatToRawIntBits(field.getFloat(target)));
+            } else if (type == short.class) {
+                out.writeVarLong(zigZag(field.getShort(target)));
+            } else if (type == byte.class) {
+                out.writeByte(field.getByte(target));
+            } else if (type == char.class) {
+                out.writeVarLong(field.getChar(target));
+            } else {
+                codec.write(out, field.get(target), depth + 1);
+            }
+        }
+
+        Object read(CompactCodec codec, Input in, int depth) {
+            if (type == int.class) {
+                return (int) unZigZag(in.readVarLong());
+            } else if (type == long.class) {
+                return unZigZag(in.readVarLong());
+            } else if (type == boolean.class) {
+                return in.readByte() == TRUE;
+            } else if (type == double.class) {
+                return Double.longBitsToDouble(in.readLong());
+            } else if (type == float.class) {
+                return Float.intBitsToFloat(in.readInt());
+            } else if (type == short.class) {
+                return (short) unZigZag(in.readVarLong());
+            } else if (type == byte.class) {
+                return in.readByte();
+            } else if (type == char.class) {
+                return (char) in.readVarLong();
+            }
+            return codec.read(in, depth + 1);
+        }
+    }
+
+    /**
+     * 可扩容的输出缓冲区
+     */
+    static final class Output {
+
+        private byte[] buf;
+
+        private int pos;
+
+        Output(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void reset() {
+            pos = 0;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buf, pos, len);
+            pos += len;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            buf[pos++] = (byte) value;
+            buf[pos++] = (byte) (value >>> 8);
+            buf[pos++] = (byte) (value >>> 16);
+            buf[pos++] = (byte) (value >>> 24);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) value);
+            writeInt((int) (value >>> 32));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+            }
+        }
+    }
+
+    /**
+     * 输入缓冲区，越界时抛出 SerializationException
+     */
+    static final class Input {
+
+        private final byte[] buf;
+
+        private int pos;
+
+        private final int limit;
+
+        Input(byte[] buf, int off, int len) {
+            this.buf = buf;
+            this.pos = off;
+            this.limit = off + len;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        boolean hasRemaining() {
+            return pos < limit;
+        }
+
+        byte readByte() {
+            require(1);
+            return buf[pos++];
+        }
+
+        byte[] readBytes(int len) {
+            require(len);
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + len);
+            pos += len;
+            return bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint at " + pos);
+        }
+
+        /**
+         * 读取长度或数量，校验不超过剩余字节数，避免损坏的数据导致分配超大数组
+         */
+        int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > limit - pos) {
+                throw new SerializationException("Invalid length " + length + " at " + pos);
+            }
+            return (int) length;
+        }
+
+        int readInt() {
+            require(4);
+            int value = (buf[pos] & 0xFF) | (buf[pos + 1] & 0xFF) << 8 | (buf[pos + 2] & 0xFF) << 16 | (buf[pos + 3] & 0xFF) << 24;
+            pos += 4;
+            return value;
+        }
+
+        long readLong() {
+            return (readInt() & 0xFFFFFFFFL) | (long) readInt() << 32;
+        }
+
+        String readString() {
+            int len = readLength();
+            String value = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return value;
+        }
+
+        private void require(int n) {
+            if (n > limit - pos) {
+                throw new SerializationException("Unexpected end of data at " + pos);
+            }
+        }
+    }
+}
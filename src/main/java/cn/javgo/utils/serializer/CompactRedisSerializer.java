@@ -0,0 +1,146 @@
+package cn.javgo.utils.serializer;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+
+/**
+ * Desc: RedisTemplate&lt;String, Object&gt; 的紧凑二进制值序列化器，替代默认的 JDK 序列化。
+ * <p>
+ * 数据格式：1 字节头部 + 编码后的值。
+ * 1. 头部为 0xC0（未压缩）或 0xC1（压缩），压缩时头部之后为 变长原始长度 + LZ4 块；
+ * 2. 值的编码见 {@link CompactCodec}：不写字段名，已注册的类只写注册号，整数变长编码，通常只有 JDK 序列化体积的一小部分；
+ * 3. 编码后超过压缩阈值（默认 1KB）时尝试 LZ4 压缩，压缩后更小才保留，小值不付出压缩的代价；
+ * 4. 读取时首字节为 0xAC（JDK 序列化流的魔数）的数据按 JDK 序列化读取，切换序列化器前写入的旧数据仍可读取，新写入的数据为紧凑格式。
+ * 开启 requireRegistration 时旧数据同样只允许已注册的类（及 java.* 类型）。
+ * <p>
+ * 注册类（与注册号）是可选的，只影响体积与反序列化的安全性：注册号在所有读写该数据的节点上必须一致，只能追加，不能修改或复用。
+ * 开启 requireRegistration 后只允许编码与解码已注册的类，未注册的类名不会被加载，可防止通过 Redis 注入任意类型。
+ * <pre>
+ * CompactRedisSerializer serializer = new CompactRedisSerializer(1024, false, null)
+ *         .register(PermissionDTO.class, 1)
+ *         .register(DataRoleDTO.class, 2);
+ * </pre>
+ *
+ * @author javgo
+ * @create 2026-10-17 03:40
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT = (byte) 0xC0;
+
+    static final byte COMPRESSED = 0x01;
+
+    /**
+     * JDK 序列化流的首字节（STREAM_MAGIC 0xACED 的高字节）
+     */
+    private static final byte JDK_MAGIC = (byte) 0xAC;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 线程复用的输出缓冲区超过该大小时不再保留，避免偶发的大值长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<CompactCodec.Output> OUTPUT = ThreadLocal.withInitial(() -> new CompactCodec.Output(256));
+
+    private final CompactCodec codec;
+
+    /**
+     * 压缩阈值（字节），不大于 0 时不压缩
+     */
+    private final int compressThreshold;
+
+    public CompactRedisSerializer() {
+        this(1024, false, null);
+    }
+
+    /**
+     * @param compressThreshold 压缩阈值（字节），不大于 0 时不压缩
+     * @param registrationRequired 是否只允许已注册的类
+     * @param classLoader 加载类使用的类加载器，为 null 时使用本类的类加载器
+     */
+    public CompactRedisSerializer(int compressThreshold, boolean registrationRequired, ClassLoader classLoader) {
+        this.codec = new CompactCodec(registrationRequired, classLoader);
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 注册类
+     *
+     * @param type 类
+     * @param id 注册号，必须为正数，在所有节点上一致
+     * @return 当前序列化器
+     */
+    public CompactRedisSerializer register(Class<?> type, int id) {
+        codec.register(type, id);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        CompactCodec.Output out = OUTPUT.get();
+        out.reset();
+        try {
+            out.writeByte(FORMAT);
+            codec.write(out, value, 0);
+            int length = out.position() - 1;
+            byte[] buffer = out.buffer();
+            if (compressThreshold > 0 && length >= compressThreshold) {
+                byte[] compressed = Lz4Block.compress(buffer, 1, length);
+                if (compressed.length + 5 < length) {
+                    CompactCodec.Output header = new CompactCodec.Output(6 + compressed.length);
+                    header.writeByte(FORMAT | COMPRESSED);
+                    header.writeVarLong(length);
+                    header.writeBytes(compressed, 0, compressed.length);
+                    return Arrays.copyOf(header.buffer(), header.position());
+                }
+            }
+            return Arrays.copyOf(buffer, out.position());
+        } finally {
+            if (out.buffer().length > MAX_RETAINED_BUFFER) {
+                OUTPUT.remove();
+            }
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JDK_MAGIC) {
+            return codec.readJava(bytes);
+        }
+        if ((bytes[0] & ~COMPRESSED) != FORMAT) {
+            throw new SerializationException("Unknown serialization format 0x" + Integer.toHexString(bytes[0] & 0xFF));
+        }
+        CompactCodec.Input in;
+        if ((bytes[0] & COMPRESSED) != 0) {
+            CompactCodec.Input header = new CompactCodec.Input(bytes, 1, bytes.length - 1);
+            long length = header.readVarLong();
+            if (length < 0 || length > Integer.MAX_VALUE - 8) {
+                throw new SerializationException("Invalid uncompressed length " + length);
+            }
+            byte[] body;
+            try {
+                body = Lz4Block.decompress(bytes, header.position(), bytes.length - header.position(), (int) length);
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException("Cannot decompress value", e);
+            }
+            in = new CompactCodec.Input(body, 0, body.length);
+        } else {
+            in = new CompactCodec.Input(bytes, 1, bytes.length - 1);
+        }
+        Object value = codec.read(in, 0);
+        if (in.hasRemaining()) {
+            throw new SerializationException("Unexpected trailing bytes after value at " + in.position());
+        }
+        return value;
+    }
+}
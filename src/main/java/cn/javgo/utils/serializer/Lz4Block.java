@@ -0,0 +1,176 @@
+package cn.javgo.utils.serializer;
+
+import java.util.Arrays;
+
+/**
+ * Desc: LZ4 块格式的压缩与解压，不依赖第三方库。只实现块格式（不含帧头与校验和），原始长度由调用方另行保存。
+ * <p>
+ * 1. 压缩：以 4 字节为单位计算哈希，在 64KB 窗口内查找最近一次出现的相同序列，贪心地向后扩展匹配，
+ * 输出 (字面量, 偏移, 匹配长度) 序列，单遍扫描，不做懒惰匹配，速度优先；
+ * 2. 解压：按序列复制字面量与匹配，匹配可以与输出重叠（重复模式），逐字节复制；
+ * 3. 遵守 LZ4 块格式的约束：最后 5 个字节总是字面量，最后一个匹配距末尾至少 12 个字节，输出可被标准 LZ4 解压。
+ *
+ * @author javgo
+ * @create 2026-10-17 03:10
+ */
+final class Lz4Block {
+
+    private static final int MIN_MATCH = 4;
+
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * 距末尾不足该长度的位置不再开始匹配
+     */
+    private static final int MF_LIMIT = 12;
+
+    private static final int MAX_DISTANCE = 65535;
+
+    private static final int HASH_LOG = 12;
+
+    private Lz4Block() {
+    }
+
+    /**
+     * 压缩
+     *
+     * @param src 源数据
+     * @param off 起始位置
+     * @param len 长度
+     * @return 压缩后的数据
+     */
+    static byte[] compress(byte[] src, int off, int len) {
+        byte[] dst = new byte[len + len / 255 + 16];
+        int end = off + len;
+        int anchor = off;
+        int op = 0;
+        if (len > MF_LIMIT) {
+            // 哈希表保存位置 + 1，0 表示空
+            int[] table = new int[1 << HASH_LOG];
+            int limit = end - MF_LIMIT;
+            int ip = off;
+            while (ip < limit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = table[h] - 1;
+                table[h] = ip + 1;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                int matchLength = MIN_MATCH;
+                int maxMatch = end - LAST_LITERALS - ip;
+                while (matchLength < maxMatch && src[ref + matchLength] == src[ip + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        op = writeLastLiterals(src, anchor, end - anchor, dst, op);
+        return Arrays.copyOf(dst, op);
+    }
+
+    /**
+     * 解压
+     *
+     * @param src 压缩数据
+     * @param off 起始位置
+     * @param len 长度
+     * @param originalLength 原始长度
+     * @return 原始数据
+     * @throws IllegalArgumentException 数据损坏时抛出
+     */
+    static byte[] decompress(byte[] src, int off, int len, int originalLength) {
+        byte[] dst = new byte[originalLength];
+        int ip = off;
+        int end = off + len;
+        int op = 0;
+        try {
+            while (true) {
+                int token = src[ip++] & 0xFF;
+                int literalLength = token >>> 4;
+                if (literalLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literalLength += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(src, ip, dst, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip >= end) {
+                    break;
+                }
+                int offset = (src[ip++] & 0xFF) | (src[ip++] & 0xFF) << 8;
+                int ref = op - offset;
+                if (offset == 0 || ref < 0) {
+                    throw new IllegalArgumentException("Corrupted LZ4 block: invalid offset " + offset + " at " + op);
+                }
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                // 匹配可能与输出重叠，逐字节复制
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Corrupted LZ4 block", e);
+        }
+        if (op != originalLength || ip != end) {
+            throw new IllegalArgumentException("Corrupted LZ4 block: expected " + originalLength + " bytes, got " + op);
+        }
+        return dst;
+    }
+
+    private static int writeSequence(byte[] src, int literalOff, int literalLength, int offset, int matchLength, byte[] dst, int op) {
+        int matchCode = matchLength - MIN_MATCH;
+        dst[op++] = (byte) (Math.min(literalLength, 15) << 4 | Math.min(matchCode, 15));
+        if (literalLength >= 15) {
+            op = writeLength(literalLength - 15, dst, op);
+        }
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        op += literalLength;
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+        if (matchCode >= 15) {
+            op = writeLength(matchCode - 15, dst, op);
+        }
+        return op;
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalOff, int literalLength, byte[] dst, int op) {
+        dst[op++] = (byte) (Math.min(literalLength, 15) << 4);
+        if (literalLength >= 15) {
+            op = writeLength(literalLength - 15, dst, op);
+        }
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] buf, int i) {
+        return (buf[i] & 0xFF) | (buf[i + 1] & 0xFF) << 8 | (buf[i + 2] & 0xFF) << 16 | (buf[i + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -0,0 +1,65 @@
+package cn.javgo.utils.serializer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Desc: RedisTemplate&lt;String, Object&gt; 序列化配置，配置 redis.serializer.type=compact 后以 {@link CompactRedisSerializer}
+ * 替换 Spring Boot 自动配置的 JDK 序列化，默认不生效。
+ * <p>
+ * 配置示例：
+ * <pre>
+ * redis.serializer.type=compact
+ * redis.serializer.compressThreshold=1024
+ * redis.serializer.requireRegistration=false
+ * redis.serializer.classes=cn.javgo.xxx.PermissionDTO,cn.javgo.xxx.DataRoleDTO
+ * </pre>
+ * 1. redis.serializer.classes 中的类按顺序分配注册号 1、2、3……，各节点配置必须一致，只能在末尾追加；
+ * 2. 切换后新写入的值为紧凑格式，旧的 JDK 序列化数据仍可读取；未升级的节点无法读取新格式，
+ * 需要先让所有节点升级到包含本类的版本（此时仍为 JDK 序列化），再统一配置 redis.serializer.type=compact；
+ * 3. 只替换值与 Hash 值的序列化器，键与 Hash 键仍使用 Spring Boot 默认的 JDK 序列化，切换前后同一个键的编码不变，已有数据无需迁移；
+ * 4. 应用自己定义了名为 redisTemplate 的 Bean 时本配置让出，不替换该 Bean，可自行把 compactRedisSerializer 设置为值序列化器；
+ * 5. 未配置或配置为其他值时本配置不生效，沿用 Spring Boot 自动配置的 redisTemplate。
+ * 分布式锁的 Lua 脚本直接读写字节，不受值序列化器影响。
+ *
+ * @author javgo
+ * @create 2026-10-17 04:00
+ */
+@Configuration
+@ConditionalOnProperty(name = "redis.serializer.type", havingValue = "compact")
+public class RedisSerializerConfiguration {
+
+    @Bean
+    public CompactRedisSerializer compactRedisSerializer(@Value("${redis.serializer.compressThreshold:1024}") int compressThreshold,
+                                                         @Value("${redis.serializer.requireRegistration:false}") boolean requireRegistration,
+                                                         @Value("${redis.serializer.classes:}") String classes) {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        CompactRedisSerializer serializer = new CompactRedisSerializer(compressThreshold, requireRegistration, classLoader);
+        int id = 1;
+        for (String name : StringUtils.commaDelimitedListToStringArray(classes)) {
+            if (StringUtils.hasText(name)) {
+                serializer.register(ClassUtils.resolveClassName(name.trim(), classLoader), id++);
+            }
+        }
+        return serializer;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "redisTemplate")
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                       CompactRedisSerializer compactRedisSerializer) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        // 键与 Hash 键保持默认的 JDK 序列化，与 Spring Boot 自动配置的 redisTemplate 编码一致
+        redisTemplate.setValueSerializer(compactRedisSerializer);
+        redisTemplate.setHashValueSerializer(compactRedisSerializer);
+        return redisTemplate;
+    }
+}
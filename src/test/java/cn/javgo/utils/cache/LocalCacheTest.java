@@ -0,0 +1,79 @@
+package cn.javgo.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 近端缓存本地层测试类
+ *
+ * @author javgo
+ * @create 2026-10-17 01:55
+ */
+public class LocalCacheTest {
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws InterruptedException {
+        LocalCache cache = new LocalCache("p:", 10, 50);
+        cache.put("p:a", "A", cache.version());
+        assertEquals("A", cache.get("p:a"));
+        Thread.sleep(80);
+        assertNull(cache.get("p:a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testSizeIsBoundedAndOldestEntriesAreEvicted() throws InterruptedException {
+        LocalCache cache = new LocalCache("p:", 4, 60_000);
+        for (int i = 0; i < 4; i++) {
+            cache.put("p:" + i, i, cache.version());
+            Thread.sleep(1);
+        }
+        for (int i = 4; i < 100; i++) {
+            cache.put("p:" + i, i, cache.version());
+            assertTrue(cache.size() <= 4);
+        }
+        // 最后写入的条目一定保留
+        assertEquals(99, cache.get("p:99"));
+    }
+
+    @Test
+    public void testEvictionFollowsWriteOrder() {
+        LocalCache cache = new LocalCache("p:", 4, 60_000);
+        for (int i = 0; i < 4; i++) {
+            cache.put("p:" + i, i, cache.version());
+        }
+        cache.put("p:4", 4, cache.version());
+        assertNull(cache.get("p:0"));
+
+        // 覆盖写入的条目移到队尾，淘汰时跳过旧的记录
+        cache.put("p:1", 1, cache.version());
+        cache.put("p:5", 5, cache.version());
+        assertNull(cache.get("p:2"));
+        assertEquals(1, cache.get("p:1"));
+        assertEquals(3, cache.get("p:3"));
+
+        // 删除后留下的记录不会导致多淘汰
+        cache.evict("p:3");
+        cache.put("p:6", 6, cache.version());
+        assertEquals(4, cache.size());
+        assertEquals(4, cache.get("p:4"));
+    }
+
+    @Test
+    public void testPutIsDroppedWhenInvalidatedDuringRead() {
+        LocalCache cache = new LocalCache("p:", 10, 60_000);
+        long version = cache.version();
+        // 从 Redis 读取期间收到失效通知
+        cache.evict("p:a");
+        cache.put("p:a", "stale", version);
+        assertNull(cache.get("p:a"));
+
+        cache.put("p:a", "fresh", cache.version());
+        assertEquals("fresh", cache.get("p:a"));
+        cache.clear();
+        assertNull(cache.get("p:a"));
+    }
+}
@@ -0,0 +1,111 @@
+package cn.javgo.utils.cache;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 两级缓存集成测试，启动嵌入式 Redis，两个 NearCache 实例模拟两个节点
+ *
+ * @author javgo
+ * @create 2026-10-17 02:00
+ */
+public class NearCacheTest {
+
+    private static final int PORT = 16420;
+
+    private static final String KEY = RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP + "admin";
+
+    private RedisServer server;
+
+    private JedisConnectionFactory connectionFactory;
+
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private NearCache first;
+
+    private NearCache second;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new RedisServer(PORT);
+        server.start();
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", PORT));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        String[] prefixes = {RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP};
+        first = new NearCache(redisTemplate, prefixes, 100, 60_000);
+        second = new NearCache(redisTemplate, prefixes, 100, 60_000);
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        first.shutdown();
+        second.shutdown();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void testReadsAreServedLocallyAfterFirstLoad() {
+        first.set(KEY, "v1");
+        assertEquals("v1", first.get(KEY));
+        // 绕过近端缓存修改 Redis，本地条目在失效前不变
+        redisTemplate.opsForValue().set(KEY, "v2");
+        assertEquals("v1", first.get(KEY));
+        assertTrue(first.hitRate(RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP) > 0);
+
+        first.invalidate(KEY);
+        assertEquals("v2", first.get(KEY));
+        // 不属于任何命名空间的键直接读 Redis
+        redisTemplate.opsForValue().set(RedisKeyPrefix.SESSION_KEY + "s", "s1");
+        assertEquals("s1", first.get(RedisKeyPrefix.SESSION_KEY + "s"));
+        assertEquals(1, first.localSize(RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP));
+    }
+
+    @Test
+    public void testWritesInvalidateOtherNodes() throws InterruptedException {
+        first.set(KEY, "v1");
+        assertEquals("v1", second.get(KEY));
+
+        first.set(KEY, "v2");
+        assertTrue(waitUntil(() -> second.localSize(RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP) == 0, 2_000));
+        assertEquals("v2", second.get(KEY));
+
+        String hashKey = KEY + ":fields";
+        first.putAll(hashKey, Map.of("1", "read"));
+        assertEquals("read", second.hashGet(hashKey, "1"));
+        first.putAll(hashKey, Map.of("1", "write"));
+        assertTrue(waitUntil(() -> "write".equals(second.hashGet(hashKey, "1")), 2_000));
+
+        first.invalidateAll(RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP);
+        assertTrue(waitUntil(() -> second.localSize(RedisKeyPrefix.ALL_PERMISSION_ID2DTO_MAP) == 0, 2_000));
+    }
+
+    private static boolean waitUntil(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,173 @@
+package cn.javgo.utils.cache;
+
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import cn.javgo.utils.distributed.impl.RedisLockTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 带击穿保护的读穿缓存测试类，启动嵌入式 Redis，两个 SingleFlightCache 实例共用内存锁后端，模拟两个节点
+ *
+ * @author javgo
+ * @create 2026-10-17 02:50
+ */
+public class SingleFlightCacheTest {
+
+    private static final int PORT = 16421;
+
+    private static final String KEY = RedisKeyPrefix.ALL_FRONTEND_PERMISSION + "all";
+
+    private RedisServer server;
+
+    private JedisConnectionFactory connectionFactory;
+
+    private RedisLockTestSupport lockSupport;
+
+    private SingleFlightCache first;
+
+    private SingleFlightCache second;
+
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new RedisServer(PORT);
+        server.start();
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", PORT));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        lockSupport = RedisLockTestSupport.inMemory();
+        first = newCache(redisTemplate);
+        second = newCache(redisTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        first.shutdown();
+        second.shutdown();
+        lockSupport.close();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            SingleFlightCache cache = i % 2 == 0 ? first : second;
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.getOrLoad(KEY, slowLoader("v1", 200), Duration.ofSeconds(10));
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("v1", result.get());
+        }
+        executor.shutdownNow();
+        // 两个节点、16 个线程只加载一次
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testServesStaleValueWhileAnotherNodeRebuilds() throws Exception {
+        assertEquals("v1", first.getOrLoad(KEY, slowLoader("v1", 0), Duration.ofMillis(100)));
+        Thread.sleep(150);
+
+        // 模拟其他节点正在重建
+        LockHandle rebuilding = CompletableFuture.supplyAsync(() ->
+                lockSupport.getLockService().acquire("cache_load:" + KEY, 30_000, 0)).join();
+        assertNotNull(rebuilding);
+        assertEquals("v1", second.getOrLoad(KEY, slowLoader("v2", 0), Duration.ofMillis(100)));
+        assertEquals(1, loads.get());
+        rebuilding.release();
+
+        assertEquals("v2", second.getOrLoad(KEY, slowLoader("v2", 0), Duration.ofMillis(100)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoaderFailureServesStaleValue() throws Exception {
+        assertEquals("v1", first.getOrLoad(KEY, slowLoader("v1", 0), Duration.ofMillis(100)));
+        Thread.sleep(150);
+        assertEquals("v1", first.getOrLoad(KEY, () -> {
+            throw new IllegalStateException("database unavailable");
+        }, Duration.ofMillis(100)));
+
+        first.evict(KEY);
+        assertThrows(IllegalStateException.class, () -> first.getOrLoad(KEY, () -> {
+            throw new IllegalStateException("database unavailable");
+        }, Duration.ofMillis(100)));
+    }
+
+    @Test
+    public void testRefreshesAheadOfExpiry() throws Exception {
+        // beta 足够大时，加载过一次的键在过期之前必定提前刷新
+        ReflectionTestUtils.setField(first, "beta", 1_000_000_000.0);
+        assertEquals("v1", first.getOrLoad(KEY, slowLoader("v1", 5), Duration.ofSeconds(10)));
+        // 调用方立即拿到当前值，刷新在后台进行
+        assertEquals("v1", first.getOrLoad(KEY, slowLoader("v2", 5), Duration.ofSeconds(10)));
+        // 等待后台刷新把新值写入 Redis，而不只是加载器被调用
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!"v2".equals(cachedValue()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("v2", cachedValue());
+        assertEquals(2, loads.get());
+        ReflectionTestUtils.setField(first, "beta", 0.0);
+        assertEquals("v2", first.getOrLoad(KEY, slowLoader("v3", 0), Duration.ofSeconds(10)));
+    }
+
+    private Object cachedValue() {
+        Object cached = redisTemplate.opsForValue().get(KEY);
+        return cached instanceof CachedValue cachedValue ? cachedValue.getValue() : null;
+    }
+
+    private Supplier<String> slowLoader(String value, long millis) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        };
+    }
+
+    private SingleFlightCache newCache(RedisTemplate<String, Object> redisTemplate) {
+        SingleFlightCache cache = new SingleFlightCache();
+        ReflectionTestUtils.setField(cache, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(cache, "redisDistributedLockService", lockSupport.getLockService());
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,68 @@
+package cn.javgo.utils.distributed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 异步分布式锁接口默认方法测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 13:40
+ */
+public class AsyncDistributedLockTest {
+
+    /**
+     * 单机内存实现，仅用于验证 withLockAsync 的加锁、释放顺序
+     */
+    private final Set<String> held = new HashSet<>();
+
+    private final AsyncDistributedLock lock = new AsyncDistributedLock() {
+        @Override
+        public CompletableFuture<LockHandle> lockAsync(String key, long expire, long waitMillis) {
+            return CompletableFuture.completedFuture(held.add(key) ? new LockHandle(key, "token", handle -> held.remove(key)) : null);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> releaseAsync(LockHandle handle) {
+            return CompletableFuture.completedFuture(held.remove(handle.getKey()));
+        }
+    };
+
+    @Test
+    public void testReleaseAfterActionCompletes() throws Exception {
+        CompletableFuture<String> action = new CompletableFuture<>();
+        CompletableFuture<String> result = lock.withLockAsync("order:1", 30_000, 0, () -> action);
+
+        assertTrue(held.contains("order:1"));
+        action.complete("done");
+        assertEquals("done", result.get());
+        assertFalse(held.contains("order:1"));
+    }
+
+    @Test
+    public void testReleaseAndPropagateActionFailure() {
+        CompletableFuture<String> result = lock.withLockAsync("order:1", 30_000, 0,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertFalse(held.contains("order:1"));
+    }
+
+    @Test
+    public void testFailWhenLockIsHeld() {
+        held.add("order:1");
+        CompletableFuture<String> result = lock.withLockAsync("order:1", 30_000, 0,
+                () -> CompletableFuture.completedFuture("never"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertEquals("Failed to acquire lock: order:1", e.getCause().getMessage());
+        assertTrue(held.contains("order:1"));
+    }
+}
@@ -0,0 +1,31 @@
+package cn.javgo.utils.distributed;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: RedisLock 锁上下文测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 17:50
+ */
+public class RedisLockContextTest {
+
+    @Test
+    public void testNestedHandlesAreStacked() {
+        assertNull(RedisLockContext.currentHandle());
+        assertEquals(0, RedisLockContext.currentFencingToken());
+
+        RedisLockContext.push(new LockHandle("order:1", "token", 7, handle -> true));
+        RedisLockContext.push(new LockHandle("order:2", "token", 9, handle -> true));
+        assertEquals(9, RedisLockContext.currentFencingToken());
+
+        RedisLockContext.pop();
+        assertEquals("order:1", RedisLockContext.currentHandle().getKey());
+        assertEquals(7, RedisLockContext.currentFencingToken());
+
+        RedisLockContext.pop();
+        assertNull(RedisLockContext.currentHandle());
+    }
+}
@@ -0,0 +1,73 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.ApiResponse;
+import cn.javgo.utils.common.enums.StatusCode;
+import cn.javgo.utils.distributed.anno.RedisLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 获取锁失败返回值工厂与启动校验测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 22:55
+ */
+public class LockFailureFactoryTest {
+
+    public static class LockedService {
+
+        @RedisLock(lockKey = "a")
+        public ApiResponse<Void> apiResponse() {
+            return ApiResponse.success();
+        }
+
+        @RedisLock(lockKey = "b")
+        public String message() {
+            return "ok";
+        }
+
+        @RedisLock(lockKey = "c")
+        public void job() {
+        }
+    }
+
+    public static class InvalidService {
+
+        @RedisLock(lockKey = "d")
+        public int count() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void testFailureValueFollowsReturnType() throws Throwable {
+        Object response = factory("apiResponse").create();
+        assertInstanceOf(ApiResponse.class, response);
+        assertEquals(StatusCode.LOCK_FAIL.getCode(), ((ApiResponse<?>) response).getCode());
+        assertEquals("busy", ((ApiResponse<?>) response).getMessage());
+        // ApiResponse 可变，每次失败返回新的实例
+        assertNotSame(response, factory("apiResponse").create());
+
+        assertEquals("busy", factory("message").create());
+        assertEquals("busy", assertThrows(IllegalStateException.class, () -> factory("job").create()).getMessage());
+    }
+
+    @Test
+    public void testUnsupportedReturnTypeIsRejectedAtStartup() throws NoSuchMethodException {
+        Method count = InvalidService.class.getMethod("count");
+        assertThrows(IllegalStateException.class, () -> LockFailureFactory.forMethod(count, StatusCode.LOCK_FAIL, "busy"));
+
+        LockMethodValidator validator = new LockMethodValidator();
+        LockedService valid = new LockedService();
+        assertSame(valid, validator.postProcessBeforeInitialization(valid, "lockedService"));
+        assertThrows(BeanInitializationException.class, () -> validator.postProcessBeforeInitialization(new InvalidService(), "invalidService"));
+    }
+
+    private static LockFailureFactory factory(String methodName) throws NoSuchMethodException {
+        return LockFailureFactory.forMethod(LockedService.class.getMethod(methodName), StatusCode.LOCK_FAIL, "busy");
+    }
+}
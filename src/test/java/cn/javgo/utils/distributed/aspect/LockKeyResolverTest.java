@@ -0,0 +1,63 @@
+package cn.javgo.utils.distributed.aspect;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelEvaluationException;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 锁键解析器测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 22:15
+ */
+public class LockKeyResolverTest {
+
+    public static class Order {
+
+        private final long id;
+
+        public Order(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    public void placeOrder(Order order, String region) {
+    }
+
+    private final LockKeyResolver resolver = new LockKeyResolver();
+
+    private final Method method;
+
+    public LockKeyResolverTest() throws NoSuchMethodException {
+        method = LockKeyResolverTest.class.getMethod("placeOrder", Order.class, String.class);
+    }
+
+    @Test
+    public void testConstantKeyIsReturnedAsIs() {
+        assertEquals("order:lock", resolver.resolve(method, "order:lock", new Object[]{new Order(1), "cn"}));
+    }
+
+    @Test
+    public void testExpressionIsEvaluatedAgainstArguments() {
+        Object[] args = {new Order(42), "cn"};
+        assertEquals("order:42", resolver.resolve(method, "'order:' + #order.id", args));
+        assertEquals("cn:42", resolver.resolve(method, "#p1 + ':' + #a0.getId()", args));
+        // 编译后的表达式对不同参数同样生效
+        for (int i = 0; i < 200; i++) {
+            assertEquals("order:" + i, resolver.resolve(method, "'order:' + #order.id", new Object[]{new Order(i), "cn"}));
+        }
+    }
+
+    @Test
+    public void testNullAndUnsafeExpressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(method, "#region", new Object[]{new Order(1), null}));
+        assertThrows(SpelEvaluationException.class, () -> resolver.resolve(method, "T(java.lang.System).exit(1) + #region", new Object[]{new Order(1), "cn"}));
+    }
+}
@@ -0,0 +1,99 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.anno.RedisLock;
+import cn.javgo.utils.distributed.impl.RedisLockTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: RedisLock 切面测试类，锁服务使用内存后端，不需要 Redis
+ *
+ * @author javgo
+ * @create 2026-10-16 22:20
+ */
+public class RedisLockSupportTest {
+
+    /**
+     * 被加锁的业务方法，进入后等待 gate 打开
+     */
+    public static class StockService {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        @RedisLock(lockKey = "'stock:' + #skuId", action = RedisLock.LockFailAction.GIVEUP)
+        public String deduct(long skuId) throws InterruptedException {
+            gate.await(5, TimeUnit.SECONDS);
+            return "ok:" + skuId;
+        }
+    }
+
+    private RedisLockTestSupport support;
+
+    private StockService target;
+
+    private StockService proxy;
+
+    @BeforeEach
+    public void setUp() {
+        support = RedisLockTestSupport.inMemory();
+        RedisLockSupport aspect = new RedisLockSupport();
+        ReflectionTestUtils.setField(aspect, "redisDistributedLockService", support.getLockService());
+
+        target = new StockService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        proxy = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        support.close();
+    }
+
+    @Test
+    public void testDifferentEntitiesDoNotSerialize() throws Exception {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> deduct(1));
+        awaitHeld("stock:1");
+
+        // 同一个实体获取锁失败，另一个实体不受影响
+        assertEquals("获取分布式锁失败", CompletableFuture.supplyAsync(() -> deduct(1)).get(5, TimeUnit.SECONDS));
+        LockHandle other = support.getLockService().acquire("stock:2", 30_000, 0);
+        assertNotNull(other);
+        other.release();
+
+        target.gate.countDown();
+        assertEquals("ok:1", first.get(5, TimeUnit.SECONDS));
+    }
+
+    private String deduct(long skuId) {
+        try {
+            return proxy.deduct(skuId);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 等待锁被其他线程持有
+     */
+    private void awaitHeld(String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        LockHandle handle;
+        while ((handle = support.getLockService().acquire(key, 30_000, 0)) != null) {
+            handle.release();
+            assertTrue(System.currentTimeMillis() < deadline, key + " was never acquired");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cn.javgo.utils.distributed.aspect;
+
+import cn.javgo.utils.common.ApiResponse;
+import cn.javgo.utils.distributed.anno.RedisSemaphore;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 限流描述测试类，不需要 Redis
+ *
+ * @author javgo
+ * @create 2026-10-17 05:15
+ */
+public class SemaphoreMethodDescriptorTest {
+
+    @RedisSemaphore(key = "report:export", permits = 2)
+    public ApiResponse<String> export(String region) {
+        return null;
+    }
+
+    @RedisSemaphore(key = "'report:' + #p0", permits = 2, failMsg = "busy")
+    public ApiResponse<String> exportByRegion(String region) {
+        return null;
+    }
+
+    private final LockKeyResolver keyResolver = new LockKeyResolver();
+
+    @Test
+    public void testConstantKeyIsNotEvaluated() throws NoSuchMethodException {
+        SemaphoreMethodDescriptor descriptor = of("export");
+        assertEquals("report:export", descriptor.resolveKey(new Object[]{"cn"}));
+    }
+
+    @Test
+    public void testExpressionKeyIsEvaluatedPerCall() throws Throwable {
+        SemaphoreMethodDescriptor descriptor = of("exportByRegion");
+        assertEquals("report:cn", descriptor.resolveKey(new Object[]{"cn"}));
+        assertEquals("report:us", descriptor.resolveKey(new Object[]{"us"}));
+        assertEquals("busy", ((ApiResponse<?>) descriptor.getFailureFactory().create()).getMessage());
+    }
+
+    private SemaphoreMethodDescriptor of(String name) throws NoSuchMethodException {
+        Method method = SemaphoreMethodDescriptorTest.class.getMethod(name, String.class);
+        return SemaphoreMethodDescriptor.of(method, method.getAnnotation(RedisSemaphore.class), keyResolver);
+    }
+}
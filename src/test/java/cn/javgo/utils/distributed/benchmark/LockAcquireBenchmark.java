@@ -0,0 +1,111 @@
+package cn.javgo.utils.distributed.benchmark;
+
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.impl.RedisDistributedLockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Desc: 加锁热路径基准测试：无竞争的加锁释放、重入加锁释放，以及 2 / 8 / 32 个线程竞争同一把锁。
+ * Use: mvn -Pbenchmark test -Djmh.args="LockAcquireBenchmark -prof gc"，
+ * 关注 gc.alloc.rate.norm（每次操作分配的字节数）与平均耗时，防止令牌、集合、lambda 等每次调用的分配回归。
+ *
+ * @author javgo
+ * @create 2026-10-16 21:25
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockAcquireBenchmark {
+
+    private static final long LEASE_MILLIS = 30_000;
+
+    /**
+     * 竞争时的最长等待时间，足够长以保证每次加锁都能成功
+     */
+    private static final long WAIT_MILLIS = 10_000;
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    /**
+     * 每个线程独占的键，线程间互不竞争
+     */
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        public final String key = "bench:uncontended:" + THREAD_SEQ.incrementAndGet();
+    }
+
+    /**
+     * 每个线程在迭代开始时先持有一把外层锁，基准方法在其上重入
+     */
+    @State(Scope.Thread)
+    public static class HeldLock {
+
+        public final String key = "bench:reentrant:" + THREAD_SEQ.incrementAndGet();
+
+        private LockHandle outer;
+
+        @Setup(Level.Iteration)
+        public void acquire(LockBenchmarkState state) {
+            outer = state.getLockService().acquire(key, LEASE_MILLIS, 0);
+        }
+
+        @TearDown(Level.Iteration)
+        public void release() {
+            outer.release();
+        }
+    }
+
+    @Benchmark
+    public boolean uncontended(LockBenchmarkState state, ThreadKey threadKey) {
+        return lockAndRelease(state.getLockService(), threadKey.key, 0);
+    }
+
+    @Benchmark
+    public boolean reentrant(LockBenchmarkState state, HeldLock held) {
+        return lockAndRelease(state.getLockService(), held.key, 0);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean contended2(LockBenchmarkState state) {
+        return lockAndRelease(state.getLockService(), "bench:contended", WAIT_MILLIS);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean contended8(LockBenchmarkState state) {
+        return lockAndRelease(state.getLockService(), "bench:contended", WAIT_MILLIS);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean contended32(LockBenchmarkState state) {
+        return lockAndRelease(state.getLockService(), "bench:contended", WAIT_MILLIS);
+    }
+
+    private static boolean lockAndRelease(RedisDistributedLockService lockService, String key, long waitMillis) {
+        LockHandle handle = lockService.acquire(key, LEASE_MILLIS, waitMillis);
+        if (handle == null) {
+            throw new IllegalStateException("Failed to acquire benchmark lock " + key);
+        }
+        return handle.release();
+    }
+}
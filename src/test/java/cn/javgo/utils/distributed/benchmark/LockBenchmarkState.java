@@ -0,0 +1,61 @@
+package cn.javgo.utils.distributed.benchmark;
+
+import cn.javgo.utils.distributed.impl.RedisDistributedLockService;
+import cn.javgo.utils.distributed.impl.RedisLockTestSupport;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import redis.embedded.RedisServer;
+
+/**
+ * Desc: 基准测试共用的锁服务状态，按 backend 参数组装内存后端或 Redis 后端的 RedisDistributedLockService。
+ * Use: Redis 后端默认在 benchmark.redis.port（默认 16400）端口启动嵌入式 Redis；指定 -Dredis.host=127.0.0.1 [-Dredis.port=6379] 时改为连接已有的 Redis。
+ *
+ * @author javgo
+ * @create 2026-10-16 21:20
+ */
+@State(Scope.Benchmark)
+public class LockBenchmarkState {
+
+    /**
+     * 锁后端：memory 为进程内实现，redis 为 Redis 实现
+     */
+    @Param({"memory", "redis"})
+    public String backend;
+
+    private RedisServer redisServer;
+
+    private RedisLockTestSupport support;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("memory".equals(backend)) {
+            support = RedisLockTestSupport.inMemory();
+            return;
+        }
+        String host = System.getProperty("redis.host");
+        int port = Integer.getInteger("redis.port", 6379);
+        if (host == null) {
+            host = "127.0.0.1";
+            port = Integer.getInteger("benchmark.redis.port", 16400);
+            redisServer = new RedisServer(port);
+            redisServer.start();
+        }
+        support = new RedisLockTestSupport(RedisLockTestSupport.Driver.JEDIS, host, port);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        support.close();
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    public RedisDistributedLockService getLockService() {
+        return support.getLockService();
+    }
+}
@@ -0,0 +1,76 @@
+package cn.javgo.utils.distributed.benchmark;
+
+import cn.javgo.utils.distributed.aspect.LockKeyResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: 锁键解析基准测试，对比常量键与 SpEL 表达式键（属性访问、字符串拼接）每次调用的耗时与分配。
+ * Use: mvn -Pbenchmark test -Djmh.args="LockKeyResolverBenchmark -prof gc"
+ *
+ * @author javgo
+ * @create 2026-10-16 22:25
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockKeyResolverBenchmark {
+
+    public static class Order {
+
+        private final long id;
+
+        public Order(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    public void placeOrder(Order order, String region) {
+    }
+
+    private final LockKeyResolver resolver = new LockKeyResolver();
+
+    private Method method;
+
+    private Object[] args;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        method = LockKeyResolverBenchmark.class.getMethod("placeOrder", Order.class, String.class);
+        args = new Object[]{new Order(10086), "cn"};
+    }
+
+    @Benchmark
+    public String constant() {
+        return resolver.resolve(method, "order:lock", args);
+    }
+
+    @Benchmark
+    public String property() {
+        return resolver.resolve(method, "#order.id", args);
+    }
+
+    @Benchmark
+    public String concat() {
+        return resolver.resolve(method, "'order:' + #region + ':' + #order.id", args);
+    }
+}
@@ -0,0 +1,87 @@
+package cn.javgo.utils.distributed.benchmark;
+
+import cn.javgo.utils.distributed.LockHandle;
+import cn.javgo.utils.distributed.anno.RedisLock;
+import cn.javgo.utils.distributed.aspect.RedisLockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: @RedisLock 切面开销基准测试，对比直接调用、手动加锁释放与经过切面代理三种方式，切面代理与手动加锁之差即为切面（代理、注解解析、上下文、观测）的开销。
+ * Use: mvn -Pbenchmark test -Djmh.args="RedisLockAspectBenchmark -prof gc"
+ *
+ * @author javgo
+ * @create 2026-10-16 21:30
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisLockAspectBenchmark {
+
+    private static final String LOCK_KEY = "bench:aspect";
+
+    /**
+     * 被加锁的业务方法
+     */
+    public static class OrderService {
+
+        private long counter;
+
+        @RedisLock(lockKey = LOCK_KEY, action = RedisLock.LockFailAction.GIVEUP)
+        public long placeOrder() {
+            return ++counter;
+        }
+    }
+
+    private OrderService target;
+
+    private OrderService proxy;
+
+    @Setup(Level.Trial)
+    public void setUp(LockBenchmarkState state) {
+        RedisLockSupport aspect = new RedisLockSupport();
+        ReflectionTestUtils.setField(aspect, "redisDistributedLockService", state.getLockService());
+
+        target = new OrderService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        proxy = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public long direct() {
+        return target.placeOrder();
+    }
+
+    @Benchmark
+    public long manual(LockBenchmarkState state) {
+        LockHandle handle = state.getLockService().acquire(LOCK_KEY, 30_000, 0);
+        try {
+            return target.placeOrder();
+        } finally {
+            handle.release();
+        }
+    }
+
+    @Benchmark
+    public long aspect() {
+        return proxy.placeOrder();
+    }
+}
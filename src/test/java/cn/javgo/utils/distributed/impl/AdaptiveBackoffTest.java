@@ -0,0 +1,80 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 自适应退避测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 23:15
+ */
+public class AdaptiveBackoffTest {
+
+    private final AdaptiveBackoff backoff = new AdaptiveBackoff(10, 1_000, 2);
+
+    @Test
+    public void testDelaysAreJitteredWithinBounds() {
+        Set<Long> delays = new HashSet<>();
+        long delay = 0;
+        for (int i = 0; i < 100; i++) {
+            long next = backoff.nextDelay("lock:a", delay);
+            assertTrue(next >= 10 && next <= Math.max(delay, 10) * 3 && next <= 1_000, "delay " + next);
+            delays.add(next);
+            delay = next;
+        }
+        // 等待者之间不会按相同节奏重试
+        assertTrue(delays.size() > 10);
+    }
+
+    @Test
+    public void testDelaysFollowObservedHoldTime() {
+        for (int i = 0; i < 50; i++) {
+            backoff.recordHold("lock:short", TimeUnit.MILLISECONDS.toNanos(20));
+            backoff.recordHold("lock:long", TimeUnit.MILLISECONDS.toNanos(800));
+        }
+        assertEquals(20, TimeUnit.NANOSECONDS.toMillis(backoff.estimatedHoldNanos("lock:short")), 1);
+
+        long delay = 0;
+        for (int i = 0; i < 20; i++) {
+            delay = backoff.nextDelay("lock:short", delay);
+            assertTrue(delay >= 10 && delay <= 20, "delay " + delay);
+        }
+        for (int i = 0; i < 20; i++) {
+            delay = backoff.nextDelay("lock:long", delay);
+            assertTrue(delay >= 200 && delay <= 800, "delay " + delay);
+        }
+    }
+
+    @Test
+    public void testTrackedKeysAreBounded() {
+        backoff.recordHold("lock:a", 1_000_000);
+        backoff.recordHold("lock:b", 1_000_000);
+        backoff.recordHold("lock:c", 1_000_000);
+        int tracked = 0;
+        for (String key : new String[]{"lock:a", "lock:b", "lock:c"}) {
+            if (backoff.estimatedHoldNanos(key) >= 0) {
+                tracked++;
+            }
+        }
+        assertEquals(2, tracked);
+        assertTrue(backoff.estimatedHoldNanos("lock:c") >= 0);
+    }
+
+    @Test
+    public void testRecentlyRecordedKeysSurviveEviction() {
+        backoff.recordHold("lock:hot", 1_000_000);
+        backoff.recordHold("lock:cold", 1_000_000);
+        backoff.recordHold("lock:hot", 3_000_000);
+        // lock:hot 最早进入但最近被记录过，淘汰 lock:cold
+        backoff.recordHold("lock:new", 1_000_000);
+        assertEquals(1_400_000, backoff.estimatedHoldNanos("lock:hot"));
+        assertEquals(-1, backoff.estimatedHoldNanos("lock:cold"));
+        assertEquals(1_000_000, backoff.estimatedHoldNanos("lock:new"));
+    }
+}
@@ -0,0 +1,103 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 锁键哈希标签策略与槽位路由测试类，不需要 Redis Cluster
+ *
+ * @author javgo
+ * @create 2026-10-16 23:55
+ */
+public class ClusterSlotRouterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHashTagKeepsRelatedKeysInOneSlot() {
+        ClusterKeyStrategy byKey = new ClusterKeyStrategy(ClusterKeyStrategy.HashTag.KEY, 16);
+        String lockKey = RedisKeyPrefix.LOCK_KEY + byKey.tag("order:1");
+        assertEquals("javgo_cn:lock:{order:1}", lockKey);
+        assertEquals(ClusterSlotRouter.slot(lockKey), ClusterSlotRouter.slot(RedisLockBackend.getFenceKey(lockKey)));
+        assertEquals(ClusterSlotRouter.slot(lockKey), ClusterSlotRouter.slot(ClusterKeyStrategy.sameSlot(lockKey) + ":writer"));
+        // 已有哈希标签的键原样使用
+        assertEquals("order:{1}:item", byKey.tag("order:{1}:item"));
+        assertEquals("order:1", ClusterKeyStrategy.NONE.tag("order:1"));
+
+        ClusterKeyStrategy byBucket = new ClusterKeyStrategy(ClusterKeyStrategy.HashTag.BUCKET, 4);
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String key = RedisKeyPrefix.LOCK_KEY + byBucket.tag("order:" + i);
+            assertEquals(ClusterSlotRouter.slot(key), ClusterSlotRouter.slot(RedisLockBackend.getFenceKey(key)));
+            slots.add(ClusterSlotRouter.slot(key));
+        }
+        assertEquals(4, slots.size());
+    }
+
+    @Test
+    public void testDerivedKeysShareSlotWithoutHashTag() {
+        for (String key : new String[]{"order:1", "订单:2", "a{b"}) {
+            String lockKey = RedisKeyPrefix.LOCK_KEY + ClusterKeyStrategy.NONE.tag(key);
+            String fenceKey = RedisLockBackend.getFenceKey(lockKey);
+            assertTrue(fenceKey.startsWith(RedisKeyPrefix.LOCK_FENCE_KEY), fenceKey);
+            assertEquals(ClusterSlotRouter.slot(lockKey), ClusterSlotRouter.slot(fenceKey), key);
+            assertEquals(ClusterSlotRouter.slot(lockKey), ClusterSlotRouter.slot(ClusterKeyStrategy.sameSlot(lockKey) + ":writer"), key);
+        }
+        assertEquals(RedisKeyPrefix.LOCK_FENCE_KEY + "{" + RedisKeyPrefix.LOCK_KEY + "order:1}",
+                RedisLockBackend.getFenceKey(RedisKeyPrefix.LOCK_KEY + "order:1"));
+    }
+
+    @Test
+    public void testStandaloneRouterNeverSplits() {
+        List<String> keys = Arrays.asList("lock:{a}", "lock:{b}", "lock:{c}");
+        assertEquals(1, ClusterSlotRouter.standalone().groupBySlot(keys).size());
+        List<List<String>> calls = ClusterSlotRouter.standalone().executeBySlot(keys, (groupKeys, indexes) -> groupKeys);
+        assertEquals(List.of(keys), calls);
+    }
+
+    @Test
+    public void testKeysAreGroupedBySlotAndDispatchedPerNode() {
+        // 两个节点：槽位小于 8192 的在 node-1，其余在 node-2
+        ClusterSlotRouter router = new ClusterSlotRouter(slot -> slot < 8192 ? "node-1" : "node-2", executor);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add("lock:{" + (i % 5) + "}order:" + i);
+        }
+        List<List<Integer>> groups = router.groupBySlot(keys);
+        assertEquals(5, groups.size());
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        long[] covered = new long[keys.size()];
+        List<Integer> sizes = router.executeBySlot(keys, (groupKeys, indexes) -> {
+            threads.add(Thread.currentThread().getName());
+            int slot = ClusterSlotRouter.slot(groupKeys.get(0));
+            for (int i = 0; i < groupKeys.size(); i++) {
+                assertEquals(slot, ClusterSlotRouter.slot(groupKeys.get(i)));
+                assertEquals(keys.get(indexes.get(i)), groupKeys.get(i));
+                covered[indexes.get(i)]++;
+            }
+            return groupKeys.size();
+        });
+        assertEquals(20, sizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(Arrays.stream(covered).allMatch(count -> count == 1));
+        // 槽位分布在两个节点上，各节点的任务在线程池中并行执行
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+}
@@ -0,0 +1,60 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 使用内存后端运行 {@link RedisDistributedLockServiceTest} 的全部用例（不需要 Redis），并验证内存后端的过期与续期
+ *
+ * @author javgo
+ * @create 2026-10-16 19:50
+ */
+public class InMemoryLockBackendTest extends RedisDistributedLockServiceTest {
+
+    @Override
+    protected RedisLockTestSupport createSupport() {
+        return RedisLockTestSupport.inMemory();
+    }
+
+    @Test
+    public void testExpiredLockCanBeTakenByOtherOwner() throws Exception {
+        InMemoryLockBackend backend = new InMemoryLockBackend(new LockWaitQueue(null));
+        assertEquals(1, backend.tryLock("lock:a", "owner-1", 50)[0]);
+        assertEquals(0, backend.tryLock("lock:a", "owner-2", 50)[0]);
+
+        Thread.sleep(80);
+        long[] result = backend.tryLock("lock:a", "owner-2", 50);
+        assertEquals(1, result[0]);
+        assertEquals(2, result[1]);
+        // 原持有者的锁已过期，释放失败
+        assertEquals(-1, backend.unlock("lock:a", "owner-1"));
+    }
+
+    @Test
+    public void testRenewOnlyExtendsOwnLease() throws Exception {
+        InMemoryLockBackend backend = new InMemoryLockBackend(new LockWaitQueue(null));
+        backend.tryLock("lock:a", "owner-1", 100);
+        boolean[] renewed = backend.renew(Arrays.asList(
+                new Lease("lock:a", "owner-1", 300, leases -> null, lease -> { }),
+                new Lease("lock:a", "owner-2", 300, leases -> null, lease -> { })));
+        assertArrayEquals(new boolean[]{true, false}, renewed);
+
+        Thread.sleep(150);
+        assertEquals(0, backend.tryLock("lock:a", "owner-2", 100)[0]);
+    }
+
+    @Test
+    public void testTryLockAllRollsBackOnConflict() {
+        InMemoryLockBackend backend = new InMemoryLockBackend(new LockWaitQueue(null));
+        backend.tryLock("lock:b", "owner-2", 30_000);
+
+        assertArrayEquals(new long[]{0, 2}, backend.tryLockAll(Arrays.asList("lock:a", "lock:b"), "owner-1", 30_000));
+        // lock:a 已回滚，可以被其他持有者获取
+        assertEquals(1, backend.tryLock("lock:a", "owner-3", 30_000)[0]);
+        assertArrayEquals(new long[]{-1}, backend.unlockAll(Collections.singletonList("lock:a"), "owner-1"));
+    }
+}
@@ -0,0 +1,126 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 领导者选举测试类，两个选举器共用内存后端与本地成员登记，模拟集群中的两个节点，不需要 Redis
+ *
+ * @author javgo
+ * @create 2026-10-17 01:10
+ */
+public class LeaderElectorTest {
+
+    private final LeaseWatchdog leaseWatchdog = new LeaseWatchdog(50, 500);
+
+    private final LockWaitQueue lockWaitQueue = new LockWaitQueue(null);
+
+    private final LockBackend lockBackend = new InMemoryLockBackend(lockWaitQueue);
+
+    private final ElectionMembership membership = ElectionMembership.local();
+
+    private final List<LeaderElector> electors = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        electors.forEach(LeaderElector::shutdown);
+        leaseWatchdog.shutdown();
+    }
+
+    @Test
+    public void testOnlyOneLeaderAndFollowerTakesOverOnLeave() throws InterruptedException {
+        leaseWatchdog.start();
+        LeaderElector first = newElector();
+        LeaderElector second = newElector();
+        List<String> events = new CopyOnWriteArrayList<>();
+        second.addListener((group, leader) -> events.add(group + ":" + leader));
+
+        assertTrue(first.join("report"));
+        assertFalse(second.join("report"));
+        assertTrue(first.getFencingToken("report") > 0);
+        assertEquals(0, second.getFencingToken("report"));
+
+        // 租约由看门狗续期，超过租期后领导者不变
+        Thread.sleep(800);
+        assertTrue(first.isLeader("report"));
+        assertFalse(second.join("report"));
+
+        long previousToken = first.getFencingToken("report");
+        first.leave("report");
+        assertFalse(first.isLeader("report"));
+        // 跟随者被释放通知唤醒，不必等到检查周期
+        assertTrue(waitUntil(() -> second.isLeader("report"), 150));
+        assertTrue(second.getFencingToken("report") > previousToken);
+        // 监听器在当选之后于竞选线程中回调
+        assertTrue(waitUntil(() -> !events.isEmpty(), 1_000));
+        assertEquals(List.of("report:true"), events);
+    }
+
+    @Test
+    public void testFollowerTakesOverWhenLeaseExpires() throws InterruptedException {
+        // 看门狗未启动，领导者的租约不会续期，模拟领导者宕机
+        LeaderElector first = newElector();
+        LeaderElector second = newElector();
+        assertTrue(first.join("report"));
+        assertFalse(second.join("report"));
+        assertTrue(waitUntil(() -> second.isLeader("report"), 2_000));
+        assertFalse(first.isLeader("report"));
+    }
+
+    @Test
+    public void testPartitionsAreSpreadAcrossMembers() throws InterruptedException {
+        leaseWatchdog.start();
+        LeaderElector first = newElector();
+        LeaderElector second = newElector();
+
+        // 只有一个成员时持有全部分片
+        assertEquals(List.of(0, 1, 2, 3), first.joinPartitioned("orders", 4));
+        assertTrue(second.joinPartitioned("orders", 4).isEmpty());
+
+        // 第二个成员加入后，第一个成员卸任多出的分片，由第二个成员接任
+        assertTrue(waitUntil(() -> first.ownedPartitions("orders").size() == 2 && second.ownedPartitions("orders").size() == 2, 2_000));
+        Set<Integer> all = new HashSet<>(first.ownedPartitions("orders"));
+        all.addAll(second.ownedPartitions("orders"));
+        assertEquals(Set.of(0, 1, 2, 3), all);
+
+        // 成员退出后，剩余成员接任全部分片
+        first.leave("orders");
+        assertTrue(waitUntil(() -> second.ownedPartitions("orders").size() == 4, 2_000));
+        assertThrows(IllegalStateException.class, () -> second.joinPartitioned("orders", 8));
+        assertThrows(IllegalStateException.class, () -> second.join("orders"));
+    }
+
+    private LeaderElector newElector() {
+        LeaderElector elector = new LeaderElector();
+        ReflectionTestUtils.setField(elector, "lockBackend", lockBackend);
+        ReflectionTestUtils.setField(elector, "leaseWatchdog", leaseWatchdog);
+        ReflectionTestUtils.setField(elector, "lockWaitQueue", lockWaitQueue);
+        ReflectionTestUtils.setField(elector, "membership", membership);
+        ReflectionTestUtils.setField(elector, "leaseMillis", 300L);
+        ReflectionTestUtils.setField(elector, "checkMillis", 100L);
+        elector.init();
+        electors.add(elector);
+        return elector;
+    }
+
+    private static boolean waitUntil(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+}
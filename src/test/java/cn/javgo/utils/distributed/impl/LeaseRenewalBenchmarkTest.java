@@ -0,0 +1,130 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Desc: 续期方式基准测试，对比持有 1 万把锁时"逐把检查后续期（两次往返）"与"批量续期脚本"两种方式一轮续期的耗时与 Redis 命令数。
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=LeaseRenewalBenchmarkTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 10:05
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class LeaseRenewalBenchmarkTest {
+
+    private static final int LOCKS = 10_000;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final long LEASE_MILLIS = 60_000;
+
+    private static final String KEY_PREFIX = "javgo_cn:lock:bench:";
+
+    private Jedis jedis;
+
+    @BeforeEach
+    public void setUp() {
+        jedis = new Jedis(System.getProperty("redis.host"), Integer.getInteger("redis.port", 6379));
+        Pipeline pipeline = jedis.pipelined();
+        for (int i = 0; i < LOCKS; i++) {
+            pipeline.hset(KEY_PREFIX + i, token(i), "1");
+            pipeline.pexpire(KEY_PREFIX + i, LEASE_MILLIS);
+        }
+        pipeline.sync();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Pipeline pipeline = jedis.pipelined();
+        for (int i = 0; i < LOCKS; i++) {
+            pipeline.del(KEY_PREFIX + i);
+        }
+        pipeline.sync();
+        jedis.close();
+    }
+
+    @Test
+    public void testCompareRenewalApproaches() {
+        // 预热
+        renewOneByOne();
+        renewInBatches();
+
+        long commandsBefore = totalCommands();
+        long start = System.nanoTime();
+        int renewed = renewOneByOne();
+        report("per-lock check + pexpire", renewed, System.nanoTime() - start, totalCommands() - commandsBefore - 1, LOCKS * 2);
+        assertEquals(LOCKS, renewed);
+
+        commandsBefore = totalCommands();
+        start = System.nanoTime();
+        renewed = renewInBatches();
+        report("batch renew script", renewed, System.nanoTime() - start, totalCommands() - commandsBefore - 1, (LOCKS + BATCH_SIZE - 1) / BATCH_SIZE);
+        assertEquals(LOCKS, renewed);
+    }
+
+    /**
+     * 原有方式：每把锁先校验持有者，再重置过期时间，两次网络往返
+     */
+    private int renewOneByOne() {
+        int renewed = 0;
+        for (int i = 0; i < LOCKS; i++) {
+            String key = KEY_PREFIX + i;
+            if (jedis.hexists(key, token(i)) && jedis.pexpire(key, LEASE_MILLIS) == 1) {
+                renewed++;
+            }
+        }
+        return renewed;
+    }
+
+    /**
+     * 批量方式：每 BATCH_SIZE 把锁一次批量续期脚本
+     */
+    private int renewInBatches() {
+        int renewed = 0;
+        for (int from = 0; from < LOCKS; from += BATCH_SIZE) {
+            List<String> keys = new ArrayList<>(BATCH_SIZE);
+            List<String> args = new ArrayList<>(BATCH_SIZE * 2);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, LOCKS); i++) {
+                keys.add(KEY_PREFIX + i);
+                args.add(token(i));
+                args.add(String.valueOf(LEASE_MILLIS));
+            }
+            List<?> results = (List<?>) jedis.eval(RedisLockBackend.BATCH_RENEW_LUA_SCRIPT, keys, args);
+            for (Object result : results) {
+                if (Long.valueOf(1L).equals(result)) {
+                    renewed++;
+                }
+            }
+        }
+        return renewed;
+    }
+
+    private long totalCommands() {
+        for (String line : jedis.info("stats").split("\r\n")) {
+            if (line.startsWith("total_commands_processed:")) {
+                return Long.parseLong(line.substring(line.indexOf(':') + 1));
+            }
+        }
+        return 0;
+    }
+
+    private static String token(int i) {
+        return "token-" + i;
+    }
+
+    private static void report(String approach, int renewed, long elapsedNanos, long redisCommands, int roundTrips) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-26s renewed=%d elapsed=%.1f ms round-trips=%d redis-commands=%d renewals/s=%.0f redis-ops/s=%.0f%n",
+                approach, renewed, seconds * 1000, roundTrips, redisCommands, renewed / seconds, redisCommands / seconds);
+    }
+}
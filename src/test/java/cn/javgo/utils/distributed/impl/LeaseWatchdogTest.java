@@ -0,0 +1,94 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 租约看门狗测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 09:40
+ */
+public class LeaseWatchdogTest {
+
+    private LeaseWatchdog watchdog;
+
+    @BeforeEach
+    public void setUp() {
+        watchdog = new LeaseWatchdog(10, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watchdog.shutdown();
+    }
+
+    @Test
+    public void testRenewDueLeasesInBatches() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        LeaseRenewer renewer = leases -> {
+            batchSizes.add(leases.size());
+            boolean[] results = new boolean[leases.size()];
+            Arrays.fill(results, true);
+            return results;
+        };
+        for (int i = 0; i < 5; i++) {
+            watchdog.register(new Lease("lock:" + i, "token", 300, renewer, null));
+        }
+
+        Thread.sleep(120);
+        watchdog.tick();
+
+        assertEquals(List.of(2, 2, 1), new ArrayList<>(batchSizes));
+        assertEquals(5, watchdog.size());
+    }
+
+    @Test
+    public void testReportLostLeaseToOwner() throws InterruptedException {
+        Set<String> lost = ConcurrentHashMap.newKeySet();
+        LeaseRenewer renewer = leases -> {
+            boolean[] results = new boolean[leases.size()];
+            for (int i = 0; i < leases.size(); i++) {
+                results[i] = !leases.get(i).getKey().equals("lock:lost");
+            }
+            return results;
+        };
+        watchdog.register(new Lease("lock:held", "token", 300, renewer, lease -> lost.add(lease.getKey())));
+        watchdog.register(new Lease("lock:lost", "token", 300, renewer, lease -> lost.add(lease.getKey())));
+
+        Thread.sleep(120);
+        watchdog.tick();
+
+        assertEquals(Set.of("lock:lost"), lost);
+        assertTrue(watchdog.unregister("lock:lost", "token").isLost());
+        assertFalse(watchdog.unregister("lock:held", "token").isLost());
+        assertNull(watchdog.unregister("lock:held", "token"));
+    }
+
+    @Test
+    public void testKeepLeaseOnRenewErrorUntilExpired() throws InterruptedException {
+        LeaseRenewer renewer = leases -> {
+            throw new IllegalStateException("redis unavailable");
+        };
+        Lease lease = new Lease("lock:flaky", "token", 300, renewer, null);
+        watchdog.register(lease);
+
+        Thread.sleep(120);
+        watchdog.tick();
+        assertFalse(lease.isLost());
+
+        Thread.sleep(250);
+        watchdog.tick();
+        assertTrue(lease.isLost());
+    }
+}
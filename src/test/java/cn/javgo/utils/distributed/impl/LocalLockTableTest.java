@@ -0,0 +1,79 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 本地锁表测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 11:25
+ */
+public class LocalLockTableTest {
+
+    private final LocalLockTable localLocks = new LocalLockTable();
+
+    @Test
+    public void testOnlyOneLocalHolderPerKey() throws InterruptedException {
+        assertTrue(localLocks.tryAcquire("order:1", "owner-a", 0));
+        assertFalse(localLocks.tryAcquire("order:1", "owner-b", 10));
+        assertTrue(localLocks.tryAcquire("order:2", "owner-b", 0));
+
+        localLocks.release("order:1", "owner-a");
+        localLocks.release("order:2", "owner-b");
+        assertEquals(0, localLocks.size());
+    }
+
+    @Test
+    public void testReentrantForSameOwner() throws InterruptedException {
+        assertTrue(localLocks.tryAcquire("order:1", "owner-a", 0));
+        assertTrue(localLocks.tryAcquire("order:1", "owner-a", 0));
+
+        localLocks.release("order:1", "owner-a");
+        assertFalse(localLocks.tryAcquire("order:1", "owner-b", 0));
+        // 非持有者的释放被忽略
+        localLocks.release("order:1", "owner-b");
+        assertFalse(localLocks.tryAcquire("order:1", "owner-b", 0));
+
+        localLocks.release("order:1", "owner-a");
+        assertTrue(localLocks.tryAcquire("order:1", "owner-b", 0));
+        localLocks.release("order:1", "owner-b");
+        assertEquals(0, localLocks.size());
+    }
+
+    @Test
+    public void testHandOffToWaitersInArrivalOrder() throws InterruptedException {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        assertTrue(localLocks.tryAcquire("order:1", "holder", 0));
+
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            int id = i;
+            Thread waiter = new Thread(() -> {
+                try {
+                    if (localLocks.tryAcquire("order:1", "waiter-" + id, 5_000)) {
+                        order.add(id);
+                        localLocks.release("order:1", "waiter-" + id);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            waiter.start();
+            // 保证等待者按编号依次进入队列
+            Thread.sleep(50);
+        }
+
+        localLocks.release("order:1", "holder");
+        done.await();
+        assertEquals(List.of(0, 1, 2), order);
+        assertEquals(0, localLocks.size());
+    }
+}
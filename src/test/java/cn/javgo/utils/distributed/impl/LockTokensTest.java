@@ -0,0 +1,23 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 锁持有者标识测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 21:55
+ */
+public class LockTokensTest {
+
+    @Test
+    public void testTokensAreDistinct() {
+        String owner = LockTokens.currentThread();
+        assertEquals(owner, LockTokens.currentThread());
+        assertTrue(owner.startsWith(LockTokens.JVM_ID + ":"));
+        assertNotEquals(LockTokens.next(), LockTokens.next());
+        assertFalse(LockTokens.next().contains(":"));
+    }
+}
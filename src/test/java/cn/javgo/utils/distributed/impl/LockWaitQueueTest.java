@@ -0,0 +1,97 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 锁等待队列测试类
+ *
+ * @author javgo
+ * @create 2026-10-16 10:52
+ */
+public class LockWaitQueueTest {
+
+    private final LockWaitQueue queue = new LockWaitQueue(null);
+
+    @Test
+    public void testSignalWakesExactlyOneWaiter() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return queue.await("lock:order", 500);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            // 等待三个线程都进入等待队列
+            Thread.sleep(100);
+
+            long start = System.nanoTime();
+            queue.signal("lock:order");
+            CompletableFuture.anyOf(results.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 300);
+
+            long woken = 0;
+            for (CompletableFuture<Boolean> result : results) {
+                if (result.get(1, TimeUnit.SECONDS)) {
+                    woken++;
+                }
+            }
+            assertEquals(1, woken);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAwaitTimesOutWithoutSignal() throws InterruptedException {
+        assertFalse(queue.await("lock:idle", 20));
+        // 超时的等待者已出队，信号不会丢给它
+        queue.signal("lock:idle");
+    }
+
+    @Test
+    public void testSignalBetweenRegisterAndAwaitIsNotLost() throws InterruptedException {
+        LockWaitQueue.Registration registration = queue.register("lock:gap");
+        // 模拟加锁尝试失败之后、开始等待之前锁被释放
+        queue.signal("lock:gap");
+
+        long start = System.nanoTime();
+        assertTrue(queue.await(registration, 1000));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 300);
+        assertEquals(0, queue.waiting("lock:gap"));
+    }
+
+    @Test
+    public void testCancelRemovesRegistration() {
+        LockWaitQueue.Registration registration = queue.register("lock:cancel");
+        assertEquals(1, queue.waiting("lock:cancel"));
+        queue.cancel(registration);
+        assertEquals(0, queue.waiting("lock:cancel"));
+    }
+
+    @Test
+    public void testRejectedAsyncAwaitRemovesWaiter() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        timer.shutdown();
+        LockWaitQueue.Registration registration = queue.register("lock:rejected");
+        assertThrows(RejectedExecutionException.class, () -> queue.awaitAsync(registration, 100, timer));
+        assertEquals(0, queue.waiting("lock:rejected"));
+        assertThrows(RejectedExecutionException.class, () -> queue.awaitAsync("lock:rejected", 100, timer));
+        assertEquals(0, queue.waiting("lock:rejected"));
+    }
+}
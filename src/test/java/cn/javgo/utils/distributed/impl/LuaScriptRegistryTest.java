@@ -0,0 +1,75 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.core.RedisCallback;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: Lua 脚本注册表测试类
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=LuaScriptRegistryTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 20:10
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class LuaScriptRegistryTest {
+
+    private RedisLockTestSupport support;
+
+    @BeforeEach
+    public void setUp() {
+        support = new RedisLockTestSupport();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        support.close();
+    }
+
+    @Test
+    public void testScriptsArePreloadedAndCounted() {
+        // 预载后 Redis 中已存在全部脚本
+        Map<String, LuaScriptRegistry.ScriptStats> stats = support.getScriptRegistry().getStats();
+        assertTrue(stats.keySet().containsAll(Arrays.asList("lock.acquire", "lock.release", "lock.renew", "rwlock.read", "semaphore.acquire")));
+        for (LuaScriptRegistry.ScriptStats script : stats.values()) {
+            Boolean exists = support.getRedisTemplate().execute((RedisCallback<Boolean>) connection ->
+                    connection.scriptingCommands().scriptExists(script.getSha()).get(0));
+            assertTrue(exists, script.getName());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            try (LockHandle handle = support.getLockService().acquire("test:registry", 30_000, 0)) {
+                assertNotNull(handle);
+            }
+        }
+        stats = support.getScriptRegistry().getStats();
+        assertEquals(3, stats.get("lock.acquire").getCalls());
+        assertEquals(3, stats.get("lock.release").getCalls());
+        assertEquals(0, stats.get("lock.release").getErrors());
+        assertEquals(0, stats.get("lock.release").getReloads());
+    }
+
+    @Test
+    public void testLockWorksAfterScriptFlush() {
+        support.getRedisTemplate().execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        try (LockHandle handle = support.getLockService().acquire("test:registry", 30_000, 0)) {
+            assertNotNull(handle);
+        }
+        Map<String, LuaScriptRegistry.ScriptStats> stats = support.getScriptRegistry().getStats();
+        assertEquals(1, stats.get("lock.acquire").getReloads());
+        assertEquals(1, stats.get("lock.release").getReloads());
+        assertEquals(0, stats.get("lock.acquire").getErrors());
+    }
+}
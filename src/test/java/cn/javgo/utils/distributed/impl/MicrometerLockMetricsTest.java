@@ -0,0 +1,86 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 分布式锁指标测试类，锁服务使用内存后端，不需要 Redis
+ *
+ * @author javgo
+ * @create 2026-10-16 20:50
+ */
+public class MicrometerLockMetricsTest {
+
+    @Test
+    public void testKeyIsReducedToPattern() {
+        assertEquals("lock:order:*", MicrometerLockMetrics.toPattern("javgo_cn:lock:order:10086"));
+        assertEquals("rw_lock:user:*:profile", MicrometerLockMetrics.toPattern("javgo_cn:rw_lock:user:u42:profile"));
+        assertEquals("lock:report:daily", MicrometerLockMetrics.toPattern("javgo_cn:lock:report:daily"));
+        assertEquals("lock:*", MicrometerLockMetrics.toPattern("javgo_cn:lock:abcdefghijklmnopqrstuvwxyzabcdefghijklmnop"));
+    }
+
+    @Test
+    public void testPatternCardinalityIsBounded() {
+        MicrometerLockMetrics metrics = new MicrometerLockMetrics(new SimpleMeterRegistry(), 2);
+        assertEquals("lock:order:*", metrics.patternOf("javgo_cn:lock:order:1"));
+        assertEquals("lock:user:*", metrics.patternOf("javgo_cn:lock:user:1"));
+        assertEquals(MicrometerLockMetrics.OTHER_PATTERN, metrics.patternOf("javgo_cn:lock:stock:1"));
+        // 已出现的模式不受上限影响
+        assertEquals("lock:order:*", metrics.patternOf("javgo_cn:lock:order:2"));
+    }
+
+    @Test
+    public void testAcquireContentionAndHoldAreRecorded() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (RedisLockTestSupport support = RedisLockTestSupport.inMemory()) {
+            RedisDistributedLockService lockService = support.getLockService();
+            ReflectionTestUtils.setField(lockService, "lockMetrics", new MicrometerLockMetrics(registry, 100));
+
+            LockHandle holder = lockService.acquire("order:1", 30_000, 0);
+            CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> lockService.acquire("order:1", 30_000, 5_000));
+            Thread.sleep(100);
+            holder.release();
+            waiter.get(5, TimeUnit.SECONDS).release();
+            // 锁已释放后另一个键上的超时
+            LockHandle other = lockService.acquire("order:2", 30_000, 0);
+            assertNull(CompletableFuture.supplyAsync(() -> lockService.acquire("order:2", 30_000, 0)).get());
+            other.release();
+        }
+
+        assertEquals(3, registry.get("lock.acquire").tags("type", "mutex", "pattern", "lock:order:*", "result", "acquired").timer().count());
+        assertEquals(1, registry.get("lock.acquire").tags("result", "timeout").timer().count());
+        // 等待者在本地锁表上排队，超时者在本地锁表上失败，二者都计为竞争
+        assertEquals(2, registry.get("lock.contention").counter().count());
+        assertEquals(3, registry.get("lock.hold").tags("pattern", "lock:order:*").timer().count());
+        assertTrue(registry.get("lock.hold").timer().max(TimeUnit.MILLISECONDS) >= 90);
+    }
+
+    @Test
+    public void testMetersAreCachedPerTypeAndPattern() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerLockMetrics metrics = new MicrometerLockMetrics(registry, 100);
+        for (int i = 0; i < 3; i++) {
+            metrics.recordAcquire(LockMetrics.TYPE_MUTEX, "javgo_cn:lock:order:" + i, true, 1, 1_000);
+            metrics.recordAcquire(LockMetrics.TYPE_READ, "javgo_cn:rw_lock:order:" + i, false, 3, 1_000);
+            metrics.recordLeaseLost("javgo_cn:lock:order:" + i);
+        }
+        metrics.recordRenewals(2, 1);
+        metrics.recordRenewalError(4);
+
+        assertEquals(3, registry.get("lock.acquire").tags("type", "mutex", "result", "acquired").timer().count());
+        assertEquals(3, registry.get("lock.acquire").tags("type", "read", "result", "timeout").timer().count());
+        assertEquals(3, registry.get("lock.contention").tags("type", "read").counter().count());
+        assertEquals(6, registry.get("lock.retries").tags("type", "read").counter().count());
+        assertEquals(3, registry.get("lock.lease.lost").tags("pattern", "lock:order:*").counter().count());
+        assertEquals(2, registry.get("lock.renewal").tags("result", "renewed").counter().count());
+        assertEquals(4, registry.get("lock.renewal").tags("result", "error").counter().count());
+        assertEquals(2, registry.find("lock.acquire").timers().size());
+    }
+}
@@ -0,0 +1,43 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 使用 Lettuce 驱动运行 {@link RedisDistributedLockServiceTest} 的全部用例，并验证脚本缓存被清空后脚本被重新载入
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=RedisDistributedLockServiceLettuceTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 19:45
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class RedisDistributedLockServiceLettuceTest extends RedisDistributedLockServiceTest {
+
+    @Override
+    protected RedisLockTestSupport createSupport() {
+        return new RedisLockTestSupport(RedisLockTestSupport.Driver.LETTUCE);
+    }
+
+    @Test
+    public void testScriptIsReloadedAfterScriptFlush() {
+        LuaScriptRegistry registry = new LuaScriptRegistry(support.getRedisTemplate());
+        String script = "return tonumber(ARGV[1]) + 1 ";
+        registry.register("test.increment", script);
+        registry.loadAll();
+        assertEquals(2L, (Long) registry.execute(script, ReturnType.INTEGER, Collections.emptyList(), Collections.singletonList("1")));
+
+        // 清空 Redis 的脚本缓存（等同于 Redis 重启），EVALSHA 返回 NOSCRIPT 后重新载入脚本
+        support.getRedisTemplate().execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        assertEquals(3L, (Long) registry.execute(script, ReturnType.INTEGER, Collections.emptyList(), Collections.singletonList("2")));
+        assertEquals(1, registry.getStats().get("test.increment").getReloads());
+    }
+}
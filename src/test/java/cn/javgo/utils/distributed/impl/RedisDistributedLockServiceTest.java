@@ -0,0 +1,194 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 基于 Redis 的分布式锁服务测试类
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=RedisDistributedLockServiceTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 15:20
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class RedisDistributedLockServiceTest {
+
+    protected RedisLockTestSupport support;
+
+    protected RedisDistributedLockService lockService;
+
+    @BeforeEach
+    public void setUp() {
+        support = createSupport();
+        lockService = support.getLockService();
+    }
+
+    /**
+     * 组装被测的锁服务，子类覆盖以切换驱动或存储后端
+     */
+    protected RedisLockTestSupport createSupport() {
+        return new RedisLockTestSupport();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        support.close();
+    }
+
+    @Test
+    public void testNestedLockOnSameKeyIsReentrant() throws Exception {
+        assertTrue(lockService.lock("test:reentrant", 30_000L, 0, 100L));
+        long start = System.nanoTime();
+        assertTrue(lockService.lock("test:reentrant", 30_000L, 0, 100L));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+
+        // 内层释放后锁仍被持有，其他持有者无法获取
+        assertTrue(lockService.releaseLock("test:reentrant"));
+        assertNull(CompletableFuture.supplyAsync(() -> lockService.acquire("test:reentrant", 30_000, 0)).get());
+
+        assertTrue(lockService.releaseLock("test:reentrant"));
+        LockHandle other = CompletableFuture.supplyAsync(() -> lockService.acquire("test:reentrant", 30_000, 0)).get();
+        assertNotNull(other);
+        assertTrue(other.release());
+    }
+
+    @Test
+    public void testReleaseLockMatchesKey() {
+        assertTrue(lockService.lock("test:outer", 30_000L, 0, 100L));
+        assertTrue(lockService.lock("test:inner", 30_000L, 0, 100L));
+
+        // 释放顺序与加锁顺序不一致时，仍按键释放对应的锁
+        assertTrue(lockService.releaseLock("test:outer"));
+        assertTrue(lockService.releaseLock("test:inner"));
+        assertFalse(lockService.releaseLock("test:inner"));
+        assertEquals(0, support.getLeaseWatchdog().size());
+    }
+
+    @Test
+    public void testWaiterIsWokenByRelease() throws Exception {
+        LockHandle holder = lockService.acquire("test:handoff", 30_000, 0);
+        assertNotNull(holder);
+
+        CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> lockService.acquire("test:handoff", 30_000, 5_000));
+        Thread.sleep(200);
+        long releasedAt = System.nanoTime();
+        holder.close();
+
+        try (LockHandle handle = waiter.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(handle);
+            // 由释放通知唤醒，而不是等待兜底轮询间隔
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt) < 100);
+        }
+    }
+
+    @Test
+    public void testTryLockWaitsUntilDeadline() throws Exception {
+        LockHandle holder = lockService.tryLock("test:deadline", Duration.ZERO, Duration.ofSeconds(30));
+        assertNotNull(holder);
+
+        long start = System.nanoTime();
+        assertNull(CompletableFuture.supplyAsync(() -> lockService.tryLock("test:deadline", Duration.ofMillis(300), Duration.ofSeconds(30))).get(5, TimeUnit.SECONDS));
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waited >= 250 && waited < 1_000, "waited " + waited + " ms");
+
+        CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> lockService.tryLock("test:deadline", Duration.ofSeconds(5), Duration.ofSeconds(30)));
+        Thread.sleep(100);
+        holder.close();
+        try (LockHandle handle = waiter.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(handle);
+        }
+    }
+
+    @Test
+    public void testAsyncLockAndRelease() throws Exception {
+        LockHandle handle = lockService.lockAsync("test:async", 30_000, 0).get(5, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertNull(lockService.lockAsync("test:async", 30_000, 0).get(5, TimeUnit.SECONDS));
+        assertTrue(lockService.releaseAsync(handle).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelledAsyncLockDoesNotLeakTheLock() throws Exception {
+        LockHandle holder = lockService.acquire("test:async:cancel", 30_000, 0);
+        assertNotNull(holder);
+        CompletableFuture<LockHandle> pending = lockService.lockAsync("test:async:cancel", 30_000, 10_000);
+        Thread.sleep(50);
+        assertTrue(pending.cancel(false));
+        assertTrue(holder.release());
+
+        // 取消后的等待者被唤醒时不再加锁，锁保持空闲，租约也不会一直续期
+        Thread.sleep(300);
+        LockHandle next = CompletableFuture.supplyAsync(() -> lockService.acquire("test:async:cancel", 30_000, 0)).get();
+        assertNotNull(next);
+        assertEquals(1, support.getLeaseWatchdog().size());
+        assertTrue(next.release());
+        assertEquals(0, support.getLeaseWatchdog().size());
+    }
+
+    @Test
+    public void testLockAllIsAllOrNothing() throws Exception {
+        LockHandle inventory = lockService.acquire("test:inventory:2", 30_000, 0);
+        assertNotNull(inventory);
+
+        // 其中一把被其他持有者持有时，一把都不获取
+        assertNull(CompletableFuture.supplyAsync(() -> lockService.lockAll(Arrays.asList("test:order:1", "test:inventory:1", "test:inventory:2"), 30_000, 0)).get());
+        LockHandle order = CompletableFuture.supplyAsync(() -> lockService.acquire("test:order:1", 30_000, 0)).get();
+        assertNotNull(order);
+        assertTrue(order.release());
+
+        assertTrue(inventory.release());
+        try (LockHandle all = lockService.lockAll(Arrays.asList("test:order:1", "test:inventory:2", "test:inventory:1", "test:order:1"), 30_000, 0)) {
+            assertNotNull(all);
+            assertEquals("test:inventory:1,test:inventory:2,test:order:1", all.getKey());
+            assertEquals(3, support.getLeaseWatchdog().size());
+            assertNull(CompletableFuture.supplyAsync(() -> lockService.acquire("test:inventory:1", 30_000, 0)).get());
+        }
+        assertEquals(0, support.getLeaseWatchdog().size());
+    }
+
+    @Test
+    public void testLockAllWaitsForConflictingKey() throws Exception {
+        LockHandle holder = lockService.acquire("test:inventory:1", 30_000, 0);
+        assertNotNull(holder);
+
+        CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> lockService.lockAll(Arrays.asList("test:order:1", "test:inventory:1"), 30_000, 5_000));
+        Thread.sleep(200);
+        long releasedAt = System.nanoTime();
+        holder.close();
+
+        try (LockHandle all = waiter.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(all);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt) < 100);
+        }
+    }
+
+    @Test
+    public void testFencingTokenIncreasesPerAcquisition() throws Exception {
+        long first;
+        try (LockHandle handle = lockService.acquire("test:fence", 30_000, 0)) {
+            first = handle.getFencingToken();
+            assertTrue(first > 0);
+            // 重入时令牌不变
+            try (LockHandle nested = lockService.acquire("test:fence", 30_000, 0)) {
+                assertEquals(first, nested.getFencingToken());
+            }
+        }
+        LockHandle next = CompletableFuture.supplyAsync(() -> lockService.acquire("test:fence", 30_000, 0)).get();
+        assertTrue(next.getFencingToken() > first);
+        assertTrue(next.release());
+
+        LockHandle async = lockService.lockAsync("test:fence", 30_000, 0).get(5, TimeUnit.SECONDS);
+        assertTrue(async.getFencingToken() > next.getFencingToken());
+        assertTrue(async.release());
+    }
+}
@@ -0,0 +1,101 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 基于 Redis 的分布式信号量测试类
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=RedisDistributedSemaphoreTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 17:20
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class RedisDistributedSemaphoreTest {
+
+    private RedisLockTestSupport support;
+
+    private RedisDistributedSemaphore semaphore;
+
+    @BeforeEach
+    public void setUp() {
+        support = new RedisLockTestSupport();
+        semaphore = support.getSemaphore();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        support.close();
+    }
+
+    @Test
+    public void testAtMostPermitsHolders() {
+        List<LockHandle> permits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            LockHandle permit = semaphore.acquire("test:downstream", 3, 30_000, 0);
+            assertNotNull(permit);
+            permits.add(permit);
+        }
+        assertNull(semaphore.acquire("test:downstream", 3, 30_000, 0));
+        assertEquals(3, semaphore.holdCount("test:downstream"));
+
+        assertTrue(permits.get(0).release());
+        assertFalse(permits.get(0).release());
+        LockHandle next = semaphore.acquire("test:downstream", 3, 30_000, 0);
+        assertNotNull(next);
+        permits.set(0, next);
+
+        permits.forEach(LockHandle::release);
+        assertEquals(0, semaphore.holdCount("test:downstream"));
+        assertEquals(0, support.getLeaseWatchdog().size());
+    }
+
+    @Test
+    public void testExpiredPermitIsReclaimed() throws Exception {
+        LockHandle permit = semaphore.acquire("test:downstream", 1, 300, 0);
+        assertNotNull(permit);
+        // 模拟持有者崩溃：停止续期后许可在租期结束时被回收
+        support.getLeaseWatchdog().unregister(semaphore.getKeyPrefix() + "test:downstream", permit.getToken());
+
+        LockHandle next = semaphore.acquire("test:downstream", 1, 30_000, 2_000);
+        assertNotNull(next);
+        assertFalse(permit.release());
+        assertTrue(next.release());
+    }
+
+    @Test
+    public void testLeaseIsRenewedWhileHeld() throws Exception {
+        try (LockHandle permit = semaphore.acquire("test:downstream", 1, 600, 0)) {
+            assertNotNull(permit);
+            Thread.sleep(1_500);
+            assertEquals(1, semaphore.holdCount("test:downstream"));
+            assertNull(semaphore.acquire("test:downstream", 1, 600, 0));
+        }
+    }
+
+    @Test
+    public void testWaiterIsWokenByRelease() throws Exception {
+        LockHandle permit = semaphore.acquire("test:downstream", 1, 30_000, 0);
+        assertNotNull(permit);
+
+        CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> semaphore.acquire("test:downstream", 1, 30_000, 5_000));
+        Thread.sleep(200);
+        long releasedAt = System.nanoTime();
+        permit.close();
+
+        try (LockHandle handle = waiter.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(handle);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt) < 100);
+        }
+    }
+}
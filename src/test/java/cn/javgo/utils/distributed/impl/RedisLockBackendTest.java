@@ -0,0 +1,73 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.constans.RedisKeyPrefix;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: Redis 锁存储后端测试类，参数编码不需要 Redis，围栏令牌计数器使用嵌入式 Redis
+ *
+ * @author javgo
+ * @create 2026-10-16 21:55
+ */
+public class RedisLockBackendTest {
+
+    private static final int PORT = 16422;
+
+    @Test
+    public void testFenceKeyBytesMatchStringForm() {
+        for (String key : new String[]{RedisKeyPrefix.LOCK_KEY + "order:1", RedisKeyPrefix.LOCK_KEY + "订单:1", "other:order:1",
+                RedisKeyPrefix.LOCK_KEY + "{order:1}", RedisKeyPrefix.LOCK_KEY + "{3}order:1", RedisKeyPrefix.LOCK_KEY + "x{}y"}) {
+            byte[] expected = RedisLockBackend.getFenceKey(key).getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, RedisLockBackend.getFenceKey(key.getBytes(StandardCharsets.UTF_8)), key);
+        }
+    }
+
+    @Test
+    public void testFenceCounterExpiresAndStaysMonotonic() throws Exception {
+        RedisServer server = new RedisServer(PORT);
+        server.start();
+        JedisConnectionFactory connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", PORT));
+        try {
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.afterPropertiesSet();
+            StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+            RedisLockBackend backend = new RedisLockBackend(new LuaScriptRegistry(redisTemplate));
+
+            String key = RedisKeyPrefix.LOCK_KEY + "order:1";
+            String fenceKey = RedisLockBackend.getFenceKey(key);
+            long first = backend.tryLock(key, "a", 30_000)[1];
+            // 计数器带过期时间，重入不发放新令牌
+            long ttl = stringRedisTemplate.getExpire(fenceKey, TimeUnit.MILLISECONDS);
+            assertTrue(ttl > 0 && ttl <= RedisLockBackend.FENCE_TTL_MILLIS, String.valueOf(ttl));
+            assertEquals(first, backend.tryLock(key, "a", 30_000)[1]);
+            assertEquals(1, backend.unlock(key, "a"));
+            assertEquals(0, backend.unlock(key, "a"));
+
+            long second = backend.tryLock(key, "b", 30_000)[1];
+            assertEquals(first + 1, second);
+            assertEquals(0, backend.unlock(key, "b"));
+
+            // 计数器过期后重建，新令牌仍大于过期前发放的令牌
+            stringRedisTemplate.delete(fenceKey);
+            long third = backend.tryLock(key, "c", 30_000)[1];
+            assertTrue(third > second, third + " <= " + second);
+            assertEquals(0, backend.unlock(key, "c"));
+        } finally {
+            connectionFactory.destroy();
+            server.stop();
+        }
+    }
+}
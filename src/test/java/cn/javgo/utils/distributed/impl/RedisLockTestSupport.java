@@ -0,0 +1,165 @@
+package cn.javgo.utils.distributed.impl;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Desc: 测试辅助类，在不启动 Spring 容器的情况下组装连接本地 Redis 的 RedisDistributedLockService、RedisReadWriteLockService 与 RedisDistributedSemaphore。
+ * Use: 通过 -Dredis.host=127.0.0.1 [-Dredis.port=6379] [-Dredis.driver=lettuce] 指定 Redis 与驱动；
+ * {@link #inMemory()} 组装使用 {@link InMemoryLockBackend} 的 RedisDistributedLockService，不需要 Redis。
+ *
+ * @author javgo
+ * @create 2026-10-16 15:10
+ */
+public class RedisLockTestSupport implements AutoCloseable {
+
+    /**
+     * Redis 驱动
+     */
+    public enum Driver {
+        JEDIS, LETTUCE
+    }
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final LeaseWatchdog leaseWatchdog;
+
+    private final LockWaitQueue lockWaitQueue;
+
+    private final RedisDistributedLockService lockService;
+
+    private final RedisReadWriteLockService readWriteLockService;
+
+    private final RedisDistributedSemaphore semaphore;
+
+    private final LuaScriptRegistry scriptRegistry;
+
+    public RedisLockTestSupport() {
+        this(Driver.valueOf(System.getProperty("redis.driver", "jedis").toUpperCase()));
+    }
+
+    public RedisLockTestSupport(Driver driver) {
+        this(driver, System.getProperty("redis.host"), Integer.getInteger("redis.port", 6379));
+    }
+
+    public RedisLockTestSupport(Driver driver, String host, int port) {
+        this(createConnectionFactory(driver, host, port));
+    }
+
+    private RedisLockTestSupport(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        leaseWatchdog = new LeaseWatchdog(200, 500);
+        leaseWatchdog.start();
+        lockWaitQueue = new LockWaitQueue(connectionFactory);
+
+        LockBackend lockBackend;
+        if (connectionFactory == null) {
+            // 内存后端：锁释放时直接唤醒本地等待者，不订阅 Redis
+            redisTemplate = null;
+            scriptRegistry = null;
+            lockBackend = new InMemoryLockBackend(lockWaitQueue);
+        } else {
+            redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.afterPropertiesSet();
+            lockWaitQueue.start();
+            scriptRegistry = new LuaScriptRegistry(redisTemplate);
+            lockBackend = new RedisLockBackend(scriptRegistry);
+        }
+
+        lockService = new RedisDistributedLockService();
+        ReflectionTestUtils.setField(lockService, "lockBackend", lockBackend);
+        ReflectionTestUtils.setField(lockService, "leaseWatchdog", leaseWatchdog);
+        ReflectionTestUtils.setField(lockService, "lockWaitQueue", lockWaitQueue);
+        ReflectionTestUtils.setField(lockService, "timeoutMillis", 30_000L);
+        ReflectionTestUtils.setField(lockService, "retryTimes", 3);
+        ReflectionTestUtils.setField(lockService, "sleepMillis", 100L);
+        lockService.init();
+
+        if (scriptRegistry == null) {
+            readWriteLockService = null;
+            semaphore = null;
+            return;
+        }
+
+        readWriteLockService = new RedisReadWriteLockService();
+        ReflectionTestUtils.setField(readWriteLockService, "scriptRegistry", scriptRegistry);
+        ReflectionTestUtils.setField(readWriteLockService, "leaseWatchdog", leaseWatchdog);
+        ReflectionTestUtils.setField(readWriteLockService, "lockWaitQueue", lockWaitQueue);
+        ReflectionTestUtils.setField(readWriteLockService, "sleepMillis", 100L);
+        ReflectionTestUtils.setField(readWriteLockService, "writerPreference", true);
+        readWriteLockService.registerScripts();
+
+        semaphore = new RedisDistributedSemaphore();
+        ReflectionTestUtils.setField(semaphore, "scriptRegistry", scriptRegistry);
+        ReflectionTestUtils.setField(semaphore, "leaseWatchdog", leaseWatchdog);
+        ReflectionTestUtils.setField(semaphore, "lockWaitQueue", lockWaitQueue);
+        ReflectionTestUtils.setField(semaphore, "sleepMillis", 100L);
+        semaphore.registerScripts();
+        scriptRegistry.loadAll();
+    }
+
+    /**
+     * 组装使用内存后端的锁服务，只有 {@link #getLockService()} 可用
+     */
+    public static RedisLockTestSupport inMemory() {
+        return new RedisLockTestSupport((RedisConnectionFactory) null);
+    }
+
+    private static RedisConnectionFactory createConnectionFactory(Driver driver, String host, int port) {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        if (driver == Driver.LETTUCE) {
+            LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration);
+            factory.afterPropertiesSet();
+            factory.start();
+            return factory;
+        }
+        JedisConnectionFactory factory = new JedisConnectionFactory(configuration);
+        factory.getPoolConfig().setMaxTotal(64);
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    public RedisDistributedLockService getLockService() {
+        return lockService;
+    }
+
+    public RedisReadWriteLockService getReadWriteLockService() {
+        return readWriteLockService;
+    }
+
+    public RedisDistributedSemaphore getSemaphore() {
+        return semaphore;
+    }
+
+    public LeaseWatchdog getLeaseWatchdog() {
+        return leaseWatchdog;
+    }
+
+    public LuaScriptRegistry getScriptRegistry() {
+        return scriptRegistry;
+    }
+
+    public RedisTemplate<String, Object> getRedisTemplate() {
+        return redisTemplate;
+    }
+
+    @Override
+    public void close() throws Exception {
+        lockService.destroy();
+        lockWaitQueue.shutdown();
+        leaseWatchdog.shutdown();
+        if (connectionFactory instanceof JedisConnectionFactory jedis) {
+            jedis.destroy();
+        } else if (connectionFactory instanceof LettuceConnectionFactory lettuce) {
+            lettuce.destroy();
+        }
+    }
+}
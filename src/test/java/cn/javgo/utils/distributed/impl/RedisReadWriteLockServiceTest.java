@@ -0,0 +1,113 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 基于 Redis 的分布式读写锁测试类
+ * Use: 需要一个可用的 Redis，mvn test -Dtest=RedisReadWriteLockServiceTest -Dredis.host=127.0.0.1 [-Dredis.port=6379]
+ *
+ * @author javgo
+ * @create 2026-10-16 16:10
+ */
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+public class RedisReadWriteLockServiceTest {
+
+    private RedisLockTestSupport support;
+
+    private RedisReadWriteLockService rwLock;
+
+    @BeforeEach
+    public void setUp() {
+        support = new RedisLockTestSupport();
+        rwLock = support.getReadWriteLockService();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        support.close();
+    }
+
+    @Test
+    public void testReadersShareAndExcludeWriter() throws Exception {
+        LockHandle first = rwLock.readLock("test:rw", 30_000, 0);
+        LockHandle second = CompletableFuture.supplyAsync(() -> rwLock.readLock("test:rw", 30_000, 0)).get();
+        assertNotNull(first);
+        assertNotNull(second);
+
+        assertNull(CompletableFuture.supplyAsync(() -> rwLock.writeLock("test:rw", 30_000, 0)).get());
+
+        assertTrue(first.release());
+        assertTrue(second.release());
+        LockHandle writer = CompletableFuture.supplyAsync(() -> rwLock.writeLock("test:rw", 30_000, 0)).get();
+        assertNotNull(writer);
+        assertTrue(writer.release());
+    }
+
+    @Test
+    public void testWriterExcludesReadersButMayReadItself() throws Exception {
+        LockHandle writer = rwLock.writeLock("test:rw", 30_000, 0);
+        assertNotNull(writer);
+        assertNull(CompletableFuture.supplyAsync(() -> rwLock.readLock("test:rw", 30_000, 0)).get());
+
+        // 写锁持有者可以再获取读锁（重入）
+        LockHandle read = rwLock.readLock("test:rw", 30_000, 0);
+        assertNotNull(read);
+        assertTrue(read.release());
+        assertTrue(writer.release());
+        assertEquals(0, support.getLeaseWatchdog().size());
+    }
+
+    @Test
+    public void testWaitingWriterBlocksNewReaders() throws Exception {
+        LockHandle reader = rwLock.readLock("test:rw", 30_000, 0);
+        assertNotNull(reader);
+
+        CompletableFuture<LockHandle> writer = CompletableFuture.supplyAsync(() -> rwLock.writeLock("test:rw", 30_000, 5_000));
+        Thread.sleep(200);
+        // 写者等待期间，新的读者不再进入
+        assertNull(CompletableFuture.supplyAsync(() -> rwLock.readLock("test:rw", 30_000, 0)).get());
+        // 已持有读锁的读者仍可重入
+        LockHandle reentered = rwLock.readLock("test:rw", 30_000, 0);
+        assertNotNull(reentered);
+        assertTrue(reentered.release());
+
+        long releasedAt = System.nanoTime();
+        assertTrue(reader.release());
+        try (LockHandle handle = writer.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(handle);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt) < 100);
+        }
+    }
+
+    @Test
+    public void testWriterReleaseWakesAllLocalReaders() throws Exception {
+        LockHandle writer = rwLock.writeLock("test:rw", 30_000, 0);
+        assertNotNull(writer);
+
+        CompletableFuture<?>[] readers = new CompletableFuture[3];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = CompletableFuture.supplyAsync(() -> rwLock.readLock("test:rw", 30_000, 5_000));
+        }
+        Thread.sleep(200);
+        long releasedAt = System.nanoTime();
+        assertTrue(writer.release());
+
+        CompletableFuture.allOf(readers).get(5, TimeUnit.SECONDS);
+        // 读者依次接力唤醒，无需等待兜底轮询间隔
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt) < 100);
+        for (CompletableFuture<?> reader : readers) {
+            LockHandle handle = (LockHandle) reader.get();
+            assertNotNull(handle);
+            assertTrue(handle.release());
+        }
+    }
+}
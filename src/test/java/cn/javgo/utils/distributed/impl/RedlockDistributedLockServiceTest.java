@@ -0,0 +1,237 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 多节点仲裁锁测试类，使用内存替身节点注入节点宕机、响应缓慢等故障
+ *
+ * @author javgo
+ * @create 2026-10-16 18:40
+ */
+public class RedlockDistributedLockServiceTest {
+
+    private final List<StandInNode> nodes = new ArrayList<>();
+
+    private LeaseWatchdog leaseWatchdog;
+
+    private RedlockDistributedLockService lockService;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            nodes.add(new StandInNode("node-" + i));
+        }
+        leaseWatchdog = new LeaseWatchdog(50, 500);
+        leaseWatchdog.start();
+        lockService = newLockService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lockService.shutdown();
+        leaseWatchdog.shutdown();
+    }
+
+    @Test
+    public void testAcquireWithMinorityOfNodesDown() {
+        nodes.get(0).down = true;
+        nodes.get(1).down = true;
+
+        LockHandle handle = lockService.acquire("order:1", 30_000, 0);
+        assertNotNull(handle);
+        assertEquals(3, heldBy(handle.getToken()));
+
+        assertTrue(handle.release());
+        assertEquals(0, heldBy(handle.getToken()));
+    }
+
+    @Test
+    public void testFailAndRollBackWithMajorityOfNodesDown() {
+        nodes.get(0).down = true;
+        nodes.get(1).down = true;
+        nodes.get(2).down = true;
+
+        assertNull(lockService.acquire("order:1", 30_000, 200));
+        // 少数派节点上的加锁已回滚
+        for (StandInNode node : nodes) {
+            assertTrue(node.locks.isEmpty());
+        }
+    }
+
+    @Test
+    public void testSlowNodesCountAsFailed() {
+        nodes.get(0).delayMillis = 300;
+        nodes.get(1).delayMillis = 300;
+        assertNotNull(lockService.acquire("order:1", 30_000, 0));
+
+        nodes.get(2).delayMillis = 300;
+        assertNull(lockService.acquire("order:2", 30_000, 0));
+    }
+
+    @Test
+    public void testValidityBudgetExhaustedByDrift() {
+        // 加锁耗时 + 漂移预算超过租期，即使多数派加锁成功也视为失败
+        for (StandInNode node : nodes) {
+            node.delayMillis = 30;
+        }
+        assertNull(lockService.acquire("order:1", 30, 0));
+        for (StandInNode node : nodes) {
+            assertTrue(node.locks.isEmpty());
+        }
+    }
+
+    @Test
+    public void testMutualExclusionBetweenClients() throws Exception {
+        RedlockDistributedLockService other = newLockService();
+        try {
+            LockHandle handle = lockService.acquire("order:1", 30_000, 0);
+            assertNotNull(handle);
+            assertNull(CompletableFuture.supplyAsync(() -> other.acquire("order:1", 30_000, 100)).get());
+
+            CompletableFuture<LockHandle> waiter = CompletableFuture.supplyAsync(() -> other.acquire("order:1", 30_000, 2_000));
+            Thread.sleep(100);
+            assertTrue(handle.release());
+            assertNotNull(waiter.get());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testLeaseIsExtendedOnQuorum() throws Exception {
+        LockHandle handle = lockService.acquire("order:1", 300, 0);
+        assertNotNull(handle);
+        Thread.sleep(600);
+        assertEquals(5, heldBy(handle.getToken()));
+
+        // 多数派节点宕机后续期失败，租约被标记为丢失
+        nodes.get(0).down = true;
+        nodes.get(1).down = true;
+        nodes.get(2).down = true;
+        Thread.sleep(400);
+        Lease lease = leaseWatchdog.unregister(lockService.getKeyPrefix() + "order:1", handle.getToken());
+        assertNotNull(lease);
+        assertTrue(lease.isLost());
+    }
+
+    @Test
+    public void testLockThrowsLikePrimaryServiceWhenNotAcquired() {
+        nodes.get(0).down = true;
+        nodes.get(1).down = true;
+        nodes.get(2).down = true;
+
+        assertThrows(RuntimeException.class, () -> lockService.lock("order:1", 30_000, 1, 20L));
+        assertFalse(lockService.releaseLock("order:1"));
+    }
+
+    @Test
+    public void testRenewalIsBatchedPerNode() {
+        List<Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            LockHandle handle = lockService.acquire("order:" + i, 30_000, 0);
+            assertNotNull(handle);
+            leases.add(new Lease(lockService.getKeyPrefix() + "order:" + i, handle.getToken(), 30_000, null, null));
+        }
+        nodes.forEach(node -> node.extendAllCalls.set(0));
+
+        boolean[] results = ReflectionTestUtils.invokeMethod(lockService, "renewLeases", leases);
+        assertArrayEquals(new boolean[]{true, true, true}, results);
+        // 每个节点一次网络往返
+        for (StandInNode node : nodes) {
+            assertEquals(1, node.extendAllCalls.get());
+        }
+
+        nodes.get(0).down = true;
+        nodes.get(1).down = true;
+        nodes.get(2).down = true;
+        results = ReflectionTestUtils.invokeMethod(lockService, "renewLeases", leases);
+        assertArrayEquals(new boolean[]{false, false, false}, results);
+    }
+
+    private RedlockDistributedLockService newLockService() {
+        RedlockDistributedLockService service = new RedlockDistributedLockService(new ArrayList<>(nodes), leaseWatchdog, 50, 0.01);
+        ReflectionTestUtils.setField(service, "timeoutMillis", 30_000L);
+        ReflectionTestUtils.setField(service, "retryTimes", 3);
+        ReflectionTestUtils.setField(service, "sleepMillis", 20L);
+        return service;
+    }
+
+    private long heldBy(String token) {
+        return nodes.stream().filter(node -> node.locks.containsValue(token)).count();
+    }
+
+    /**
+     * 内存替身节点，可注入宕机与响应延迟（不模拟过期）
+     */
+    private static class StandInNode implements LockNode {
+
+        private final String name;
+
+        private final Map<String, String> locks = new ConcurrentHashMap<>();
+
+        private volatile boolean down;
+
+        private volatile long delayMillis;
+
+        private final AtomicInteger extendAllCalls = new AtomicInteger();
+
+        StandInNode(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean tryLock(String key, String token, long leaseMillis) {
+            simulateNetwork();
+            return locks.putIfAbsent(key, token) == null;
+        }
+
+        @Override
+        public boolean extend(String key, String token, long leaseMillis) {
+            simulateNetwork();
+            return token.equals(locks.get(key));
+        }
+
+        @Override
+        public boolean[] extendAll(List<Lease> leases) {
+            extendAllCalls.incrementAndGet();
+            return LockNode.super.extendAll(leases);
+        }
+
+        @Override
+        public boolean unlock(String key, String token) {
+            simulateNetwork();
+            return locks.remove(key, token);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        private void simulateNetwork() {
+            if (down) {
+                throw new IllegalStateException(name + " is down");
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
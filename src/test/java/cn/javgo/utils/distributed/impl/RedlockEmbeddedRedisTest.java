@@ -0,0 +1,110 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 多节点仲裁锁集成测试，启动 5 个相互独立的嵌入式 Redis 节点，通过停止节点注入故障
+ *
+ * @author javgo
+ * @create 2026-10-16 18:50
+ */
+public class RedlockEmbeddedRedisTest {
+
+    private static final int BASE_PORT = 16379;
+
+    private static final int NODES = 5;
+
+    private final List<RedisServer> servers = new ArrayList<>();
+
+    private final List<JedisConnectionFactory> connectionFactories = new ArrayList<>();
+
+    private LeaseWatchdog leaseWatchdog;
+
+    private RedlockDistributedLockService lockService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        List<LockNode> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            RedisServer server = new RedisServer(BASE_PORT + i);
+            server.start();
+            servers.add(server);
+
+            JedisConnectionFactory connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", BASE_PORT + i));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            connectionFactories.add(connectionFactory);
+            nodes.add(new RedisLockNode("127.0.0.1:" + (BASE_PORT + i), connectionFactory));
+        }
+        leaseWatchdog = new LeaseWatchdog(200, 500);
+        leaseWatchdog.start();
+        lockService = new RedlockDistributedLockService(nodes, leaseWatchdog, 50, 0.01);
+        ReflectionTestUtils.setField(lockService, "sleepMillis", 20L);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        lockService.shutdown();
+        leaseWatchdog.shutdown();
+        connectionFactories.forEach(JedisConnectionFactory::destroy);
+        for (RedisServer server : servers) {
+            if (server.isActive()) {
+                server.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testQuorumSurvivesMinorityFailure() throws Exception {
+        LockHandle first = lockService.acquire("order:1", 30_000, 0);
+        assertNotNull(first);
+        // 同一把锁不会被重复授予
+        assertNull(lockService.acquire("order:1", 30_000, 0));
+        assertTrue(first.release());
+
+        servers.get(0).stop();
+        servers.get(1).stop();
+        try (LockHandle handle = lockService.acquire("order:1", 30_000, 0)) {
+            assertNotNull(handle);
+            assertNull(lockService.acquire("order:1", 30_000, 0));
+        }
+    }
+
+    @Test
+    public void testNoLockWithoutQuorum() throws Exception {
+        servers.get(0).stop();
+        servers.get(1).stop();
+        servers.get(2).stop();
+        assertNull(lockService.acquire("order:1", 30_000, 200));
+    }
+
+    @Test
+    public void testLeasesAreRenewedInOneBatchPerNode() throws Exception {
+        LockHandle first = lockService.acquire("order:1", 1_000, 1_000);
+        LockHandle second = lockService.acquire("order:2", 1_000, 1_000);
+        assertNotNull(first);
+        assertNotNull(second);
+        // 超过租期后仍由看门狗续期持有
+        Thread.sleep(1_500);
+        assertNull(lockService.acquire("order:1", 30_000, 0));
+        assertNull(lockService.acquire("order:2", 30_000, 0));
+
+        Lease foreign = new Lease(lockService.getKeyPrefix() + "order:1", "someone-else", 1_000, null, null);
+        Lease own = new Lease(lockService.getKeyPrefix() + "order:2", second.getToken(), 1_000, null, null);
+        assertArrayEquals(new boolean[]{false, true}, new RedisLockNode("127.0.0.1:" + BASE_PORT, connectionFactories.get(0)).extendAll(List.of(foreign, own)));
+        assertTrue(first.release());
+        assertTrue(second.release());
+    }
+}
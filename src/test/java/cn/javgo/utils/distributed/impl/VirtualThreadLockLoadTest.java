@@ -0,0 +1,113 @@
+package cn.javgo.utils.distributed.impl;
+
+import cn.javgo.utils.distributed.LockHandle;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Desc: 虚拟线程压测，10 万个虚拟线程在 1000 个键上竞争锁句柄，校验互斥性，并通过 JFR 的 jdk.VirtualThreadPinned 事件校验加锁路径不会钉住载体线程。
+ * Use: 只在 JDK 21 及以上运行，默认在 16423 端口启动嵌入式 Redis，指定 -Dredis.host=127.0.0.1 [-Dredis.port=6379] 时改为连接已有的 Redis。
+ * Maven 本身运行在 JDK 17 时通过 mvn test -Pjdk21 -Dtest=VirtualThreadLockLoadTest 在 toolchains.xml 中配置的 JDK 21 上运行测试。
+ *
+ * @author javgo
+ * @create 2026-10-16 14:20
+ */
+public class VirtualThreadLockLoadTest {
+
+    private static final int EMBEDDED_PORT = 16423;
+
+    private static final int THREADS = 100_000;
+
+    private static final int KEYS = 1_000;
+
+    private RedisServer redisServer;
+
+    private RedisLockTestSupport support;
+
+    private RedisDistributedLockService lockService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads require JDK 21+");
+        String host = System.getProperty("redis.host");
+        int port = Integer.getInteger("redis.port", 6379);
+        if (host == null || host.isEmpty()) {
+            host = "127.0.0.1";
+            port = EMBEDDED_PORT;
+            redisServer = new RedisServer(port);
+            redisServer.start();
+        }
+        support = new RedisLockTestSupport(RedisLockTestSupport.Driver.valueOf(System.getProperty("redis.driver", "jedis").toUpperCase()), host, port);
+        lockService = support.getLockService();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (support != null) {
+            support.close();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsDoNotPinCarriers() throws Exception {
+        AtomicLong pinnedEvents = new AtomicLong();
+        AtomicIntegerArray holders = new AtomicIntegerArray(KEYS);
+        AtomicInteger acquired = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.incrementAndGet());
+            recording.startAsync();
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < THREADS; i++) {
+                int slot = i % KEYS;
+                executor.execute(() -> {
+                    try (LockHandle handle = lockService.acquire("vt:" + slot, 30_000, 120_000)) {
+                        if (handle == null) {
+                            return;
+                        }
+                        acquired.incrementAndGet();
+                        if (holders.incrementAndGet(slot) != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        holders.decrementAndGet(slot);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertEquals(true, executor.awaitTermination(10, TimeUnit.MINUTES));
+            // 等待 JFR 把已产生的事件推送到流中
+            Thread.sleep(2_000);
+        }
+
+        assertEquals(THREADS, acquired.get());
+        assertEquals(0, overlaps.get());
+        assertEquals(0, pinnedEvents.get(), "lock acquisition pinned carrier threads");
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，使测试代码可以在 JDK 17 下编译
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+}
@@ -0,0 +1,287 @@
+package cn.javgo.utils.serializer;
+
+import cn.javgo.utils.cache.CachedValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: 紧凑二进制值序列化器测试类
+ *
+ * @author javgo
+ * @create 2026-10-17 04:15
+ */
+public class CompactRedisSerializerTest {
+
+    public enum Status {
+        ENABLED, DISABLED
+    }
+
+    public record Point(int x, String label) implements Serializable {
+    }
+
+    public static class Permission implements Serializable {
+
+        private long id;
+
+        private String code;
+
+        private boolean visible;
+
+        private double weight;
+
+        private char level;
+
+        private Status status;
+
+        private Permission parent;
+
+        private List<String> roles;
+
+        private Map<String, Object> attributes;
+
+        private Point point;
+
+        private transient String cached;
+
+        public Permission() {
+        }
+
+        public Permission(long id, String code) {
+            this.id = id;
+            this.code = code;
+            this.visible = true;
+            this.weight = 0.5;
+            this.level = 'A';
+            this.status = Status.ENABLED;
+            this.roles = new ArrayList<>(List.of("admin", "user"));
+            this.attributes = new LinkedHashMap<>(Map.of("path", "/system/" + code));
+            this.point = new Point((int) id, code);
+            this.cached = "cached";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Permission that)) {
+                return false;
+            }
+            return id == that.id && visible == that.visible && weight == that.weight && level == that.level
+                    && status == that.status && Objects.equals(code, that.code) && Objects.equals(parent, that.parent)
+                    && Objects.equals(roles, that.roles) && Objects.equals(attributes, that.attributes)
+                    && Objects.equals(point, that.point);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+
+    public static class Menu implements Serializable {
+
+        private HashMap<String, Integer> counts = new HashMap<>();
+
+        private TreeSet<String> codes = new TreeSet<>();
+
+        private TreeMap<String, String> paths = new TreeMap<>();
+
+        private LinkedList<Long> ids = new LinkedList<>();
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Menu that && counts.equals(that.counts) && codes.equals(that.codes)
+                    && paths.equals(that.paths) && ids.equals(that.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return codes.hashCode();
+        }
+    }
+
+    public static class Opaque {
+
+        private final String value;
+
+        public Opaque(String value) {
+            this.value = value;
+        }
+    }
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer();
+
+    @Test
+    public void testScalarsRoundTrip() {
+        for (Object value : List.of("权限", "", 0, -1, Integer.MAX_VALUE, Long.MIN_VALUE, 3.14, 1.5f, (short) -7,
+                (byte) 7, 'c', true, false, new BigDecimal("12345.6789"), new BigInteger("-98765432109876543210"),
+                new Date(1_700_000_000_000L), Status.DISABLED)) {
+            assertEquals(value, roundTrip(value));
+        }
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) roundTrip(new byte[]{1, 2, 3}));
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    public void testCollectionsRoundTrip() {
+        List<Object> list = new ArrayList<>(Arrays.asList(1, "two", null, 3L));
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("list", list);
+        map.put(1, new LinkedHashSet<>(List.of("a", "b")));
+        map.put("nested", Map.of("k", List.of()));
+
+        assertEquals(list, roundTrip(list));
+        assertEquals(map, roundTrip(map));
+        assertEquals(new LinkedHashSet<>(List.of(3, 1, 2)), roundTrip(new LinkedHashSet<>(List.of(3, 1, 2))));
+    }
+
+    @Test
+    public void testObjectsRoundTrip() {
+        Permission permission = new Permission(1, "user:list");
+        permission.parent = new Permission(0, "system");
+
+        Permission copy = (Permission) roundTrip(permission);
+        assertEquals(permission, copy);
+        assertNull(copy.cached);
+        assertEquals(new Point(3, "p"), roundTrip(new Point(3, "p")));
+    }
+
+    @Test
+    public void testConcreteCollectionFieldsRoundTrip() {
+        Menu menu = new Menu();
+        menu.counts.put("a", 1);
+        menu.codes.addAll(List.of("c", "a", "b"));
+        menu.paths.put("z", "/z");
+        menu.paths.put("a", "/a");
+        menu.ids.add(3L);
+
+        Menu copy = (Menu) roundTrip(menu);
+        assertEquals(menu, copy);
+        assertEquals(List.of("a", "b", "c"), new ArrayList<>(copy.codes));
+        assertEquals(LinkedList.class, copy.ids.getClass());
+    }
+
+    @Test
+    public void testFallsBackToJdkSerialization() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 17, 4, 15);
+        assertEquals(time, roundTrip(time));
+
+        CachedValue cached = (CachedValue) roundTrip(new CachedValue(List.of("a"), 100, 5));
+        assertEquals(List.of("a"), cached.getValue());
+        assertEquals(100, cached.getExpireAtMillis());
+
+        assertThrows(SerializationException.class, () -> serializer.serialize(new Opaque("x")));
+    }
+
+    @Test
+    public void testReadsJdkSerializedValues() {
+        Map<String, Object> value = new LinkedHashMap<>(Map.of("id", 1L, "roles", new ArrayList<>(List.of("admin"))));
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(value);
+        assertEquals(value, serializer.deserialize(legacy));
+    }
+
+    @Test
+    public void testLargeValuesAreCompressed() {
+        List<Permission> permissions = permissions(200);
+        byte[] bytes = serializer.serialize(permissions);
+        assertEquals((byte) 0xC1, bytes[0]);
+        assertEquals(permissions, serializer.deserialize(bytes));
+
+        byte[] uncompressed = new CompactRedisSerializer(0, false, null).serialize(permissions);
+        assertEquals((byte) 0xC0, uncompressed[0]);
+        assertTrue(bytes.length < uncompressed.length / 2, bytes.length + " vs " + uncompressed.length);
+        assertEquals(permissions, serializer.deserialize(uncompressed));
+
+        assertEquals((byte) 0xC0, serializer.serialize("small")[0]);
+    }
+
+    @Test
+    public void testSmallerThanJdkSerialization() {
+        JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+        CompactRedisSerializer registered = new CompactRedisSerializer(0, false, null)
+                .register(Permission.class, 1)
+                .register(Point.class, 2)
+                .register(Status.class, 3);
+        // 单个对象：JDK 序列化的类描述占了大部分体积
+        Permission permission = new Permission(1, "user:list");
+        byte[] single = registered.serialize(permission);
+        assertTrue(single.length * 3 < jdk.serialize(permission).length, single.length + " vs " + jdk.serialize(permission).length);
+
+        List<Permission> permissions = permissions(20);
+        byte[] compact = registered.serialize(permissions);
+        assertTrue(compact.length < jdk.serialize(permissions).length);
+        assertTrue(compact.length < new CompactRedisSerializer(0, false, null).serialize(permissions).length);
+        assertEquals(permissions, registered.deserialize(compact));
+    }
+
+    @Test
+    public void testRegistrationRequired() {
+        CompactRedisSerializer strict = new CompactRedisSerializer(1024, true, null)
+                .register(Permission.class, 1)
+                .register(Point.class, 2)
+                .register(Status.class, 3);
+        Permission permission = new Permission(1, "user:list");
+        assertEquals(permission, strict.deserialize(strict.serialize(permission)));
+
+        assertThrows(SerializationException.class, () -> strict.serialize(new CachedValue("a", 1, 1)));
+        // 未注册的类名不会被加载
+        byte[] unregistered = serializer.serialize(new Point(1, "p"));
+        assertThrows(SerializationException.class, () -> strict.deserialize(unregistered));
+        byte[] javaSerialized = serializer.serialize(new CachedValue("a", 1, 1));
+        assertThrows(SerializationException.class, () -> strict.deserialize(javaSerialized));
+        // 切换前写入的 JDK 序列化数据同样受注册限制
+        JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+        assertThrows(SerializationException.class, () -> strict.deserialize(jdk.serialize(new CachedValue("a", 1, 1))));
+        assertEquals(permission, strict.deserialize(jdk.serialize(permission)));
+
+        assertThrows(IllegalArgumentException.class, () -> strict.register(CachedValue.class, 1));
+        assertThrows(IllegalArgumentException.class, () -> strict.register(CachedValue.class, 0));
+    }
+
+    @Test
+    public void testCorruptedValuesAreRejected() {
+        byte[] bytes = serializer.serialize(new Permission(1, "user:list"));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length + 1)));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{0x7B, 0x7D}));
+
+        byte[] compressed = serializer.serialize(permissions(200));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(Arrays.copyOf(compressed, compressed.length - 1)));
+
+        List<Object> cyclic = new ArrayList<>();
+        cyclic.add(cyclic);
+        assertThrows(SerializationException.class, () -> serializer.serialize(cyclic));
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static List<Permission> permissions(int count) {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permissions.add(new Permission(i, "system:menu:" + i));
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,72 @@
+package cn.javgo.utils.serializer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: LZ4 块压缩测试类
+ *
+ * @author javgo
+ * @create 2026-10-17 04:10
+ */
+public class Lz4BlockTest {
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(42);
+        byte[] incompressible = new byte[10_000];
+        random.nextBytes(incompressible);
+        byte[] zeros = new byte[70_000];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            text.append("frontend:permission:").append(i % 37).append(',');
+        }
+
+        assertRoundTrip(new byte[0]);
+        assertRoundTrip("short".getBytes(StandardCharsets.UTF_8));
+        assertRoundTrip("abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+        assertRoundTrip(incompressible);
+        assertRoundTrip(zeros);
+        assertRoundTrip(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRepetitiveDataShrinks() {
+        byte[] zeros = new byte[70_000];
+        assertTrue(Lz4Block.compress(zeros, 0, zeros.length).length < 1_000);
+
+        byte[] text = "role:admin,role:user,".repeat(500).getBytes(StandardCharsets.UTF_8);
+        assertTrue(Lz4Block.compress(text, 0, text.length).length < text.length / 10);
+    }
+
+    @Test
+    public void testCompressesSlice() {
+        byte[] data = ("header" + "payload-".repeat(100) + "trailer").getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = Lz4Block.compress(data, 6, data.length - 13);
+        assertArrayEquals(Arrays.copyOfRange(data, 6, data.length - 7),
+                Lz4Block.decompress(compressed, 0, compressed.length, data.length - 13));
+    }
+
+    @Test
+    public void testCorruptedInputIsRejected() {
+        byte[] data = "abcdefgh".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = Lz4Block.compress(data, 0, data.length);
+
+        assertThrows(IllegalArgumentException.class, () -> Lz4Block.decompress(compressed, 0, compressed.length - 3, data.length));
+        assertThrows(IllegalArgumentException.class, () -> Lz4Block.decompress(compressed, 0, compressed.length, data.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> Lz4Block.decompress(compressed, 0, compressed.length, data.length + 1));
+        // 偏移量指向输出之前
+        byte[] badOffset = {0x10, 'a', (byte) 0xFF, 0x00, 0x50, 'a', 'b', 'c', 'd', 'e'};
+        assertThrows(IllegalArgumentException.class, () -> Lz4Block.decompress(badOffset, 0, badOffset.length, 10));
+    }
+
+    private static void assertRoundTrip(byte[] data) {
+        byte[] compressed = Lz4Block.compress(data, 0, data.length);
+        assertArrayEquals(data, Lz4Block.decompress(compressed, 0, compressed.length, data.length));
+    }
+}
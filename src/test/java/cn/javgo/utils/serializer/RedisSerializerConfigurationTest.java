@@ -0,0 +1,53 @@
+package cn.javgo.utils.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Desc: RedisTemplate 序列化配置测试类
+ *
+ * @author javgo
+ * @create 2026-10-17 04:20
+ */
+public class RedisSerializerConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(RedisConnectionFactory.class, JedisConnectionFactory::new)
+            .withUserConfiguration(RedisSerializerConfiguration.class)
+            .withPropertyValues("redis.serializer.type=compact");
+
+    @Test
+    public void testKeepsJdkKeyEncodingAndSwapsValueSerializers() {
+        contextRunner.run(context -> {
+            RedisTemplate<?, ?> redisTemplate = context.getBean("redisTemplate", RedisTemplate.class);
+            // 键的编码与 Spring Boot 默认的 redisTemplate 一致
+            assertInstanceOf(JdkSerializationRedisSerializer.class, redisTemplate.getKeySerializer());
+            assertInstanceOf(JdkSerializationRedisSerializer.class, redisTemplate.getHashKeySerializer());
+            assertSame(context.getBean(CompactRedisSerializer.class), redisTemplate.getValueSerializer());
+            assertSame(context.getBean(CompactRedisSerializer.class), redisTemplate.getHashValueSerializer());
+        });
+    }
+
+    @Test
+    public void testBacksOffWhenApplicationDefinesRedisTemplate() {
+        RedisTemplate<String, Object> own = new RedisTemplate<>();
+        own.setConnectionFactory(new JedisConnectionFactory());
+        contextRunner.withBean("redisTemplate", RedisTemplate.class, () -> own).run(context -> {
+            assertSame(own, context.getBean("redisTemplate"));
+            assertNotNull(context.getBean(CompactRedisSerializer.class));
+        });
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(RedisSerializerConfiguration.class)
+                .run(context -> assertFalse(context.containsBean("redisTemplate")));
+    }
+}
@@ -0,0 +1,171 @@
+package cn.javgo.utils.serializer.benchmark;
+
+import cn.javgo.utils.serializer.CompactRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desc: RedisTemplate 值序列化器基准测试，以权限树缓存为负载，对比紧凑二进制、JDK、JSON 三种格式的序列化 / 反序列化耗时与分配，
+ * 启动时打印各格式的字节数。
+ * Use: mvn -Pbenchmark test -Djmh.args="SerializerBenchmark -prof gc"
+ *
+ * @author javgo
+ * @create 2026-10-17 04:25
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    public static class Permission implements Serializable {
+
+        private long id;
+
+        private long parentId;
+
+        private String code;
+
+        private String name;
+
+        private String path;
+
+        private int sort;
+
+        private boolean visible;
+
+        private List<String> roles;
+
+        public Permission() {
+        }
+
+        public Permission(long id) {
+            this.id = id;
+            this.parentId = id / 10;
+            this.code = "system:menu:" + id;
+            this.name = "菜单" + id;
+            this.path = "/system/menu/" + id;
+            this.sort = (int) (id % 100);
+            this.visible = id % 3 != 0;
+            this.roles = new ArrayList<>(List.of("admin", "role_" + id % 7));
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getParentId() {
+            return parentId;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int getSort() {
+            return sort;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+    }
+
+    @Param({"20", "500"})
+    private int permissions;
+
+    private final RedisSerializer<Object> compact = new CompactRedisSerializer()
+            .register(Permission.class, 1);
+
+    private final RedisSerializer<Object> jdk = new JdkSerializationRedisSerializer();
+
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+
+    private Map<String, Object> value;
+
+    private byte[] compactBytes;
+
+    private byte[] jdkBytes;
+
+    private byte[] jsonBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Permission> list = new ArrayList<>();
+        for (int i = 0; i < permissions; i++) {
+            list.add(new Permission(i));
+        }
+        value = new LinkedHashMap<>();
+        value.put("userId", 10086L);
+        value.put("permissions", list);
+        compactBytes = compact.serialize(value);
+        jdkBytes = jdk.serialize(value);
+        jsonBytes = json.serialize(value);
+        System.out.printf("%n[permissions=%d] compact=%d bytes, jdk=%d bytes, json=%d bytes%n",
+                permissions, compactBytes.length, jdkBytes.length, jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(value);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public byte[] jdkSerialize() {
+        return jdk.serialize(value);
+    }
+
+    @Benchmark
+    public Object jdkDeserialize() {
+        return jdk.deserialize(jdkBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(value);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+}